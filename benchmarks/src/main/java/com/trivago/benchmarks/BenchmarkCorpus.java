@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.benchmarks;
+
+import com.trivago.corpus.GherkinCorpusGenerator;
+import com.trivago.logging.CucableLogger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A generated set of source features that the benchmarks run on.
+ * The features are created by the {@link GherkinCorpusGenerator} with its default seed.
+ * All corpus shapes contain a similar number of single scenarios so that their results can be compared.
+ */
+public final class BenchmarkCorpus {
+
+    private static final String RUNNER_TEMPLATE = "import io.cucumber.junit.Cucumber;\n"
+            + "import io.cucumber.junit.CucumberOptions;\n"
+            + "import org.junit.runner.RunWith;\n"
+            + "\n"
+            + "@RunWith(Cucumber.class)\n"
+            + "@CucumberOptions(\n"
+            + "        glue = \"steps\",\n"
+            + "        features = {\"target/parallel/features/[CUCABLE:FEATURE].feature\"},\n"
+            + "        plugin = {\"json:target/cucumber-report/[CUCABLE:RUNNER].json\"}\n"
+            + ")\n"
+            + "public class CucableTemplate {\n"
+            + "}\n";
+
+    private final Path directory;
+    private final List<Path> featureFiles;
+    private final List<String> featureContents;
+    private final Path runnerTemplateFile;
+
+    private BenchmarkCorpus(
+            final Path directory,
+            final List<Path> featureFiles,
+            final List<String> featureContents,
+            final Path runnerTemplateFile) {
+
+        this.directory = directory;
+        this.featureFiles = Collections.unmodifiableList(featureFiles);
+        this.featureContents = Collections.unmodifiableList(featureContents);
+        this.runnerTemplateFile = runnerTemplateFile;
+    }
+
+    /**
+     * Writes a corpus of the given shape into a new temporary directory.
+     *
+     * @param shape The shape of the corpus.
+     * @return The corpus.
+     * @throws IOException if the corpus cannot be written.
+     */
+    public static BenchmarkCorpus create(final Shape shape) throws IOException {
+        return create(shape.createGenerator());
+    }
+
+    /**
+     * Writes the features of a generator into a new temporary directory.
+     *
+     * @param generator The configured corpus generator.
+     * @return The corpus.
+     * @throws IOException if the corpus cannot be written.
+     */
+    public static BenchmarkCorpus create(final GherkinCorpusGenerator generator) throws IOException {
+        Path directory = Files.createTempDirectory("cucable-benchmark");
+        List<Path> featureFiles = generator.writeTo(directory.resolve("features"));
+        List<String> featureContents = generator.generate();
+        Path runnerTemplateFile = directory.resolve("CucableTemplate.java");
+        Files.write(runnerTemplateFile, RUNNER_TEMPLATE.getBytes(StandardCharsets.UTF_8));
+        return new BenchmarkCorpus(directory, featureFiles, featureContents, runnerTemplateFile);
+    }
+
+    /**
+     * Returns a logger that does not log anything, so that logging does not influence the results.
+     *
+     * @return The logger.
+     */
+    public static CucableLogger createSilentLogger() {
+        CucableLogger logger = new CucableLogger();
+        logger.initialize("off");
+        return logger;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Path getFeatureDirectory() {
+        return directory.resolve("features");
+    }
+
+    public List<Path> getFeatureFiles() {
+        return featureFiles;
+    }
+
+    public List<String> getFeatureContents() {
+        return featureContents;
+    }
+
+    public Path getRunnerTemplateFile() {
+        return runnerTemplateFile;
+    }
+
+    /**
+     * Creates a new empty directory inside the corpus directory, e.g. for generated files.
+     *
+     * @param name The directory name.
+     * @return The directory path.
+     * @throws IOException if the directory cannot be created or cleared.
+     */
+    public Path createEmptyDirectory(final String name) throws IOException {
+        Path emptyDirectory = directory.resolve(name);
+        deleteRecursively(emptyDirectory);
+        return Files.createDirectories(emptyDirectory);
+    }
+
+    /**
+     * Deletes the corpus directory.
+     *
+     * @throws IOException if a file cannot be deleted.
+     */
+    public void delete() throws IOException {
+        deleteRecursively(directory);
+    }
+
+    private static void deleteRecursively(final Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path file : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * The shapes of the benchmark corpora.
+     */
+    public enum Shape {
+        FEW_LARGE_OUTLINES {
+            @Override
+            GherkinCorpusGenerator createGenerator() {
+                return new GherkinCorpusGenerator()
+                        .features(4)
+                        .scenariosPerFeature(0)
+                        .outlinesPerFeature(1)
+                        .exampleRowsPerOutline(1000);
+            }
+        },
+        MANY_SMALL_FEATURES {
+            @Override
+            GherkinCorpusGenerator createGenerator() {
+                return new GherkinCorpusGenerator()
+                        .features(1000)
+                        .scenariosPerFeature(4)
+                        .outlinesPerFeature(0)
+                        .dataTables(50, 2)
+                        .docStrings(100, 1);
+            }
+        },
+        RULES_AND_DIALECTS {
+            @Override
+            GherkinCorpusGenerator createGenerator() {
+                return new GherkinCorpusGenerator()
+                        .features(200)
+                        .scenariosPerFeature(10)
+                        .outlinesPerFeature(2)
+                        .exampleRowsPerOutline(5)
+                        .rulesPerFeature(2)
+                        .languages("en", "de", "fr", "ja");
+            }
+        };
+
+        abstract GherkinCorpusGenerator createGenerator();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.features;
+
+import com.trivago.benchmarks.BenchmarkCorpus;
+import com.trivago.exceptions.CucablePluginException;
+import com.trivago.files.FileSystemManager;
+import com.trivago.gherkin.GherkinDocumentParser;
+import com.trivago.gherkin.GherkinDocumentParsers;
+import com.trivago.gherkin.GherkinParserProvider;
+import com.trivago.logging.CucableLogger;
+import com.trivago.properties.PropertyManager;
+import com.trivago.vo.SingleScenario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rendering of single scenario features.
+ * The benchmark is in the features package as the single scenario rendering is package private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeatureFileContentRendererBenchmark {
+
+    @Param({"FEW_LARGE_OUTLINES", "MANY_SMALL_FEATURES", "RULES_AND_DIALECTS"})
+    public BenchmarkCorpus.Shape corpus;
+
+    private final FeatureFileContentRenderer featureFileContentRenderer = new FeatureFileContentRenderer();
+    private List<SingleScenario> singleScenarios;
+    private int scenarioIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, CucablePluginException {
+        BenchmarkCorpus benchmarkCorpus = BenchmarkCorpus.create(corpus);
+        try {
+            CucableLogger logger = BenchmarkCorpus.createSilentLogger();
+            PropertyManager propertyManager = new PropertyManager(logger, new FileSystemManager());
+            GherkinDocumentParser gherkinDocumentParser =
+                    GherkinDocumentParsers.create(new GherkinParserProvider(), propertyManager, logger);
+            singleScenarios = new ArrayList<>();
+            for (int i = 0; i < benchmarkCorpus.getFeatureFiles().size(); i++) {
+                singleScenarios.addAll(gherkinDocumentParser.getSingleScenariosFromFeature(
+                        benchmarkCorpus.getFeatureContents().get(i),
+                        benchmarkCorpus.getFeatureFiles().get(i).toString(),
+                        null
+                ));
+            }
+        } finally {
+            benchmarkCorpus.delete();
+        }
+    }
+
+    /**
+     * Renders the feature file content of one single scenario.
+     *
+     * @return The rendered content.
+     */
+    @Benchmark
+    public String render() {
+        scenarioIndex = (scenarioIndex + 1) % singleScenarios.size();
+        return featureFileContentRenderer.getRenderedFeatureFileContent(singleScenarios.get(scenarioIndex));
+    }
+}
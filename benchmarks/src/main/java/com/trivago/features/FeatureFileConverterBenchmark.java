@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.features;
+
+import com.trivago.benchmarks.BenchmarkCorpus;
+import com.trivago.exceptions.CucablePluginException;
+import com.trivago.files.FileSystemManager;
+import com.trivago.gherkin.GherkinDocumentParsers;
+import com.trivago.gherkin.GherkinParserProvider;
+import com.trivago.logging.CucableLogger;
+import com.trivago.properties.PropertyManager;
+import com.trivago.runners.DurationHistoryReader;
+import com.trivago.runners.RunnerFileContentRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the end-to-end generation of all features and runners of a corpus, including the file system writes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FeatureFileConverterBenchmark {
+
+    @Param({"FEW_LARGE_OUTLINES", "MANY_SMALL_FEATURES", "RULES_AND_DIALECTS"})
+    public BenchmarkCorpus.Shape corpus;
+
+    @Param({"1", "0"})
+    public int numberOfGenerationThreads;
+
+    private BenchmarkCorpus benchmarkCorpus;
+    private CucableLogger logger;
+    private FileSystemManager fileSystemManager;
+    private PropertyManager propertyManager;
+    private FeatureFileConverter featureFileConverter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, CucablePluginException {
+        benchmarkCorpus = BenchmarkCorpus.create(corpus);
+        logger = BenchmarkCorpus.createSilentLogger();
+        fileSystemManager = new FileSystemManager();
+        propertyManager = new PropertyManager(logger, fileSystemManager);
+        propertyManager.setSourceFeatures(benchmarkCorpus.getFeatureDirectory().toString());
+        propertyManager.setSourceRunnerTemplateFile(benchmarkCorpus.getRunnerTemplateFile().toString());
+        propertyManager.setGeneratedFeatureDirectory(benchmarkCorpus.getDirectory().resolve("generated-features").toString());
+        propertyManager.setGeneratedRunnerDirectory(benchmarkCorpus.getDirectory().resolve("generated-runners").toString());
+        propertyManager.setParallelizationMode(PropertyManager.ParallelizationMode.SCENARIOS.toString());
+        propertyManager.setNumberOfTestRuns(1);
+        propertyManager.setNumberOfGenerationThreads(numberOfGenerationThreads);
+    }
+
+    /**
+     * Clears the generated directories and creates a new converter, as a converter holds the state of one execution.
+     *
+     * @throws IOException if a generated directory cannot be cleared.
+     */
+    @Setup(Level.Invocation)
+    public void prepareInvocation() throws IOException {
+        benchmarkCorpus.createEmptyDirectory("generated-features");
+        benchmarkCorpus.createEmptyDirectory("generated-runners");
+        featureFileConverter = new FeatureFileConverter(
+                propertyManager,
+                GherkinDocumentParsers.create(new GherkinParserProvider(), propertyManager, logger),
+                new FeatureFileContentRenderer(),
+                new RunnerFileContentRenderer(fileSystemManager, propertyManager, logger),
+                fileSystemManager,
+                new DurationHistoryReader(fileSystemManager, logger),
+                new ScenarioWeightEstimator(propertyManager),
+                logger
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        benchmarkCorpus.delete();
+    }
+
+    /**
+     * Generates all features and runners of the corpus.
+     *
+     * @throws CucablePluginException if the generation fails.
+     */
+    @Benchmark
+    public void convert() throws CucablePluginException {
+        featureFileConverter.generateParallelizableFeatures(propertyManager.getSourceFeatures());
+    }
+}
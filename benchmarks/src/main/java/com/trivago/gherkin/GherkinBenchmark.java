@@ -0,0 +1,227 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.gherkin;
+
+import com.trivago.benchmarks.BenchmarkCorpus;
+import com.trivago.corpus.GherkinCorpusGenerator;
+import com.trivago.exceptions.CucablePluginException;
+import com.trivago.files.FileSystemManager;
+import com.trivago.logging.CucableLogger;
+import com.trivago.properties.PropertyManager;
+import com.trivago.vo.SingleScenario;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Gherkin parsing and the conversion of source features into single scenarios per source feature.
+ * The corpus shapes and the example row counts are parameters of separate states, so that every benchmark only
+ * runs with the parameter it uses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GherkinBenchmark {
+
+    private GherkinParserProvider gherkinParserProvider;
+    private GherkinDocumentParser gherkinDocumentParser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CucableLogger logger = BenchmarkCorpus.createSilentLogger();
+        gherkinParserProvider = new GherkinParserProvider();
+        gherkinDocumentParser = GherkinDocumentParsers.create(
+                gherkinParserProvider, new PropertyManager(logger, new FileSystemManager()), logger);
+    }
+
+    /**
+     * Parses one source feature into Gherkin messages with the shared parser of the current thread.
+     *
+     * @param shapeCorpus The corpus to parse.
+     * @param blackhole   The blackhole that consumes the messages.
+     */
+    @Benchmark
+    public void parse(final ShapeCorpus shapeCorpus, final Blackhole blackhole) {
+        FeatureCorpus featureCorpus = shapeCorpus.featureCorpus;
+        int index = featureCorpus.nextFeatureIndex();
+        gherkinParserProvider.getGherkinParser()
+                .parse(featureCorpus.featurePaths.get(index), featureCorpus.featureBytes.get(index))
+                .forEach(blackhole::consume);
+    }
+
+    /**
+     * Parses one source feature into Gherkin messages with a new parser that is configured like the shared ones,
+     * so that the difference to {@link #parse} is only the reuse of the parser.
+     *
+     * @param shapeCorpus The corpus to parse.
+     * @param blackhole   The blackhole that consumes the messages.
+     */
+    @Benchmark
+    public void parseWithFreshParser(final ShapeCorpus shapeCorpus, final Blackhole blackhole) {
+        FeatureCorpus featureCorpus = shapeCorpus.featureCorpus;
+        int index = featureCorpus.nextFeatureIndex();
+        gherkinParserProvider.createGherkinParser()
+                .parse(featureCorpus.featurePaths.get(index), featureCorpus.featureBytes.get(index))
+                .forEach(blackhole::consume);
+    }
+
+    /**
+     * Parses and converts one source feature into single scenarios.
+     *
+     * @param shapeCorpus   The corpus to convert.
+     * @param pickleCounter Counts the converted pickles to report the throughput per pickle.
+     * @return The single scenarios.
+     * @throws CucablePluginException if the feature cannot be parsed.
+     */
+    @Benchmark
+    public List<SingleScenario> convert(final ShapeCorpus shapeCorpus, final PickleCounter pickleCounter)
+            throws CucablePluginException {
+        return convert(shapeCorpus.featureCorpus, pickleCounter);
+    }
+
+    /**
+     * Parses and converts a feature with one scenario outline of a varying number of example rows.
+     * The time per pickle stays constant as long as the conversion scales linearly with the example rows.
+     *
+     * @param exampleRowsCorpus The corpus to convert.
+     * @param pickleCounter     Counts the converted pickles to report the throughput per pickle.
+     * @return The single scenarios.
+     * @throws CucablePluginException if the feature cannot be parsed.
+     */
+    @Benchmark
+    public List<SingleScenario> convertExampleRows(
+            final ExampleRowsCorpus exampleRowsCorpus, final PickleCounter pickleCounter)
+            throws CucablePluginException {
+        return convert(exampleRowsCorpus.featureCorpus, pickleCounter);
+    }
+
+    private List<SingleScenario> convert(final FeatureCorpus featureCorpus, final PickleCounter pickleCounter)
+            throws CucablePluginException {
+        int index = featureCorpus.nextFeatureIndex();
+        List<SingleScenario> singleScenarios = gherkinDocumentParser.getSingleScenariosFromFeature(
+                featureCorpus.benchmarkCorpus.getFeatureContents().get(index),
+                featureCorpus.featurePaths.get(index),
+                null
+        );
+        pickleCounter.pickles += singleScenarios.size();
+        return singleScenarios;
+    }
+
+    /**
+     * One of the shared benchmark corpus shapes.
+     */
+    @State(Scope.Thread)
+    public static class ShapeCorpus {
+        @Param({"FEW_LARGE_OUTLINES", "MANY_SMALL_FEATURES", "RULES_AND_DIALECTS"})
+        public BenchmarkCorpus.Shape corpus;
+
+        private FeatureCorpus featureCorpus;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            featureCorpus = new FeatureCorpus(BenchmarkCorpus.create(corpus));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            featureCorpus.benchmarkCorpus.delete();
+        }
+    }
+
+    /**
+     * A single feature with one scenario outline of the given number of example rows.
+     */
+    @State(Scope.Thread)
+    public static class ExampleRowsCorpus {
+        @Param({"250", "2000", "16000"})
+        public int exampleRows;
+
+        private FeatureCorpus featureCorpus;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            featureCorpus = new FeatureCorpus(BenchmarkCorpus.create(new GherkinCorpusGenerator()
+                    .features(1)
+                    .scenariosPerFeature(0)
+                    .outlinesPerFeature(1)
+                    .exampleRowsPerOutline(exampleRows)));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            featureCorpus.benchmarkCorpus.delete();
+        }
+    }
+
+    /**
+     * The features of a corpus with their paths and bytes, iterated round robin.
+     */
+    private static final class FeatureCorpus {
+        private final BenchmarkCorpus benchmarkCorpus;
+        private final List<String> featurePaths = new ArrayList<>();
+        private final List<byte[]> featureBytes = new ArrayList<>();
+        private int featureIndex;
+
+        private FeatureCorpus(final BenchmarkCorpus benchmarkCorpus) {
+            this.benchmarkCorpus = benchmarkCorpus;
+            for (int i = 0; i < benchmarkCorpus.getFeatureFiles().size(); i++) {
+                featurePaths.add(benchmarkCorpus.getFeatureFiles().get(i).toString());
+                featureBytes.add(benchmarkCorpus.getFeatureContents().get(i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        private int nextFeatureIndex() {
+            featureIndex = (featureIndex + 1) % featurePaths.size();
+            return featureIndex;
+        }
+    }
+
+    /**
+     * Reports the number of converted pickles as an additional throughput result.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class PickleCounter {
+        public long pickles;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pickles = 0;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.gherkin;
+
+import com.trivago.logging.CucableLogger;
+import com.trivago.properties.PropertyManager;
+
+/**
+ * Creates document parsers for benchmarks outside of the gherkin package without dependency injection.
+ */
+public final class GherkinDocumentParsers {
+
+    private GherkinDocumentParsers() {
+    }
+
+    /**
+     * Creates a document parser.
+     *
+     * @param gherkinParserProvider The provider of the Gherkin parsers.
+     * @param propertyManager       The property manager.
+     * @param logger                The logger.
+     * @return The document parser.
+     */
+    public static GherkinDocumentParser create(
+            final GherkinParserProvider gherkinParserProvider,
+            final PropertyManager propertyManager,
+            final CucableLogger logger) {
+        return new GherkinDocumentParser(
+                new GherkinToCucableConverter(), gherkinParserProvider, propertyManager, logger);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.runners;
+
+import com.trivago.benchmarks.BenchmarkCorpus;
+import com.trivago.exceptions.CucablePluginException;
+import com.trivago.files.FileSystemManager;
+import com.trivago.logging.CucableLogger;
+import com.trivago.properties.PropertyManager;
+import com.trivago.vo.FeatureRunner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rendering of runners from a compiled runner template.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RunnerFileContentRendererBenchmark {
+
+    private static final int FEATURES_PER_RUNNER = 10;
+
+    @Param({"FEW_LARGE_OUTLINES", "MANY_SMALL_FEATURES", "RULES_AND_DIALECTS"})
+    public BenchmarkCorpus.Shape corpus;
+
+    private BenchmarkCorpus benchmarkCorpus;
+    private RunnerFileContentRenderer runnerFileContentRenderer;
+    private List<FeatureRunner> featureRunners;
+    private int runnerIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        benchmarkCorpus = BenchmarkCorpus.create(corpus);
+        CucableLogger logger = BenchmarkCorpus.createSilentLogger();
+        FileSystemManager fileSystemManager = new FileSystemManager();
+        runnerFileContentRenderer = new RunnerFileContentRenderer(
+                fileSystemManager, new PropertyManager(logger, fileSystemManager), logger);
+
+        String runnerTemplatePath = benchmarkCorpus.getRunnerTemplateFile().toString();
+        featureRunners = new ArrayList<>();
+        int numberOfFeatures = benchmarkCorpus.getFeatureFiles().size();
+        for (int runner = 0; runner < Math.max(1, numberOfFeatures / FEATURES_PER_RUNNER); runner++) {
+            List<String> featureFileNames = new ArrayList<>();
+            for (int feature = 0; feature < FEATURES_PER_RUNNER; feature++) {
+                featureFileNames.add(String.format("Feature%04d_scenario%03d_run001_IT", runner, feature));
+            }
+            featureRunners.add(new FeatureRunner(
+                    runnerTemplatePath, String.format("CucableMultiRunner_%04d_IT", runner), featureFileNames));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        benchmarkCorpus.delete();
+    }
+
+    /**
+     * Renders one runner with multiple features.
+     *
+     * @return The rendered runner content.
+     * @throws CucablePluginException if the runner template cannot be read.
+     */
+    @Benchmark
+    public String render() throws CucablePluginException {
+        runnerIndex = (runnerIndex + 1) % featureRunners.size();
+        return runnerFileContentRenderer.getRenderedRunnerFileContent(featureRunners.get(runnerIndex));
+    }
+}
@@ -79,6 +79,20 @@ CucablePlugin extends AbstractMojo {
     @Parameter(property = "parallel.includeScenarioTags")
     private String includeScenarioTags;
 
+    /**
+     * Optional comma separated globs of feature files to include when sourceFeatures is a directory,
+     * e.g. "checkout/**, *.smoke.feature". Globs are relative to the source feature directory.
+     */
+    @Parameter(property = "parallel.includeFeatureFiles")
+    private String includeFeatureFiles;
+
+    /**
+     * Optional comma separated globs of feature files and directories to skip when sourceFeatures is a directory,
+     * e.g. "node_modules, fixtures/**". Excluded directories are not scanned.
+     */
+    @Parameter(property = "parallel.excludeFeatureFiles")
+    private String excludeFeatureFiles;
+
     /**
      * Optional parallelization mode. By default, Cucable generates single scenarios (mode "scenarios").
      * When this property is set to "features", each generated feature file will be an exact copy of its source feature
@@ -87,11 +101,34 @@ CucablePlugin extends AbstractMojo {
     @Parameter(property = "parallel.parallelizationMode", defaultValue = "scenarios")
     private String parallelizationMode;
 
+    /**
+     * Optional naming mode of generated features and runners.
+     * 'counter' (default) numbers the source features in processing order,
+     * 'hash' derives the names from the source path and scenario so that they stay the same across runs and machines.
+     */
+    @Parameter(property = "parallel.namingMode", defaultValue = "counter")
+    private String namingMode;
+
+    /**
+     * Optional switch to let runners reference the scenarios in the source features by line number
+     * (e.g. "path/to.feature:12") instead of writing a feature file for every scenario.
+     */
+    @Parameter(property = "parallel.lineReferences", defaultValue = "false")
+    private boolean lineReferences;
+
     /**
      * Optional desired number of test runners that each run multiple features in sequence.
+     * 'auto' creates one runner per fork (see forkCount) or per available processor.
      */
     @Parameter(property = "parallel.desiredNumberOfRunners", defaultValue = "-1")
-    private int desiredNumberOfRunners;
+    private String desiredNumberOfRunners;
+
+    /**
+     * Optional hint for the number of forks or threads that run the runners concurrently,
+     * used by desiredNumberOfRunners 'auto'. A 'C' suffix multiplies the value by the available processors.
+     */
+    @Parameter(property = "parallel.forkCount")
+    private String forkCount;
 
     /**
      * Optional desired number of features to run in sequence per test runner.
@@ -122,6 +159,61 @@ CucablePlugin extends AbstractMojo {
     @Parameter(property = "parallel.scenarioNames")
     private String scenarioNames;
 
+    /**
+     * Optional number of threads that parse and generate features concurrently.
+     * The default of 1 generates features sequentially, 0 uses one thread per available processor.
+     */
+    @Parameter(property = "parallel.numberOfGenerationThreads", defaultValue = "1")
+    private int numberOfGenerationThreads;
+
+    /**
+     * Optional switch to only regenerate features and runners of source features that changed since the last run.
+     * Unchanged generated files are kept as long as the plugin configuration and runner template stay the same.
+     */
+    @Parameter(property = "parallel.incremental", defaultValue = "false")
+    private boolean incremental;
+
+    /**
+     * Optional Cucumber JSON report or directory of reports from a previous test run.
+     * If set, features are distributed over the runners so that all runners have a similar total duration.
+     */
+    @Parameter(property = "parallel.durationHistory")
+    private String durationHistory;
+
+    /**
+     * Optional switch to balance runners by the estimated weight of their scenarios instead of their number.
+     * The weight is estimated from the number of steps, data table rows and doc string sizes.
+     */
+    @Parameter(property = "parallel.balanceByScenarioWeight", defaultValue = "false")
+    private boolean balanceByScenarioWeight;
+
+    /**
+     * Optional weight multipliers for tagged scenarios, e.g. "@slow=10, @db=3".
+     */
+    @Parameter(property = "parallel.tagWeights")
+    private String tagWeights;
+
+    /**
+     * Optional zero based index of the shard to generate when the suite is split over multiple build nodes.
+     */
+    @Parameter(property = "parallel.shardIndex", defaultValue = "0")
+    private int shardIndex;
+
+    /**
+     * Optional number of shards (e.g. build nodes) that the scenarios are split over.
+     * Only the features and runners of the shard specified by shardIndex are generated.
+     */
+    @Parameter(property = "parallel.shardCount", defaultValue = "1")
+    private int shardCount;
+
+    /**
+     * Optional assignment of scenarios to shards.
+     * 'hash' (default) assigns each scenario by a consistent hash of its source path and line,
+     * 'balanced' distributes the scenarios so that all shards have a similar estimated cost.
+     */
+    @Parameter(property = "parallel.shardAssignment", defaultValue = "hash")
+    private String shardAssignment;
+
     @Inject
     public CucablePlugin(
             PropertyManager propertyManager,
@@ -154,11 +246,24 @@ CucablePlugin extends AbstractMojo {
         propertyManager.setGeneratedFeatureDirectory(generatedFeatureDirectory);
         propertyManager.setNumberOfTestRuns(numberOfTestRuns);
         propertyManager.setIncludeScenarioTags(includeScenarioTags);
+        propertyManager.setIncludeFeatureFiles(includeFeatureFiles);
+        propertyManager.setExcludeFeatureFiles(excludeFeatureFiles);
         propertyManager.setParallelizationMode(parallelizationMode);
+        propertyManager.setNamingMode(namingMode);
+        propertyManager.setLineReferences(lineReferences);
         propertyManager.setCustomPlaceholders(customPlaceholders);
+        propertyManager.setForkCount(forkCount);
         propertyManager.setDesiredNumberOfRunners(desiredNumberOfRunners);
         propertyManager.setDesiredNumberOfFeaturesPerRunner(desiredNumberOfFeaturesPerRunner);
         propertyManager.setScenarioNames(scenarioNames);
+        propertyManager.setNumberOfGenerationThreads(numberOfGenerationThreads);
+        propertyManager.setIncremental(incremental);
+        propertyManager.setDurationHistory(durationHistory);
+        propertyManager.setBalanceByScenarioWeight(balanceByScenarioWeight);
+        propertyManager.setTagWeights(tagWeights);
+        propertyManager.setShardCount(shardCount);
+        propertyManager.setShardIndex(shardIndex);
+        propertyManager.setShardAssignment(shardAssignment);
 
         // Validate passed POM properties
         propertyManager.checkForMissingMandatoryProperties();
@@ -169,10 +274,18 @@ CucablePlugin extends AbstractMojo {
         propertyManager.logProperties();
 
         // Create the necessary directories if missing.
-        fileManager.prepareGeneratedFeatureAndRunnerDirectories(
-                propertyManager.getGeneratedRunnerDirectory(),
-                propertyManager.getGeneratedFeatureDirectory()
-        );
+        if (propertyManager.isIncremental()) {
+            // Outdated files are removed by the feature file converter.
+            fileManager.createGeneratedFeatureAndRunnerDirectories(
+                    propertyManager.getGeneratedRunnerDirectory(),
+                    propertyManager.getGeneratedFeatureDirectory()
+            );
+        } else {
+            fileManager.prepareGeneratedFeatureAndRunnerDirectories(
+                    propertyManager.getGeneratedRunnerDirectory(),
+                    propertyManager.getGeneratedFeatureDirectory()
+            );
+        }
         // Conversion of scenarios into single scenarios and runners.
         featureFileConverter.generateParallelizableFeatures(propertyManager.getSourceFeatures());
     }
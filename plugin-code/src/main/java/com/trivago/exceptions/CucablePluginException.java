@@ -32,4 +32,14 @@ public class CucablePluginException extends MojoExecutionException {
     public CucablePluginException(final String message) {
         super(message);
     }
+
+    /**
+     * Constructor.
+     *
+     * @param message The error message for the exception.
+     * @param cause   The exception that caused this error.
+     */
+    public CucablePluginException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
 }
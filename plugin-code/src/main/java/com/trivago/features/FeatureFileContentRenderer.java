@@ -17,6 +17,7 @@
 package com.trivago.features;
 
 import com.trivago.vo.DataTable;
+import com.trivago.vo.FeatureContext;
 import com.trivago.vo.SingleScenario;
 import com.trivago.vo.Step;
 
@@ -28,34 +29,34 @@ import java.util.List;
 public class FeatureFileContentRenderer {
 
     private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final int INITIAL_BUFFER_CAPACITY = 8 * 1024;
+    private static final int MAXIMUM_RETAINED_BUFFER_CAPACITY = 1024 * 1024;
+
+    // Each thread renders into its own buffer that is reused for all of its generated features.
+    private final ThreadLocal<StringBuilder> renderBuffer =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    // The scenarios of a source feature are rendered one after another by the same thread,
+    // so the feature header and footer of the last rendered feature are kept per thread.
+    private final ThreadLocal<RenderedFeatureFrame> lastRenderedFeatureFrame = new ThreadLocal<>();
 
     /**
-     * Get the complete content based on multiple features that can be written to a valid feature file.
+     * Renders the complete content based on multiple features that can be written to a valid feature file.
      *
-     * @return the feature file content.
+     * @param singleScenarios the scenarios of the feature file.
+     * @param renderedContent the buffer to append the feature file content to.
      */
-    private String getRenderedFeatureFileContent(List<SingleScenario> singleScenarios) {
-        StringBuilder renderedContent = new StringBuilder();
-
+    private void renderFeatureFileContent(
+            final List<SingleScenario> singleScenarios, final StringBuilder renderedContent) {
         SingleScenario firstScenario = singleScenarios.get(0);
+        RenderedFeatureFrame featureFrame = getRenderedFeatureFrame(firstScenario.getFeatureContext());
 
-        addLanguage(renderedContent, firstScenario.getFeatureLanguage());
-        addTags(renderedContent, firstScenario.getFeatureTags());
-        addNameAndDescription(
-                renderedContent,
-                firstScenario.getFeatureName(),
-                firstScenario.getFeatureDescription()
-        );
-
-        addBackgroundSteps(renderedContent, firstScenario.getBackgroundSteps());
+        renderedContent.append(featureFrame.header);
 
         for (SingleScenario singleScenario : singleScenarios) {
             renderedContent.append(LINE_SEPARATOR);
-            List<String> scenarioTags = singleScenario.getScenarioTags();
-            if (scenarioTags != null && firstScenario.getFeatureTags() != null) {
-                scenarioTags.removeAll(firstScenario.getFeatureTags());
-            }
-            addTags(renderedContent, scenarioTags);
+            // Scenario tags include the inherited feature tags, which are already rendered for the feature
+            addTags(renderedContent, singleScenario.getScenarioTags(), firstScenario.getFeatureTags());
             addTags(renderedContent, singleScenario.getExampleTags());
 
             addNameAndDescription(
@@ -71,8 +72,34 @@ public class FeatureFileContentRenderer {
             }
         }
 
-        addComments(renderedContent, firstScenario.getFeatureFilePath());
-        return renderedContent.toString();
+        renderedContent.append(featureFrame.footer);
+    }
+
+    /**
+     * Returns the rendered parts of a feature that are the same for all of its scenarios.
+     * They are only rendered again if a different feature is rendered.
+     *
+     * @param featureContext The feature information of the scenarios.
+     * @return The rendered feature header and footer.
+     */
+    private RenderedFeatureFrame getRenderedFeatureFrame(final FeatureContext featureContext) {
+        RenderedFeatureFrame featureFrame = lastRenderedFeatureFrame.get();
+        if (featureFrame != null && featureFrame.featureContext == featureContext) {
+            return featureFrame;
+        }
+
+        StringBuilder header = new StringBuilder();
+        addLanguage(header, featureContext.getFeatureLanguage());
+        addTags(header, featureContext.getFeatureTags());
+        addNameAndDescription(header, featureContext.getFeatureName(), featureContext.getFeatureDescription());
+        addBackgroundSteps(header, featureContext.getBackgroundSteps());
+
+        StringBuilder footer = new StringBuilder();
+        addComments(footer, featureContext.getFeatureFilePath());
+
+        featureFrame = new RenderedFeatureFrame(featureContext, header.toString(), footer.toString());
+        lastRenderedFeatureFrame.set(featureFrame);
+        return featureFrame;
     }
 
     /**
@@ -81,7 +108,25 @@ public class FeatureFileContentRenderer {
      * @return the feature file content.
      */
     String getRenderedFeatureFileContent(SingleScenario singleScenario) {
-        return getRenderedFeatureFileContent(Collections.singletonList(singleScenario));
+        return renderFeatureFileContent(singleScenario).toString();
+    }
+
+    /**
+     * Renders the complete content based on a single feature into the reusable buffer of the current thread.
+     * This avoids creating a string for every generated feature when the content is written right away.
+     *
+     * @return the feature file content that is only valid until the current thread renders the next feature.
+     */
+    CharSequence renderFeatureFileContent(SingleScenario singleScenario) {
+        StringBuilder renderedContent = renderBuffer.get();
+        if (renderedContent.capacity() > MAXIMUM_RETAINED_BUFFER_CAPACITY) {
+            // Do not keep the memory of an exceptionally large feature for the rest of the generation.
+            renderedContent = new StringBuilder(INITIAL_BUFFER_CAPACITY);
+            renderBuffer.set(renderedContent);
+        }
+        renderedContent.setLength(0);
+        renderFeatureFileContent(Collections.singletonList(singleScenario), renderedContent);
+        return renderedContent;
     }
 
     /**
@@ -128,8 +173,8 @@ public class FeatureFileContentRenderer {
         }
         for (Step step : steps) {
             stringBuilder.append("    ").append(step.getName()).append(LINE_SEPARATOR);
-            stringBuilder.append(formatDocString(step.getDocString()));
-            stringBuilder.append(formatDataTableString(step.getDataTable()));
+            addDocString(stringBuilder, step.getDocString());
+            addDataTable(stringBuilder, step.getDataTable());
         }
     }
 
@@ -173,47 +218,60 @@ public class FeatureFileContentRenderer {
      * @param tags          The list of {@link String} tags.
      */
     private void addTags(final StringBuilder stringBuilder, final List<String> tags) {
+        addTags(stringBuilder, tags, null);
+    }
+
+    /**
+     * Adds the tags to the generated feature file content except for the excluded ones.
+     *
+     * @param stringBuilder The current feature {@link StringBuilder} instance.
+     * @param tags          The list of {@link String} tags.
+     * @param excludedTags  The tags that should not be added or null.
+     */
+    private void addTags(final StringBuilder stringBuilder, final List<String> tags, final List<String> excludedTags) {
         if (tags == null) {
             return;
         }
         for (String tag : tags) {
-            stringBuilder.append(tag).append(LINE_SEPARATOR);
+            if (excludedTags == null || !excludedTags.contains(tag)) {
+                stringBuilder.append(tag).append(LINE_SEPARATOR);
+            }
         }
     }
 
     /**
-     * Turns a {@link DataTable} instance into a printable string.
+     * Adds a {@link DataTable} instance to the generated feature file content.
      *
-     * @param dataTable the {@link DataTable} instance.
-     * @return the processed data table {@link String}.
+     * @param stringBuilder The current feature {@link StringBuilder} instance.
+     * @param dataTable     the {@link DataTable} instance.
      */
-    private String formatDataTableString(final DataTable dataTable) {
+    private void addDataTable(final StringBuilder stringBuilder, final DataTable dataTable) {
         if (dataTable == null) {
-            return "";
+            return;
         }
         char dataTableSeparator = '|';
-        StringBuilder dataTableStringBuilder = new StringBuilder();
         for (List<String> rowValues : dataTable.getRows()) {
-            dataTableStringBuilder.append("      ").append(dataTableSeparator);
+            stringBuilder.append("      ").append(dataTableSeparator);
             for (String rowValue : rowValues) {
-                dataTableStringBuilder.append(" ").append(rowValue).append(" ").append(dataTableSeparator);
+                stringBuilder.append(" ").append(rowValue).append(" ").append(dataTableSeparator);
             }
-            dataTableStringBuilder.append(LINE_SEPARATOR);
+            stringBuilder.append(LINE_SEPARATOR);
         }
-        return dataTableStringBuilder.toString();
     }
 
     /**
-     * Turns a DocString into a printable {@link String} including quotes.
+     * Adds a DocString including quotes to the generated feature file content.
      *
-     * @param docString the DocString {@link String}.
-     * @return the processed DocString {@link String}.
+     * @param stringBuilder The current feature {@link StringBuilder} instance.
+     * @param docString     the DocString {@link String}.
      */
-    private String formatDocString(final String docString) {
+    private void addDocString(final StringBuilder stringBuilder, final String docString) {
         if (docString == null || docString.isEmpty()) {
-            return "";
+            return;
         }
-        return "\"\"\"" + LINE_SEPARATOR + docString + LINE_SEPARATOR + "\"\"\"" + LINE_SEPARATOR;
+        stringBuilder.append("\"\"\"").append(LINE_SEPARATOR)
+                .append(docString).append(LINE_SEPARATOR)
+                .append("\"\"\"").append(LINE_SEPARATOR);
     }
 
     /**
@@ -251,4 +309,19 @@ public class FeatureFileContentRenderer {
         }
         stringBuilder.append(LINE_SEPARATOR);
     }
+
+    /**
+     * The rendered feature content before and after the scenarios of a feature.
+     */
+    private static final class RenderedFeatureFrame {
+        private final FeatureContext featureContext;
+        private final String header;
+        private final String footer;
+
+        private RenderedFeatureFrame(final FeatureContext featureContext, final String header, final String footer) {
+            this.featureContext = featureContext;
+            this.header = header;
+            this.footer = footer;
+        }
+    }
 }
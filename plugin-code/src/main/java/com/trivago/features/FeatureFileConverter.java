@@ -24,18 +24,18 @@ import com.trivago.gherkin.GherkinDocumentParser;
 import com.trivago.logging.CucableLogger;
 import com.trivago.logging.Language;
 import com.trivago.properties.PropertyManager;
+import com.trivago.runners.DurationHistory;
+import com.trivago.runners.DurationHistoryReader;
 import com.trivago.runners.RunnerFileContentRenderer;
 import com.trivago.vo.CucableFeature;
 import com.trivago.vo.FeatureRunner;
+import com.trivago.vo.GeneratedFeature;
 import com.trivago.vo.SingleScenario;
-import io.cucumber.gherkin.GherkinParser;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 import static com.trivago.logging.CucableLogger.CucableLogLevel.*;
@@ -54,12 +54,15 @@ public class FeatureFileConverter {
     private static final String TEST_RUNS_COUNTER_FORMAT = "_run%03d";
     private static final String FEATURE_COUNTER_FORMAT = "_feature%03d";
     private static final String SCENARIO_COUNTER_FORMAT = "_scenario%03d";
+    private static final int STABLE_NAME_HASH_LENGTH = 12;
 
     private final PropertyManager propertyManager;
     private final GherkinDocumentParser gherkinDocumentParser;
     private final FeatureFileContentRenderer featureFileContentRenderer;
     private final RunnerFileContentRenderer runnerFileContentRenderer;
     private final FileSystemManager fileSystemManager;
+    private final DurationHistoryReader durationHistoryReader;
+    private final ScenarioWeightEstimator scenarioWeightEstimator;
     private final CucableLogger logger;
 
     // Holds the current number of single features per feature key
@@ -69,6 +72,15 @@ public class FeatureFileConverter {
     // Holds the postfixes for the generated feature files in case of duplicate feature names.
     private int featurePostfix = 0;
 
+    // Holds the hash based base names of generated features in naming mode 'hash' to resolve collisions.
+    private final Set<String> stableFeatureBaseNames = new HashSet<>();
+
+    // Holds all generated features by name, so that runners can be grouped without reading generated files.
+    private final Map<String, GeneratedFeature> generatedFeaturesByName = new HashMap<>();
+
+    // Holds the names of all runner classes generated in the current run.
+    private final Set<String> generatedRunnerClassNames = new HashSet<>();
+
     @Inject
     public FeatureFileConverter(
             PropertyManager propertyManager,
@@ -76,6 +88,8 @@ public class FeatureFileConverter {
             FeatureFileContentRenderer featureFileContentRenderer,
             RunnerFileContentRenderer runnerFileContentRenderer,
             FileSystemManager fileSystemManager,
+            DurationHistoryReader durationHistoryReader,
+            ScenarioWeightEstimator scenarioWeightEstimator,
             CucableLogger logger
     ) {
         this.propertyManager = propertyManager;
@@ -83,6 +97,8 @@ public class FeatureFileConverter {
         this.featureFileContentRenderer = featureFileContentRenderer;
         this.runnerFileContentRenderer = runnerFileContentRenderer;
         this.fileSystemManager = fileSystemManager;
+        this.durationHistoryReader = durationHistoryReader;
+        this.scenarioWeightEstimator = scenarioWeightEstimator;
         this.logger = logger;
     }
 
@@ -95,42 +111,230 @@ public class FeatureFileConverter {
     public void generateParallelizableFeatures(
             final List<CucableFeature> cucableFeatures) throws CucablePluginException {
 
-        int featureFileCounter = 0;
-        List<String> allGeneratedFeaturePaths = new ArrayList<>();
+        // This converter is a singleton that can be invoked repeatedly in the same JVM (e.g. per reactor module).
+        scenarioPerFeatureCounters.clear();
+        featurePostfix = 0;
+        stableFeatureBaseNames.clear();
+        generatedFeaturesByName.clear();
+        generatedRunnerClassNames.clear();
+        runnerFileContentRenderer.clearCompiledRunnerTemplates();
+        try {
+            generateFeaturesAndRunners(cucableFeatures);
+        } finally {
+            // Shared strings are only needed during one generation and must not stay in memory of a long-lived JVM.
+            gherkinDocumentParser.clearSharedValues();
+        }
+    }
+
+    /**
+     * Generates the features and runners of all source features.
+     *
+     * @param cucableFeatures feature files to process
+     * @throws CucablePluginException see {@link CucablePluginException}
+     */
+    private void generateFeaturesAndRunners(
+            final List<CucableFeature> cucableFeatures) throws CucablePluginException {
 
+        GenerationReport report = new GenerationReport(fileSystemManager);
+        report.startPhase("discovery");
+        List<CucableFeature> sourceFeatureFiles = new ArrayList<>();
         for (CucableFeature cucableFeature : cucableFeatures) {
-            List<Path> paths = fileSystemManager.getPathsFromCucableFeature(cucableFeature);
+            List<Path> paths = fileSystemManager.getPathsFromCucableFeature(
+                    cucableFeature,
+                    propertyManager.getIncludeFeatureFiles(),
+                    propertyManager.getExcludeFeatureFiles()
+            );
             if (paths.isEmpty()) {
                 logger.warn("No features and runners could be created. Please check your properties!");
             }
             for (Path path : paths) {
-                List<String> generatedFeatureFilePaths =
-                        generateParallelizableFeatures(path, cucableFeature.getLineNumbers());
-                allGeneratedFeaturePaths.addAll(generatedFeatureFilePaths);
-                featureFileCounter += generatedFeatureFilePaths.size();
+                sourceFeatureFiles.add(new CucableFeature(
+                        cucableFeature.getOrigin(),
+                        cucableFeature.getOriginTextFile(),
+                        path.toString(),
+                        cucableFeature.getLineNumbers()
+                ));
+            }
+        }
+
+        report.endPhase(sourceFeatureFiles.size());
+
+        report.startPhase("parsing");
+        GenerationManifest previousManifest = null;
+        GenerationManifest manifest = null;
+        String manifestFilePath =
+                propertyManager.getGeneratedFeatureDirectory() + PATH_SEPARATOR + GenerationManifest.FILE_NAME;
+        if (propertyManager.isIncremental()) {
+            String configurationHash = getConfigurationHash();
+            previousManifest = readGenerationManifest(manifestFilePath, configurationHash);
+            manifest = new GenerationManifest(configurationHash);
+        }
+        // A stale manifest must never survive a run that could not update it.
+        fileSystemManager.removeFileIfExists(manifestFilePath);
+
+        List<Integer> sourceFeatureIndexes = new ArrayList<>();
+        for (int i = 0; i < sourceFeatureFiles.size(); i++) {
+            sourceFeatureIndexes.add(i);
+        }
+        Set<String> repeatedSourceFeatures = getRepeatedSourceFeatures(sourceFeatureFiles);
+        final GenerationManifest reusableManifest = previousManifest;
+
+        GenerationTaskExecutor taskExecutor =
+                new GenerationTaskExecutor(propertyManager.getNumberOfGenerationThreads());
+
+        // Parsing and filtering can run concurrently as it does not depend on other source features.
+        List<ProcessedSourceFeature> processedSourceFeatures = taskExecutor.processAll(
+                sourceFeatureIndexes,
+                index -> processSourceFeature(
+                        sourceFeatureFiles.get(index),
+                        featurePostfix + index + 1,
+                        repeatedSourceFeatures.contains(sourceFeatureFiles.get(index).getName())
+                                ? null : reusableManifest)
+        );
+        int singleScenarioCounter = 0;
+        for (ProcessedSourceFeature processedSourceFeature : processedSourceFeatures) {
+            if (!processedSourceFeature.isUnchanged()) {
+                singleScenarioCounter += processedSourceFeature.getSingleScenarios().size();
             }
         }
+        report.endPhase(singleScenarioCounter);
+
+        // Naming depends on the processing order of the source features, so it is always done sequentially.
+        report.startPhase("naming");
+        List<List<GeneratedFeature>> generatedFeaturesPerSourceFeature = new ArrayList<>();
+        List<List<GeneratedFeature>> changedGeneratedFeaturesPerSourceFeature = new ArrayList<>();
+        Set<String> unchangedGeneratedFeatureNames = new HashSet<>();
+        List<String> allGeneratedFeaturePaths = new ArrayList<>();
+        int unchangedSourceFeatureCounter = 0;
+        for (int i = 0; i < sourceFeatureFiles.size(); i++) {
+            ProcessedSourceFeature processedSourceFeature = processedSourceFeatures.get(i);
+            List<GeneratedFeature> generatedFeatures;
+            if (processedSourceFeature.isUnchanged()) {
+                featurePostfix++;
+                unchangedSourceFeatureCounter++;
+                generatedFeatures = processedSourceFeature.getUnchangedGeneratedFeatures();
+                for (GeneratedFeature generatedFeature : generatedFeatures) {
+                    unchangedGeneratedFeatureNames.add(generatedFeature.getName());
+                }
+            } else {
+                generatedFeatures = getGeneratedFeatures(
+                        Paths.get(sourceFeatureFiles.get(i).getName()),
+                        processedSourceFeature.getSingleScenarios()
+                );
+                changedGeneratedFeaturesPerSourceFeature.add(generatedFeatures);
+            }
+            if (manifest != null) {
+                manifest.addEntry(
+                        processedSourceFeature.getSourceKey(),
+                        processedSourceFeature.getContentHash(),
+                        generatedFeatures
+                );
+            }
+            generatedFeaturesPerSourceFeature.add(generatedFeatures);
+            for (GeneratedFeature generatedFeature : generatedFeatures) {
+                allGeneratedFeaturePaths.add(generatedFeature.getName());
+                generatedFeaturesByName.put(generatedFeature.getName(), generatedFeature);
+            }
+        }
+        // From here on, the parsed scenarios are only referenced by the generated features that still need them.
+        processedSourceFeatures.clear();
+        report.endPhase(allGeneratedFeaturePaths.size());
+
+        // A duration history refers to the features of the previous generation, so it is read before they are replaced.
+        report.startPhase("balancing");
+        Map<String, Long> featureCosts = getEstimatedFeatureCosts(generatedFeaturesPerSourceFeature);
+        if (propertyManager.isSharding()) {
+            Set<String> shardFeatureNames = getShardFeatureNames(generatedFeaturesPerSourceFeature, featureCosts);
+            generatedFeaturesPerSourceFeature =
+                    getGeneratedFeaturesOfShard(generatedFeaturesPerSourceFeature, shardFeatureNames);
+            changedGeneratedFeaturesPerSourceFeature =
+                    getGeneratedFeaturesOfShard(changedGeneratedFeaturesPerSourceFeature, shardFeatureNames);
+            allGeneratedFeaturePaths.removeIf(name -> !shardFeatureNames.contains(name));
+        }
+        int featureFileCounter = allGeneratedFeaturePaths.size();
+        report.endPhase(featureFileCounter);
+
+        report.startPhase("features");
+        if (propertyManager.isIncremental()) {
+            // Remove all features except for the still valid ones of unchanged source features.
+            fileSystemManager.removeFilesFromPath(
+                    propertyManager.getGeneratedFeatureDirectory(), "feature", unchangedGeneratedFeatureNames);
+        }
+        if (!propertyManager.isLineReferences()) {
+            taskExecutor.processAll(changedGeneratedFeaturesPerSourceFeature, this::saveFeatures);
+        }
+        writeGeneratedFeatureProperties(generatedFeaturesPerSourceFeature);
+        // Scenarios that were not written (e.g. of other shards or in line reference mode) are not needed anymore.
+        for (GeneratedFeature generatedFeature : generatedFeaturesByName.values()) {
+            generatedFeature.releaseSingleScenario();
+        }
+        report.endPhase(featureFileCounter);
 
         for (Map.Entry<String, Integer> entry : scenarioPerFeatureCounters.entrySet()) {
             logFeatureFileConversionMessage(entry.getKey(), entry.getValue());
         }
+        if (unchangedSourceFeatureCounter > 0) {
+            int unchangedFeatureFileCounter = unchangedGeneratedFeatureNames.size();
+            logger.info(
+                    String.format("- reused %3d %s from %d unchanged source %s",
+                            unchangedFeatureFileCounter,
+                            Language.singularPlural(unchangedFeatureFileCounter, "feature file", "feature files"),
+                            unchangedSourceFeatureCounter,
+                            Language.singularPlural(unchangedSourceFeatureCounter, "feature", "features")
+                    ),
+                    DEFAULT
+            );
+        }
 
+        report.startPhase("runners");
         int runnerFileCounter;
         if (propertyManager.getDesiredNumberOfFeaturesPerRunner() > 0) {
             runnerFileCounter = generateRunnerClassesWithDesiredNumberOfFeatures(
-                    allGeneratedFeaturePaths, propertyManager.getDesiredNumberOfFeaturesPerRunner()
+                    allGeneratedFeaturePaths, propertyManager.getDesiredNumberOfFeaturesPerRunner(), featureCosts
             );
         } else {
             runnerFileCounter = generateRunnerClassesWithDesiredNumberOfRunners(
-                    allGeneratedFeaturePaths, propertyManager.getDesiredNumberOfRunners()
+                    allGeneratedFeaturePaths, propertyManager.getDesiredNumberOfRunners(), featureCosts
+            );
+        }
+        if (propertyManager.isAutomaticNumberOfRunners() && runnerFileCounter > 0) {
+            logger.info(
+                    String.format("- distributed %d %s over %d %s (about %d per runner)",
+                            featureFileCounter,
+                            Language.singularPlural(featureFileCounter, "feature", "features"),
+                            runnerFileCounter,
+                            Language.singularPlural(runnerFileCounter, "runner", "runners"),
+                            (featureFileCounter + runnerFileCounter - 1) / runnerFileCounter
+                    ),
+                    DEFAULT
             );
         }
 
+        if (manifest != null) {
+            // Runners that were not regenerated in this run belong to features that no longer exist.
+            String generatedRunnerDirectory = propertyManager.getGeneratedRunnerDirectory();
+            if (generatedRunnerDirectory != null && !generatedRunnerDirectory.isEmpty()) {
+                fileSystemManager.removeFilesFromPath(generatedRunnerDirectory, "java", generatedRunnerClassNames);
+            }
+            fileSystemManager.writeContentToFile(manifest.toString(), manifestFilePath);
+        }
+        report.endPhase(runnerFileCounter);
+
+        logger.logInfoSeparator(DEFAULT);
+        for (String summaryLine : report.getSummaryLines()) {
+            logger.info(summaryLine, DEFAULT);
+        }
+        fileSystemManager.writeContentToFileAtomically(
+                report.toString(),
+                propertyManager.getGeneratedFeatureDirectory() + PATH_SEPARATOR + GenerationReport.FILE_NAME
+        );
         logger.logInfoSeparator(DEFAULT);
         logger.info(
                 String.format("Cucable created %d separate %s and %d %s.",
                         featureFileCounter,
-                        Language.singularPlural(featureFileCounter, "feature file", "feature files"),
+                        propertyManager.isLineReferences()
+                                ? Language.singularPlural(featureFileCounter, "feature reference", "feature references")
+                                : Language.singularPlural(featureFileCounter, "feature file", "feature files"),
                         runnerFileCounter,
                         Language.singularPlural(runnerFileCounter, "runner", "runners")
                 ),
@@ -139,172 +343,599 @@ public class FeatureFileConverter {
     }
 
     /**
-     * Converts all scenarios in the given feature file to single
-     * scenario feature files and their respective runners.
+     * Reads and parses a source feature file unless it is unchanged since the last incremental generation.
      *
-     * @param sourceFeatureFilePath feature file to process.
-     * @param lineNumbers           scenario line numbers.
-     * @throws CucablePluginException see {@link CucablePluginException}
+     * @param sourceFeatureFile The source feature file and its requested scenario line numbers.
+     * @param postfix           The postfix that the generated features of this source feature receive.
+     * @param previousManifest  The manifest of the last incremental generation or null if nothing can be reused.
+     * @return The processed source feature.
+     * @throws CucablePluginException in case the feature file cannot be read or parsed.
      */
-    private List<String> generateParallelizableFeatures(
-            final Path sourceFeatureFilePath,
-            final List<Integer> lineNumbers) throws CucablePluginException {
-        if (propertyManager.getParallelizationMode() == PropertyManager.ParallelizationMode.SCENARIOS) {
-            return generateFeaturesWithScenariosParallelizationMode(sourceFeatureFilePath, lineNumbers);
-        } else {
-            return generateFeaturesWithFeaturesParallelizationMode(sourceFeatureFilePath);
+    private ProcessedSourceFeature processSourceFeature(
+            final CucableFeature sourceFeatureFile,
+            final int postfix,
+            final GenerationManifest previousManifest) throws CucablePluginException {
+
+        String featureFilePathString = sourceFeatureFile.getName();
+        // With hash based names, the position of a source feature does not influence its generated features.
+        String sourceKey = (isHashNaming() ? "" : postfix + "|")
+                + featureFilePathString + "|" + sourceFeatureFile.getLineNumbers();
+        // Complete features are only parsed to estimate their weight from their scenarios.
+        boolean parseScenarios =
+                propertyManager.getParallelizationMode() == PropertyManager.ParallelizationMode.SCENARIOS
+                        || isEstimatingFeatureCosts();
+
+        if (!propertyManager.isIncremental()) {
+            List<SingleScenario> singleScenarios = parseScenarios
+                    ? getSingleScenarios(sourceFeatureFile, fileSystemManager.readContentFromFile(featureFilePathString))
+                    : Collections.emptyList();
+            return new ProcessedSourceFeature(sourceKey, null, singleScenarios, null);
         }
+
+        String featureFileContent = fileSystemManager.readContentFromFile(featureFilePathString);
+        String contentHash = GenerationManifest.hash(featureFileContent);
+        if (previousManifest != null) {
+            List<GeneratedFeature> unchangedGeneratedFeatures =
+                    previousManifest.getUnchangedGeneratedFeatures(sourceKey, featureFilePathString, contentHash);
+            if (unchangedGeneratedFeatures != null && generatedFeaturesExist(unchangedGeneratedFeatures)) {
+                return new ProcessedSourceFeature(sourceKey, contentHash, null, unchangedGeneratedFeatures);
+            }
+        }
+        List<SingleScenario> singleScenarios = parseScenarios
+                ? getSingleScenarios(sourceFeatureFile, featureFileContent)
+                : Collections.emptyList();
+        return new ProcessedSourceFeature(sourceKey, contentHash, singleScenarios, null);
     }
 
     /**
-     * Generate features with parallelization mode 'features'.
+     * Parses and filters the scenarios of a source feature file.
      *
-     * @param sourceFeatureFilePath Path of the source feature(s).
-     * @return A list of generated feature paths.
-     * @throws CucablePluginException in case feature files cannot be created.
+     * @param sourceFeatureFile  The source feature file and its requested scenario line numbers.
+     * @param featureFileContent The content of the source feature file.
+     * @return A list of single scenarios.
+     * @throws CucablePluginException in case the feature file cannot be parsed.
      */
-    private List<String> generateFeaturesWithFeaturesParallelizationMode(final Path sourceFeatureFilePath) throws
-            CucablePluginException {
-        String featureFilePathString = sourceFeatureFilePath.toString();
-        String featureFileContent = fileSystemManager.readContentFromFile(featureFilePathString);
-        return generateFeatureFiles(sourceFeatureFilePath, featureFileContent);
+    private List<SingleScenario> getSingleScenarios(
+            final CucableFeature sourceFeatureFile,
+            final String featureFileContent) throws CucablePluginException {
+
+        String featureFilePathString = sourceFeatureFile.getName();
+        if (featureFilePathString.isEmpty()) {
+            throw new MissingFileException(featureFilePathString);
+        }
+
+        return gherkinDocumentParser.getSingleScenariosFromFeature(
+                featureFileContent,
+                featureFilePathString,
+                sourceFeatureFile.getLineNumbers()
+        );
     }
 
     /**
-     * Generate features with parallelization mode 'scenarios'.
+     * Checks if all previously generated features are still present in the generated feature directory.
      *
-     * @param sourceFeatureFilePath path of the source feature(s).
-     * @param lineNumbers           scenario line numbers.
-     * @return A list of generated feature paths.
-     * @throws CucablePluginException in case feature files cannot be created.
+     * @param generatedFeatures The previously generated features.
+     * @return true if all feature files exist.
      */
-    private List<String> generateFeaturesWithScenariosParallelizationMode(
-            final Path sourceFeatureFilePath,
-            final List<Integer> lineNumbers) throws CucablePluginException {
+    private boolean generatedFeaturesExist(final List<GeneratedFeature> generatedFeatures) {
+        if (propertyManager.isLineReferences()) {
+            // Matching scenario names needs the parsed scenarios, which are not stored.
+            return propertyManager.getScenarioNames().isEmpty();
+        }
+        for (GeneratedFeature generatedFeature : generatedFeatures) {
+            String generatedFeatureFilePath = propertyManager.getGeneratedFeatureDirectory()
+                    .concat(PATH_SEPARATOR)
+                    .concat(generatedFeature.getName())
+                    .concat(FEATURE_FILE_EXTENSION);
+            if (!fileSystemManager.fileExists(generatedFeatureFilePath)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        String featureFilePathString = sourceFeatureFilePath.toString();
-        if (featureFilePathString.isEmpty()) {
-            throw new MissingFileException(featureFilePathString);
+    /**
+     * Determines source feature paths that occur more than once.
+     * Their generated features depend on each other, so they are always regenerated.
+     *
+     * @param sourceFeatureFiles The source feature files in processing order.
+     * @return The set of repeated source feature paths.
+     */
+    private Set<String> getRepeatedSourceFeatures(final List<CucableFeature> sourceFeatureFiles) {
+        Set<String> sourceFeatures = new HashSet<>();
+        Set<String> repeatedSourceFeatures = new HashSet<>();
+        for (CucableFeature sourceFeatureFile : sourceFeatureFiles) {
+            if (!sourceFeatures.add(sourceFeatureFile.getName())) {
+                repeatedSourceFeatures.add(sourceFeatureFile.getName());
+            }
         }
+        return repeatedSourceFeatures;
+    }
 
-        String featureFileContent = fileSystemManager.readContentFromFile(featureFilePathString);
-        List<SingleScenario> singleScenarios;
-        singleScenarios =
-                gherkinDocumentParser.getSingleScenariosFromFeature(
-                        featureFileContent,
-                        featureFilePathString,
-                        lineNumbers
-                );
+    /**
+     * Creates a hash of everything besides the source features that influences the generated files.
+     *
+     * @return The configuration hash.
+     * @throws MissingFileException if the runner template cannot be read.
+     */
+    private String getConfigurationHash() throws MissingFileException {
+        String runnerTemplateFile = propertyManager.getSourceRunnerTemplateFile();
+        String runnerTemplateContent = "";
+        if (runnerTemplateFile != null && fileSystemManager.fileExists(runnerTemplateFile)) {
+            runnerTemplateContent = fileSystemManager.readContentFromFile(runnerTemplateFile);
+        }
+        return GenerationManifest.hash(
+                getClass().getPackage().getImplementationVersion() + "\n" +
+                propertyManager.getEffectiveConfiguration() + "\n" +
+                runnerTemplateContent
+        );
+    }
+
+    /**
+     * Reads the manifest of the last incremental generation.
+     *
+     * @param manifestFilePath  The path to the manifest file.
+     * @param configurationHash The hash of the current configuration.
+     * @return The previous manifest or null if it is missing, invalid or was created with another configuration.
+     * @throws MissingFileException if the manifest exists but cannot be read.
+     */
+    private GenerationManifest readGenerationManifest(
+            final String manifestFilePath,
+            final String configurationHash) throws MissingFileException {
+
+        if (!fileSystemManager.fileExists(manifestFilePath)) {
+            return null;
+        }
+        String manifestContent = fileSystemManager.readContentFromFile(manifestFilePath);
+        GenerationManifest previousManifest =
+                manifestContent == null ? null : GenerationManifest.fromString(manifestContent);
+        if (previousManifest == null || !previousManifest.getConfigurationHash().equals(configurationHash)) {
+            logger.info("Cucable configuration changed, regenerating all features and runners.", DEFAULT);
+            return null;
+        }
+        return previousManifest;
+    }
 
-        return generateFeatureFiles(sourceFeatureFilePath, singleScenarios);
+    /**
+     * Determines the generated feature files for a source feature.
+     *
+     * @param sourceFeatureFilePath The complete path to the source feature.
+     * @param singleScenarios       The single scenarios of the source feature (only used in mode 'scenarios').
+     * @return A list of generated features.
+     */
+    private List<GeneratedFeature> getGeneratedFeatures(
+            final Path sourceFeatureFilePath,
+            final List<SingleScenario> singleScenarios) {
+        if (propertyManager.getParallelizationMode() == PropertyManager.ParallelizationMode.SCENARIOS) {
+            return getGeneratedScenarioFeatures(sourceFeatureFilePath, singleScenarios);
+        } else {
+            return getGeneratedCompleteFeatures(sourceFeatureFilePath, singleScenarios);
+        }
     }
 
     /**
-     * Write a single scenario feature to new files and return a list of generated file paths for later runner creation.
+     * Determines the generated single scenario features of a source feature.
      *
      * @param sourceFeatureFilePath The complete path to the source feature.
      * @param singleScenarios       a list of single scenarios.
-     * @return A list of generated feature file paths.
-     * @throws FileCreationException Thrown if the feature file cannot be created.
+     * @return A list of generated features.
      */
-    private List<String> generateFeatureFiles(
+    private List<GeneratedFeature> getGeneratedScenarioFeatures(
             final Path sourceFeatureFilePath,
-            final List<SingleScenario> singleScenarios) throws FileCreationException {
+            final List<SingleScenario> singleScenarios) {
 
-        List<String> generatedFeaturePaths = new ArrayList<>();
+        List<GeneratedFeature> generatedFeatures = new ArrayList<>();
         featurePostfix++;
 
         for (SingleScenario singleScenario : singleScenarios) {
-            String featureFileName = getFeatureFileNameFromPath(sourceFeatureFilePath) + "_" + featurePostfix;
             Integer scenarioPerFeatureCounter =
                     scenarioPerFeatureCounters.getOrDefault(sourceFeatureFilePath.toString(), 0);
             scenarioPerFeatureCounter++;
-            String scenarioCounterFilenamePart = String.format(SCENARIO_COUNTER_FORMAT, scenarioPerFeatureCounter);
+            String featureFileName;
+            if (isHashNaming()) {
+                featureFileName = getStableFeatureBaseName(
+                        sourceFeatureFilePath,
+                        singleScenario.getScenarioName() + "\n" + singleScenario.getExampleRow()
+                );
+            } else {
+                featureFileName = getFeatureFileNameFromPath(sourceFeatureFilePath) + "_" + featurePostfix
+                        + String.format(SCENARIO_COUNTER_FORMAT, scenarioPerFeatureCounter);
+            }
+            List<String> tags = getCombinedTags(singleScenario);
+            long weight = scenarioWeightEstimator.estimateWeight(singleScenario);
             for (int testRuns = 1; testRuns <= propertyManager.getNumberOfTestRuns(); testRuns++) {
-                String generatedFileName =
-                        featureFileName
-                                .concat(scenarioCounterFilenamePart);
-
                 String testRunsCounterFilenamePart = String.format(TEST_RUNS_COUNTER_FORMAT, testRuns);
-                generatedFileName =
-                        generatedFileName.concat(testRunsCounterFilenamePart).concat(INTEGRATION_TEST_POSTFIX);
-                saveFeature(
+                String generatedFileName =
+                        featureFileName.concat(testRunsCounterFilenamePart).concat(INTEGRATION_TEST_POSTFIX);
+                generatedFeatures.add(new GeneratedFeature(
                         generatedFileName,
-                        featureFileContentRenderer.getRenderedFeatureFileContent(singleScenario)
-                );
-                generatedFeaturePaths.add(generatedFileName);
+                        singleScenario.getFeatureFilePath(),
+                        getSourceLineNumber(singleScenario),
+                        singleScenario.getFeatureLanguage(),
+                        singleScenario.getScenarioName(),
+                        tags,
+                        weight,
+                        singleScenario
+                ));
                 scenarioPerFeatureCounters.put(sourceFeatureFilePath.toString(), scenarioPerFeatureCounter);
+            }
+        }
 
+        return generatedFeatures;
+    }
 
-                fileSystemManager.writeContentToFile(
-                        generatedFileName + "=" +
-                        singleScenario.getFeatureFilePath() + ":" + singleScenario.getLineNumber() + "\n",
-                        propertyManager.getGeneratedFeatureDirectory() +
-                        "/generated-features.properties");
-            }
+    /**
+     * Returns the distinct feature, scenario and example tags of a scenario.
+     *
+     * @param singleScenario The single scenario.
+     * @return The combined tags.
+     */
+    private List<String> getCombinedTags(final SingleScenario singleScenario) {
+        Set<String> tags = new LinkedHashSet<>(singleScenario.getFeatureTags());
+        tags.addAll(singleScenario.getScenarioTags());
+        tags.addAll(singleScenario.getExampleTags());
+        return new ArrayList<>(tags);
+    }
+
+    /**
+     * Returns the source line number of a generated scenario feature.
+     * In line reference mode, scenario outline examples are referenced by their example row.
+     *
+     * @param singleScenario The single scenario.
+     * @return The line number.
+     */
+    private int getSourceLineNumber(final SingleScenario singleScenario) {
+        if (propertyManager.isLineReferences() && singleScenario.getExampleRowLineNumber() > 0) {
+            return singleScenario.getExampleRowLineNumber();
         }
+        return singleScenario.getLineNumber();
+    }
 
-        return generatedFeaturePaths;
+    /**
+     * Returns the reference to the source of a generated feature that Cucumber can select scenarios by,
+     * e.g. "path/to.feature:12" for a single scenario or "path/to.feature" for a complete feature.
+     *
+     * @param generatedFeature The generated feature.
+     * @return The feature reference.
+     */
+    private String getFeatureReference(final GeneratedFeature generatedFeature) {
+        String sourceFeatureFilePath = generatedFeature.getSourceFeatureFilePath().replace('\\', '/');
+        if (propertyManager.getParallelizationMode() == PropertyManager.ParallelizationMode.FEATURES) {
+            return sourceFeatureFilePath;
+        }
+        return sourceFeatureFilePath + ":" + generatedFeature.getSourceLineNumber();
     }
 
     /**
-     * Write a copy of the original feature file content to new files and return a list of generated file paths for later runner creation.
+     * Determines the generated copies of a complete source feature.
+     * Their weight is the sum of the weights of all scenarios of the source feature.
      *
      * @param sourceFeatureFilePath The complete path to the source feature.
-     * @param featureFileContent    the content to copy into the new feature file.
-     * @return A list of generated feature file paths.
-     * @throws FileCreationException Thrown if the feature file cannot be created.
+     * @param singleScenarios       The scenarios of the source feature (empty if they were not parsed).
+     * @return A list of generated features.
      */
-    private List<String> generateFeatureFiles(
-            final Path sourceFeatureFilePath, final String featureFileContent) throws FileCreationException {
+    private List<GeneratedFeature> getGeneratedCompleteFeatures(
+            final Path sourceFeatureFilePath,
+            final List<SingleScenario> singleScenarios) {
 
-        List<String> generatedFeaturePaths = new ArrayList<>();
+        List<GeneratedFeature> generatedFeatures = new ArrayList<>();
         featurePostfix++;
 
-
-        String featureFileName = getFeatureFileNameFromPath(sourceFeatureFilePath) +  "_" + featurePostfix;
         Integer featureCounter = scenarioPerFeatureCounters.getOrDefault(sourceFeatureFilePath.toString(), 0);
         featureCounter++;
-        String featureCounterFilenamePart = String.format(FEATURE_COUNTER_FORMAT, featureCounter);
+        String featureFileName;
+        if (isHashNaming()) {
+            featureFileName = getStableFeatureBaseName(sourceFeatureFilePath, "");
+        } else {
+            featureFileName = getFeatureFileNameFromPath(sourceFeatureFilePath) + "_" + featurePostfix
+                    + String.format(FEATURE_COUNTER_FORMAT, featureCounter);
+        }
+        long weight = 0;
+        for (SingleScenario singleScenario : singleScenarios) {
+            weight += scenarioWeightEstimator.estimateWeight(singleScenario);
+        }
         for (int testRuns = 1; testRuns <= propertyManager.getNumberOfTestRuns(); testRuns++) {
             String testRunsCounterFilenamePart = String.format(TEST_RUNS_COUNTER_FORMAT, testRuns);
             String generatedFileName =
                     featureFileName
-                            .concat(featureCounterFilenamePart)
                             .concat(testRunsCounterFilenamePart)
                             .concat(INTEGRATION_TEST_POSTFIX);
-            saveFeature(
+            generatedFeatures.add(new GeneratedFeature(
                     generatedFileName,
-                    featureFileContent
+                    sourceFeatureFilePath.toString(),
+                    1,
+                    null,
+                    null,
+                    Collections.emptyList(),
+                    weight,
+                    null
+            ));
+            scenarioPerFeatureCounters.put(sourceFeatureFilePath.toString(), featureCounter);
+        }
+        return generatedFeatures;
+    }
+
+    /**
+     * Renders and writes the generated features of a single source feature.
+     * The copies of a scenario or feature that are generated for multiple test runs are rendered once and
+     * duplicated from the first written file. Scenario features are rendered into a reusable buffer and written
+     * from there without creating a string for each of them.
+     *
+     * @param generatedFeatures The generated features of one source feature.
+     * @return The number of written feature files.
+     * @throws CucablePluginException Thrown if a feature file cannot be read or created.
+     */
+    private Integer saveFeatures(final List<GeneratedFeature> generatedFeatures) throws CucablePluginException {
+        int numberOfTestRuns = propertyManager.getNumberOfTestRuns();
+        String completeFeatureFileContent = null;
+        CharSequence firstRunFeatureFileContent = null;
+        String firstRunFeatureFilePath = null;
+        for (int i = 0; i < generatedFeatures.size(); i++) {
+            GeneratedFeature generatedFeature = generatedFeatures.get(i);
+            String generatedFeatureFilePath = getGeneratedFeatureFilePath(generatedFeature.getName());
+            // The copies of a scenario or feature for all test runs are generated consecutively.
+            if (i % numberOfTestRuns != 0) {
+                fileSystemManager.duplicateFile(
+                        firstRunFeatureFilePath, generatedFeatureFilePath, firstRunFeatureFileContent);
+                continue;
+            }
+            SingleScenario singleScenario = generatedFeature.getSingleScenario();
+            CharSequence featureFileContent;
+            if (singleScenario != null) {
+                featureFileContent = featureFileContentRenderer.renderFeatureFileContent(singleScenario);
+            } else {
+                if (completeFeatureFileContent == null) {
+                    completeFeatureFileContent =
+                            fileSystemManager.readContentFromFile(generatedFeature.getSourceFeatureFilePath());
+                }
+                featureFileContent = completeFeatureFileContent;
+            }
+            fileSystemManager.writeContentToFile(featureFileContent, generatedFeatureFilePath);
+            generatedFeature.releaseSingleScenario();
+            firstRunFeatureFileContent = featureFileContent;
+            firstRunFeatureFilePath = generatedFeatureFilePath;
+        }
+        return generatedFeatures.size();
+    }
+
+    /**
+     * Estimates the cost of each generated feature for balancing the runners.
+     * Durations recorded in the configured duration history take precedence. Features without a recorded duration
+     * are estimated by their scenario weight, which is converted to a duration using the features that have both.
+     * Features without any estimate are assumed to take the average cost.
+     *
+     * @param generatedFeaturesPerSourceFeature The generated features grouped by source feature.
+     * @return The estimated costs by generated feature name or null if runners should not be balanced by cost.
+     * @throws CucablePluginException Thrown if the duration history cannot be read.
+     */
+    private Map<String, Long> getEstimatedFeatureCosts(
+            final List<List<GeneratedFeature>> generatedFeaturesPerSourceFeature) throws CucablePluginException {
+
+        if (!isEstimatingFeatureCosts()) {
+            return null;
+        }
+        String durationHistoryPath = propertyManager.getDurationHistory();
+        boolean useDurationHistory = durationHistoryPath != null && !durationHistoryPath.isEmpty();
+        DurationHistory durationHistory = null;
+        if (useDurationHistory) {
+            // Balanced shards must be computed identically on every node. The properties file of a node only lists
+            // the features of its own shard, so reports are mapped via the names of the current generation instead.
+            boolean balancedSharding = propertyManager.isSharding()
+                    && propertyManager.getShardAssignment() == PropertyManager.ShardAssignment.BALANCED;
+            durationHistory = durationHistoryReader.readDurationHistory(
+                    durationHistoryPath,
+                    balancedSharding ? null : getGeneratedFeaturePropertiesFilePath(),
+                    generatedFeaturesByName
             );
+        }
 
-            fileSystemManager.writeContentToFile(
-                generatedFileName + "=" + sourceFeatureFilePath.toString() + ":1\n",
-                propertyManager.getGeneratedFeatureDirectory() + "/generated-features.properties");
-            generatedFeaturePaths.add(generatedFileName);
-            scenarioPerFeatureCounters.put(sourceFeatureFilePath.toString(), featureCounter);
+        List<GeneratedFeature> allGeneratedFeatures = new ArrayList<>();
+        Map<String, Long> recordedDurations = new HashMap<>();
+        Map<String, Long> scenarioWeights = new HashMap<>();
+        long totalRecordedDuration = 0;
+        long totalScenarioWeight = 0;
+        long totalWeightedRecordedDuration = 0;
+        long totalRecordedScenarioWeight = 0;
+        for (List<GeneratedFeature> generatedFeatures : generatedFeaturesPerSourceFeature) {
+            for (GeneratedFeature generatedFeature : generatedFeatures) {
+                allGeneratedFeatures.add(generatedFeature);
+                Long weight = null;
+                if (generatedFeature.getWeight() > 0) {
+                    weight = generatedFeature.getWeight();
+                    scenarioWeights.put(generatedFeature.getName(), weight);
+                    totalScenarioWeight += weight;
+                }
+                Long duration = durationHistory == null ? null : durationHistory.getDuration(
+                        generatedFeature.getSourceFeatureFilePath(), generatedFeature.getSourceLineNumber());
+                if (duration != null) {
+                    recordedDurations.put(generatedFeature.getName(), duration);
+                    totalRecordedDuration += duration;
+                    if (weight != null) {
+                        totalWeightedRecordedDuration += duration;
+                        totalRecordedScenarioWeight += weight;
+                    }
+                }
+            }
+        }
+
+        long averageCost = 1;
+        if (!recordedDurations.isEmpty()) {
+            averageCost = totalRecordedDuration / recordedDurations.size();
+        } else if (!scenarioWeights.isEmpty()) {
+            averageCost = totalScenarioWeight / scenarioWeights.size();
+        }
+        Map<String, Long> featureCosts = new HashMap<>();
+        for (GeneratedFeature generatedFeature : allGeneratedFeatures) {
+            String name = generatedFeature.getName();
+            long cost = averageCost;
+            if (recordedDurations.containsKey(name)) {
+                cost = recordedDurations.get(name);
+            } else if (scenarioWeights.containsKey(name) && totalRecordedScenarioWeight > 0) {
+                cost = Math.round(
+                        scenarioWeights.get(name) * (double) totalWeightedRecordedDuration / totalRecordedScenarioWeight);
+            } else if (scenarioWeights.containsKey(name) && recordedDurations.isEmpty()) {
+                cost = scenarioWeights.get(name);
+            }
+            featureCosts.put(name, Math.max(1, cost));
+        }
+
+        if (useDurationHistory) {
+            logger.info(
+                    String.format("- found recorded durations for %d of %d generated %s",
+                            recordedDurations.size(),
+                            featureCosts.size(),
+                            Language.singularPlural(featureCosts.size(), "feature", "features")
+                    ),
+                    DEFAULT
+            );
         }
-        return generatedFeaturePaths;
+        return featureCosts;
     }
 
     /**
-     * Save generated feature file contents and return the file path.
+     * Assigns the generated features to the configured shards and writes the shard manifest.
+     * All test run copies of a scenario or feature belong to the same shard.
      *
-     * @param featureFileName            The feature file name.
-     * @param renderedFeatureFileContent The rendered file contents.
-     * @throws FileCreationException if the file cannot be created.
+     * @param generatedFeaturesPerSourceFeature The generated features of all shards grouped by source feature.
+     * @param featureCosts                      The estimated costs of the generated features or null if there are none.
+     * @return The names of the generated features that belong to the configured shard.
+     * @throws FileCreationException Thrown if the shard manifest cannot be written.
      */
-    private void saveFeature(final String featureFileName, final String renderedFeatureFileContent)
-            throws FileCreationException {
+    private Set<String> getShardFeatureNames(
+            final List<List<GeneratedFeature>> generatedFeaturesPerSourceFeature,
+            final Map<String, Long> featureCosts) throws FileCreationException {
 
-        String generatedFeatureFilePath =
-                propertyManager.getGeneratedFeatureDirectory()
-                        .concat(PATH_SEPARATOR)
-                        .concat(featureFileName)
-                        .concat(FEATURE_FILE_EXTENSION);
+        int numberOfTestRuns = propertyManager.getNumberOfTestRuns();
+        List<List<GeneratedFeature>> shardUnits = new ArrayList<>();
+        List<String> shardUnitNames = new ArrayList<>();
+        List<String> shardKeys = new ArrayList<>();
+        Map<String, Long> shardUnitCosts = new HashMap<>();
+        Map<String, Integer> sourceLocationOccurrences = new HashMap<>();
+        for (List<GeneratedFeature> generatedFeatures : generatedFeaturesPerSourceFeature) {
+            for (int i = 0; i < generatedFeatures.size(); i += numberOfTestRuns) {
+                List<GeneratedFeature> shardUnit =
+                        generatedFeatures.subList(i, Math.min(i + numberOfTestRuns, generatedFeatures.size()));
+                GeneratedFeature firstGeneratedFeature = shardUnit.get(0);
+                String sourceLocation =
+                        getStableSourcePath(Paths.get(firstGeneratedFeature.getSourceFeatureFilePath()))
+                                + ":" + firstGeneratedFeature.getSourceLineNumber();
+                int occurrence = sourceLocationOccurrences.merge(sourceLocation, 1, Integer::sum);
+                long shardUnitCost = 0;
+                for (GeneratedFeature generatedFeature : shardUnit) {
+                    shardUnitCost += featureCosts == null ? 1 : featureCosts.getOrDefault(generatedFeature.getName(), 1L);
+                }
+                shardUnits.add(shardUnit);
+                shardUnitNames.add(firstGeneratedFeature.getName());
+                shardKeys.add(sourceLocation + "#" + occurrence);
+                shardUnitCosts.put(firstGeneratedFeature.getName(), shardUnitCost);
+            }
+        }
+
+        int shardCount = propertyManager.getShardCount();
+        int[] shards = propertyManager.getShardAssignment() == PropertyManager.ShardAssignment.BALANCED
+                ? ShardAssigner.assignByCost(shardUnitNames, shardUnitCosts, shardCount)
+                : ShardAssigner.assignByHash(shardKeys, shardCount);
 
-        // Save scenario information to new feature file
-        fileSystemManager.writeContentToFile(renderedFeatureFileContent, generatedFeatureFilePath);
+        ShardManifest shardManifest =
+                new ShardManifest(shardCount, propertyManager.getShardAssignment(), featureCosts != null);
+        Set<String> shardFeatureNames = new HashSet<>();
+        int allFeatureCounter = 0;
+        for (int i = 0; i < shardUnits.size(); i++) {
+            for (GeneratedFeature generatedFeature : shardUnits.get(i)) {
+                allFeatureCounter++;
+                shardManifest.addFeature(
+                        shards[i], featureCosts == null ? 0 : featureCosts.getOrDefault(generatedFeature.getName(), 0L));
+                if (shards[i] == propertyManager.getShardIndex()) {
+                    shardFeatureNames.add(generatedFeature.getName());
+                }
+            }
+        }
+        fileSystemManager.writeContentToFileAtomically(
+                shardManifest.toString(),
+                propertyManager.getGeneratedFeatureDirectory() + PATH_SEPARATOR + ShardManifest.FILE_NAME
+        );
+        logger.info(
+                String.format("- shard %d of %d contains %d of %d %s",
+                        propertyManager.getShardIndex(),
+                        shardCount,
+                        shardFeatureNames.size(),
+                        allFeatureCounter,
+                        Language.singularPlural(allFeatureCounter, "feature", "features")
+                ),
+                DEFAULT
+        );
+        return shardFeatureNames;
+    }
+
+    /**
+     * Removes the generated features that do not belong to the configured shard.
+     *
+     * @param generatedFeaturesPerSourceFeature The generated features grouped by source feature.
+     * @param shardFeatureNames                 The names of the generated features of the configured shard.
+     * @return The generated features of the configured shard grouped by source feature.
+     */
+    private List<List<GeneratedFeature>> getGeneratedFeaturesOfShard(
+            final List<List<GeneratedFeature>> generatedFeaturesPerSourceFeature,
+            final Set<String> shardFeatureNames) {
+
+        List<List<GeneratedFeature>> shardGeneratedFeaturesPerSourceFeature = new ArrayList<>();
+        for (List<GeneratedFeature> generatedFeatures : generatedFeaturesPerSourceFeature) {
+            List<GeneratedFeature> shardGeneratedFeatures = new ArrayList<>();
+            for (GeneratedFeature generatedFeature : generatedFeatures) {
+                if (shardFeatureNames.contains(generatedFeature.getName())) {
+                    shardGeneratedFeatures.add(generatedFeature);
+                }
+            }
+            shardGeneratedFeaturesPerSourceFeature.add(shardGeneratedFeatures);
+        }
+        return shardGeneratedFeaturesPerSourceFeature;
+    }
+
+    /**
+     * Writes the mapping of generated feature names to their source feature and line number.
+     * The mapping of all generated features replaces the previous properties file at once.
+     *
+     * @param generatedFeaturesPerSourceFeature The generated features grouped by source feature.
+     * @throws FileCreationException Thrown if the properties file cannot be written.
+     */
+    private void writeGeneratedFeatureProperties(
+            final List<List<GeneratedFeature>> generatedFeaturesPerSourceFeature) throws FileCreationException {
+        StringBuilder generatedFeatureProperties = new StringBuilder();
+        for (List<GeneratedFeature> generatedFeatures : generatedFeaturesPerSourceFeature) {
+            for (GeneratedFeature generatedFeature : generatedFeatures) {
+                generatedFeatureProperties
+                        .append(generatedFeature.getName())
+                        .append('=')
+                        .append(generatedFeature.getSourceFeatureFilePath())
+                        .append(':')
+                        .append(generatedFeature.getSourceLineNumber())
+                        .append('\n');
+            }
+        }
+        fileSystemManager.writeContentToFileAtomically(
+                generatedFeatureProperties.toString(), getGeneratedFeaturePropertiesFilePath());
+    }
+
+    /**
+     * Returns the path of the properties file that maps generated features to their source features.
+     *
+     * @return The properties file path.
+     */
+    private String getGeneratedFeaturePropertiesFilePath() {
+        return propertyManager.getGeneratedFeatureDirectory() + PATH_SEPARATOR + "generated-features.properties";
+    }
+
+    /**
+     * Returns the path of a generated feature file.
+     *
+     * @param featureFileName The feature file name.
+     * @return The complete path to the generated feature file.
+     */
+    private String getGeneratedFeatureFilePath(final String featureFileName) {
+        return propertyManager.getGeneratedFeatureDirectory()
+                .concat(PATH_SEPARATOR)
+                .concat(featureFileName)
+                .concat(FEATURE_FILE_EXTENSION);
     }
 
     /**
@@ -312,11 +943,14 @@ public class FeatureFileConverter {
      *
      * @param generatedFeatureNames  The list of generated feature file names.
      * @param numberOfDesiredRunners The number of desired runners (if set to 0, a runner is generated for each feature file path).
+     * @param featureCosts       The estimated costs of the generated features or null to distribute them evenly.
      * @return The number of generated runners.
      * @throws CucablePluginException see {@link CucablePluginException}.
      */
-    private int generateRunnerClassesWithDesiredNumberOfRunners(final List<String> generatedFeatureNames, final int numberOfDesiredRunners) throws
-            CucablePluginException {
+    private int generateRunnerClassesWithDesiredNumberOfRunners(
+            final List<String> generatedFeatureNames,
+            final int numberOfDesiredRunners,
+            final Map<String, Long> featureCosts) throws CucablePluginException {
 
         int targetRunnerNumber = numberOfDesiredRunners;
         List<String> scenarioNames = propertyManager.getScenarioNames();
@@ -327,6 +961,11 @@ public class FeatureFileConverter {
             return 0;
         }
 
+        if (featureCosts != null && scenarioNames.isEmpty()) {
+            return generateRunnerClasses(RunnerPartitioner.partitionByCost(
+                    generatedFeatureNames, featureCosts, targetRunnerNumber, Integer.MAX_VALUE));
+        }
+
         List<List<String>> generatedFeatureNamesPerRunner = new ArrayList<>(targetRunnerNumber);
         for (int i = 0; i < targetRunnerNumber; i++) {
             generatedFeatureNamesPerRunner.add(new ArrayList<>());
@@ -343,23 +982,10 @@ public class FeatureFileConverter {
                 }
             } else {
                 // Move all scenarios matching a scenario name into its own group.
-                String scenarioText = fileSystemManager.readContentFromFile(propertyManager.getGeneratedFeatureDirectory() + "/" + generatedFeatureName + ".feature");
-                if (scenarioText != null) {
-                    GherkinParser parser = GherkinParser.builder().build();
-                    String language = "en";
-                    try {
-                        language = parser.parse("scenario.feature", new ByteArrayInputStream(scenarioText.getBytes(StandardCharsets.UTF_8)))
-                                .filter(envelope -> envelope.getGherkinDocument().isPresent())
-                                .map(envelope -> envelope.getGherkinDocument().get().getFeature())
-                                .filter(feature -> feature.isPresent())
-                                .map(feature -> feature.get().getLanguage())
-                                .findFirst()
-                                .orElse("en");
-                    } catch (IOException e) {
-                        // Ignore parsing errors
-                    }
-
-                    int listIndex = gherkinDocumentParser.matchScenarioWithScenarioNames(language, scenarioText);
+                GeneratedFeature generatedFeature = generatedFeaturesByName.get(generatedFeatureName);
+                if (generatedFeature != null && generatedFeature.getScenarioName() != null) {
+                    int listIndex = gherkinDocumentParser.matchScenarioWithScenarioNames(
+                            generatedFeature.getLanguage(), generatedFeature.getScenarioName());
                     if (listIndex >= 0) {
                         generatedFeatureNamesPerRunner.get(listIndex).add(generatedFeatureName);
                         matchCount++;
@@ -368,14 +994,25 @@ public class FeatureFileConverter {
             }
         }
 
-
-
         if (!scenarioNames.isEmpty() && matchCount == 0) {
             throw new CucablePluginException(
                     "No matching scenarios found for specified scenario names - " + Arrays.toString(scenarioNames.toArray()) + "!"
             );
         }
 
+        return generateRunnerClasses(generatedFeatureNamesPerRunner);
+    }
+
+    /**
+     * Generates a runner class for each non-empty group of generated features.
+     *
+     * @param generatedFeatureNamesPerRunner The generated feature file names per runner.
+     * @return The number of generated runners.
+     * @throws CucablePluginException see {@link CucablePluginException}.
+     */
+    private int generateRunnerClasses(final List<List<String>> generatedFeatureNamesPerRunner)
+            throws CucablePluginException {
+
         int runnerFileCounter = 0;
         for (List<String> generatedFeatureNamesForSingleRunner : generatedFeatureNamesPerRunner) {
             if (!generatedFeatureNamesForSingleRunner.isEmpty()) {
@@ -383,7 +1020,6 @@ public class FeatureFileConverter {
                 runnerFileCounter++;
             }
         }
-
         return runnerFileCounter;
     }
 
@@ -392,14 +1028,24 @@ public class FeatureFileConverter {
      *
      * @param generatedFeatureNames            The list of generated feature file names.
      * @param numberOfDesiredFeaturesPerRunner The number of desired features per runner.
+     * @param featureCosts                 The estimated costs of the generated features
+     *                                         or null to keep the features in their generation order.
      * @return The number of generated runners.
      * @throws CucablePluginException see {@link CucablePluginException}.
      */
     private int generateRunnerClassesWithDesiredNumberOfFeatures(
             final List<String> generatedFeatureNames,
-            final int numberOfDesiredFeaturesPerRunner)
+            final int numberOfDesiredFeaturesPerRunner,
+            final Map<String, Long> featureCosts)
             throws CucablePluginException {
 
+        if (featureCosts != null) {
+            int numberOfRunners = (generatedFeatureNames.size() + numberOfDesiredFeaturesPerRunner - 1)
+                    / numberOfDesiredFeaturesPerRunner;
+            return generateRunnerClasses(RunnerPartitioner.partitionByCost(
+                    generatedFeatureNames, featureCosts, numberOfRunners, numberOfDesiredFeaturesPerRunner));
+        }
+
         int currentRunnerFeatureCount = 0;
         int totalFeatureCount = 0;
         List<String> generatedFeatureNamesForSingleRunner = new ArrayList<>();
@@ -433,15 +1079,26 @@ public class FeatureFileConverter {
         if (generatedFeatureFileNames.size() == 1) {
             runnerClassName = "Runner_" + generatedFeatureFileNames.get(0);
         } else {
+            // Derived from the contained features so that the same features always yield the same runner.
             runnerClassName = "CucableMultiRunner_"
-                    .concat(UUID.randomUUID().toString().replace("-", "_"))
+                    .concat(GenerationManifest.hash(String.join("\n", generatedFeatureFileNames)).substring(0, 32))
                     .concat(INTEGRATION_TEST_POSTFIX);
         }
 
         // Generate runner for the newly generated single scenario feature file
-        FeatureRunner featureRunner =
-                new FeatureRunner(
-                        propertyManager.getSourceRunnerTemplateFile(), runnerClassName, generatedFeatureFileNames);
+        List<String> runnerFeatureReferences = null;
+        if (propertyManager.isLineReferences()) {
+            runnerFeatureReferences = new ArrayList<>(generatedFeatureFileNames.size());
+            for (String generatedFeatureFileName : generatedFeatureFileNames) {
+                runnerFeatureReferences.add(getFeatureReference(generatedFeaturesByName.get(generatedFeatureFileName)));
+            }
+        }
+        FeatureRunner featureRunner = new FeatureRunner(
+                propertyManager.getSourceRunnerTemplateFile(),
+                runnerClassName,
+                generatedFeatureFileNames,
+                runnerFeatureReferences
+        );
 
         String renderedRunnerClassContent =
                 runnerFileContentRenderer.getRenderedRunnerFileContent(featureRunner);
@@ -452,9 +1109,76 @@ public class FeatureFileConverter {
                         .concat(runnerClassName)
                         .concat(RUNNER_FILE_EXTENSION);
 
+        generatedRunnerClassNames.add(runnerClassName);
+        if (propertyManager.isIncremental() && fileSystemManager.fileExists(generatedRunnerClassFilePath)) {
+            // Keep unchanged runners untouched so that their compiled classes stay up to date.
+            if (renderedRunnerClassContent.equals(
+                    fileSystemManager.readContentFromFile(generatedRunnerClassFilePath))) {
+                return;
+            }
+            fileSystemManager.removeFileIfExists(generatedRunnerClassFilePath);
+        }
         fileSystemManager.writeContentToFile(renderedRunnerClassContent, generatedRunnerClassFilePath);
     }
 
+    /**
+     * Checks if runners and balanced shards are balanced by estimated feature costs.
+     *
+     * @return true if a duration history or balancing by scenario weight is configured.
+     */
+    private boolean isEstimatingFeatureCosts() {
+        String durationHistoryPath = propertyManager.getDurationHistory();
+        return (durationHistoryPath != null && !durationHistoryPath.isEmpty())
+                || propertyManager.isBalanceByScenarioWeight();
+    }
+
+    /**
+     * Checks if generated features are named by a hash of their source instead of a counter.
+     *
+     * @return true in naming mode 'hash'.
+     */
+    private boolean isHashNaming() {
+        return propertyManager.getNamingMode() == PropertyManager.NamingMode.HASH;
+    }
+
+    /**
+     * Creates a generated feature name that only depends on the source feature path and the scenario.
+     * If the same source and scenario occur more than once, the occurrence is added to the hash.
+     *
+     * @param sourceFeatureFilePath The path to the source feature.
+     * @param scenarioIdentity      The scenario name and example row or an empty string for complete features.
+     * @return The generated feature name without test run counter and postfix.
+     */
+    private String getStableFeatureBaseName(final Path sourceFeatureFilePath, final String scenarioIdentity) {
+        String identity = getStableSourcePath(sourceFeatureFilePath) + "\n" + scenarioIdentity;
+        String featureFileName = getFeatureFileNameFromPath(sourceFeatureFilePath);
+        String baseName =
+                featureFileName + "_" + GenerationManifest.hash(identity).substring(0, STABLE_NAME_HASH_LENGTH);
+        int occurrence = 1;
+        while (!stableFeatureBaseNames.add(baseName)) {
+            occurrence++;
+            baseName = featureFileName + "_"
+                    + GenerationManifest.hash(identity + "\n" + occurrence).substring(0, STABLE_NAME_HASH_LENGTH);
+        }
+        return baseName;
+    }
+
+    /**
+     * Returns the source feature path relative to the working directory with forward slashes,
+     * so that it is the same on every machine.
+     *
+     * @param sourceFeatureFilePath The path to the source feature.
+     * @return The machine independent path.
+     */
+    private String getStableSourcePath(final Path sourceFeatureFilePath) {
+        Path path = sourceFeatureFilePath.normalize();
+        Path workingDirectory = Paths.get("").toAbsolutePath();
+        if (path.isAbsolute() && path.startsWith(workingDirectory)) {
+            path = workingDirectory.relativize(path);
+        }
+        return path.toString().replace('\\', '/');
+    }
+
     /**
      * Log the completion message for a feature file.
      *
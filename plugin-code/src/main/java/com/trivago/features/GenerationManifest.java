@@ -0,0 +1,302 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.features;
+
+import com.trivago.vo.GeneratedFeature;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the source features of an incremental generation together with their content hashes
+ * and the features that were generated from them.
+ */
+class GenerationManifest {
+
+    static final String FILE_NAME = "cucable-manifest.txt";
+
+    private static final String HEADER = "# Cucable generation manifest - do not edit";
+    // Manifests of other format versions are discarded, which forces a full generation.
+    private static final String FORMAT_VERSION = "2";
+    private static final String VERSION_PREFIX = "version";
+    private static final String CONFIGURATION_PREFIX = "configuration";
+    private static final String SOURCE_PREFIX = "source";
+    private static final String METADATA_PREFIX = "metadata";
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String FEATURE_SEPARATOR = ";";
+    private static final String LINE_SEPARATOR = ":";
+    private static final String TAG_SEPARATOR = " ";
+
+    private final String configurationHash;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param configurationHash The hash of the effective plugin configuration and runner template.
+     */
+    GenerationManifest(final String configurationHash) {
+        this.configurationHash = configurationHash;
+    }
+
+    /**
+     * Reads a manifest from its string representation.
+     *
+     * @param manifestContent The manifest file content.
+     * @return The manifest or null if the content is not a valid manifest.
+     */
+    static GenerationManifest fromString(final String manifestContent) {
+        GenerationManifest manifest = null;
+        Entry lastEntry = null;
+        boolean currentVersion = false;
+        try {
+            for (String line : manifestContent.split("\n")) {
+                String[] fields = line.split(FIELD_SEPARATOR, -1);
+                if (fields[0].equals(VERSION_PREFIX) && fields.length == 2 && manifest == null) {
+                    currentVersion = fields[1].equals(FORMAT_VERSION);
+                } else if (fields[0].equals(CONFIGURATION_PREFIX) && fields.length == 2) {
+                    manifest = new GenerationManifest(fields[1]);
+                } else if (fields[0].equals(SOURCE_PREFIX) && fields.length == 4 && manifest != null) {
+                    lastEntry = parseEntry(fields[2], fields[3]);
+                    manifest.entries.put(fields[1], lastEntry);
+                } else if (fields[0].equals(METADATA_PREFIX) && fields.length == 5 && lastEntry != null
+                        && lastEntry.metadata.size() < lastEntry.featureNames.size()) {
+                    lastEntry.metadata.add(new Metadata(
+                            unescape(fields[1]),
+                            fields[4].isEmpty() ? null : unescape(fields[4]),
+                            fields[2].isEmpty() ? Collections.emptyList() : Arrays.asList(fields[2].split(TAG_SEPARATOR)),
+                            Long.parseLong(fields[3])
+                    ));
+                } else if (!line.isEmpty() && !line.startsWith("#")) {
+                    return null;
+                }
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+        return currentVersion ? manifest : null;
+    }
+
+    /**
+     * Creates a hex encoded SHA-256 hash of a string.
+     *
+     * @param content The string to hash.
+     * @return The hash string.
+     */
+    static String hash(final String content) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] digest = messageDigest.digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hashBuilder = new StringBuilder(digest.length * 2);
+            for (byte digestByte : digest) {
+                hashBuilder.append(String.format("%02x", digestByte));
+            }
+            return hashBuilder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    String getConfigurationHash() {
+        return configurationHash;
+    }
+
+    /**
+     * Adds the generated features of a source feature.
+     *
+     * @param sourceKey         The key identifying the source feature and its position.
+     * @param contentHash       The hash of the source feature content.
+     * @param generatedFeatures The features generated from the source feature.
+     */
+    void addEntry(final String sourceKey, final String contentHash, final List<GeneratedFeature> generatedFeatures) {
+        Entry entry = new Entry(contentHash);
+        for (GeneratedFeature generatedFeature : generatedFeatures) {
+            entry.addFeature(generatedFeature.getName(), generatedFeature.getSourceLineNumber());
+            entry.metadata.add(new Metadata(
+                    generatedFeature.getLanguage(),
+                    generatedFeature.getScenarioName(),
+                    generatedFeature.getTags(),
+                    generatedFeature.getWeight()
+            ));
+        }
+        entries.put(sourceKey, entry);
+    }
+
+    /**
+     * Returns the previously generated features of a source feature if its content did not change.
+     *
+     * @param sourceKey             The key identifying the source feature and its position.
+     * @param sourceFeatureFilePath The path to the source feature.
+     * @param contentHash           The hash of the current source feature content.
+     * @return The previously generated features or null if the source feature is new or changed.
+     */
+    List<GeneratedFeature> getUnchangedGeneratedFeatures(
+            final String sourceKey,
+            final String sourceFeatureFilePath,
+            final String contentHash) {
+
+        Entry entry = entries.get(sourceKey);
+        if (entry == null || !entry.contentHash.equals(contentHash)) {
+            return null;
+        }
+        List<GeneratedFeature> generatedFeatures = new ArrayList<>();
+        if (entry.metadata.size() != entry.featureNames.size()) {
+            return null;
+        }
+        for (int i = 0; i < entry.featureNames.size(); i++) {
+            Metadata metadata = entry.metadata.get(i);
+            generatedFeatures.add(new GeneratedFeature(
+                    entry.featureNames.get(i),
+                    sourceFeatureFilePath,
+                    entry.featureLineNumbers.get(i),
+                    metadata.language,
+                    metadata.scenarioName,
+                    metadata.tags,
+                    metadata.weight,
+                    null
+            ));
+        }
+        return generatedFeatures;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder manifestBuilder = new StringBuilder()
+                .append(HEADER).append('\n')
+                .append(VERSION_PREFIX).append(FIELD_SEPARATOR).append(FORMAT_VERSION).append('\n')
+                .append(CONFIGURATION_PREFIX).append(FIELD_SEPARATOR).append(configurationHash).append('\n');
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            manifestBuilder.append(SOURCE_PREFIX)
+                    .append(FIELD_SEPARATOR).append(entry.getKey())
+                    .append(FIELD_SEPARATOR).append(entry.getValue().contentHash)
+                    .append(FIELD_SEPARATOR);
+            Entry manifestEntry = entry.getValue();
+            for (int i = 0; i < manifestEntry.featureNames.size(); i++) {
+                if (i > 0) {
+                    manifestBuilder.append(FEATURE_SEPARATOR);
+                }
+                manifestBuilder.append(manifestEntry.featureNames.get(i))
+                        .append(LINE_SEPARATOR)
+                        .append(manifestEntry.featureLineNumbers.get(i));
+            }
+            manifestBuilder.append('\n');
+            for (Metadata metadata : manifestEntry.metadata) {
+                manifestBuilder.append(METADATA_PREFIX)
+                        .append(FIELD_SEPARATOR).append(escape(metadata.language))
+                        .append(FIELD_SEPARATOR).append(String.join(TAG_SEPARATOR, metadata.tags))
+                        .append(FIELD_SEPARATOR).append(metadata.weight)
+                        .append(FIELD_SEPARATOR).append(escape(metadata.scenarioName))
+                        .append('\n');
+            }
+        }
+        return manifestBuilder.toString();
+    }
+
+    /**
+     * Escapes backslashes, tabs and line breaks so that a value fits into a single manifest field.
+     *
+     * @param value The value to escape (null is written as an empty field).
+     * @return The escaped value.
+     */
+    private static String escape(final String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(final String value) {
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                unescaped.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                unescaped.append(character);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    /**
+     * Parses a source entry of the manifest.
+     *
+     * @param contentHash   The content hash field of a manifest line.
+     * @param featuresField The features field of a manifest line.
+     * @return The manifest entry.
+     */
+    private static Entry parseEntry(final String contentHash, final String featuresField) {
+        Entry entry = new Entry(contentHash);
+        if (featuresField.isEmpty()) {
+            return entry;
+        }
+        for (String feature : featuresField.split(FEATURE_SEPARATOR)) {
+            int separatorIndex = feature.lastIndexOf(LINE_SEPARATOR);
+            entry.addFeature(
+                    feature.substring(0, separatorIndex),
+                    Integer.parseInt(feature.substring(separatorIndex + 1))
+            );
+        }
+        return entry;
+    }
+
+    /**
+     * A single source feature of the manifest.
+     */
+    private static final class Entry {
+        private final String contentHash;
+        private final List<String> featureNames = new ArrayList<>();
+        private final List<Integer> featureLineNumbers = new ArrayList<>();
+        // The metadata of the generated features in the same order.
+        private final List<Metadata> metadata = new ArrayList<>();
+
+        private Entry(final String contentHash) {
+            this.contentHash = contentHash;
+        }
+
+        private void addFeature(final String featureName, final int featureLineNumber) {
+            featureNames.add(featureName);
+            featureLineNumbers.add(featureLineNumber);
+        }
+    }
+
+    /**
+     * The scenario information and weight of a generated feature that runner grouping and balancing need.
+     * The weight includes the tag weights, which are part of the configuration hash.
+     */
+    private static final class Metadata {
+        private final String language;
+        private final String scenarioName;
+        private final List<String> tags;
+        private final long weight;
+
+        private Metadata(final String language, final String scenarioName, final List<String> tags, final long weight) {
+            this.language = language;
+            this.scenarioName = scenarioName;
+            this.tags = tags;
+            this.weight = weight;
+        }
+    }
+}
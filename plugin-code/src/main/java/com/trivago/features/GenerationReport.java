@@ -0,0 +1,215 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.trivago.features;
+
+import com.trivago.files.FileSystemManager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the phases of a feature generation: wall-clock and CPU time, file reads and writes, the number of
+ * processed items and the peak heap usage. Phases are measured one after another, work of concurrent generation
+ * threads inside a phase is included.
+ * <p>
+ * The peak heap usage is an approximation: it is the larger of the used heap at the start and at the end of a phase.
+ * It includes garbage that was not collected yet and misses short peaks inside a phase. The JVM wide peak usage
+ * counters are not reset since they are shared with Maven and other plugins.
+ */
+class GenerationReport {
+
+    static final String FILE_NAME = "cucable-report.json";
+
+    private final FileSystemManager fileSystemManager;
+    private final List<Phase> phases = new ArrayList<>();
+    private Phase currentPhase;
+
+    /**
+     * Constructor.
+     *
+     * @param fileSystemManager The file system manager whose reads and writes are attributed to the phases.
+     */
+    GenerationReport(final FileSystemManager fileSystemManager) {
+        this.fileSystemManager = fileSystemManager;
+    }
+
+    /**
+     * Starts measuring a phase. A running phase is ended first.
+     *
+     * @param name The name of the phase.
+     */
+    void startPhase(final String name) {
+        if (currentPhase != null) {
+            endPhase(0);
+        }
+        currentPhase = new Phase(name);
+        currentPhase.peakHeap = getUsedHeap();
+        currentPhase.wallTime = -System.nanoTime();
+        currentPhase.cpuTime = -getCpuTime();
+        currentPhase.filesRead = -fileSystemManager.getFilesRead();
+        currentPhase.filesWritten = -fileSystemManager.getFilesWritten();
+        currentPhase.bytesRead = -fileSystemManager.getBytesRead();
+        currentPhase.bytesWritten = -fileSystemManager.getBytesWritten();
+    }
+
+    /**
+     * Ends the running phase.
+     *
+     * @param items The number of items (e.g. source features or generated files) that the phase processed.
+     */
+    void endPhase(final long items) {
+        if (currentPhase == null) {
+            return;
+        }
+        currentPhase.wallTime += System.nanoTime();
+        currentPhase.cpuTime += getCpuTime();
+        currentPhase.filesRead += fileSystemManager.getFilesRead();
+        currentPhase.filesWritten += fileSystemManager.getFilesWritten();
+        currentPhase.bytesRead += fileSystemManager.getBytesRead();
+        currentPhase.bytesWritten += fileSystemManager.getBytesWritten();
+        currentPhase.items = items;
+        currentPhase.peakHeap = Math.max(currentPhase.peakHeap, getUsedHeap());
+        phases.add(currentPhase);
+        currentPhase = null;
+    }
+
+    /**
+     * Returns the summary table of all ended phases and their total.
+     *
+     * @return The table lines.
+     */
+    List<String> getSummaryLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("- %-10s %9s %9s %13s %23s %8s %10s %9s",
+                "phase", "wall ms", "cpu ms", "files r/w", "bytes r/w", "items", "items/s", "heap MB"));
+        for (Phase phase : phases) {
+            lines.add(getSummaryLine(phase));
+        }
+        lines.add(getSummaryLine(getTotal()));
+        return lines;
+    }
+
+    private String getSummaryLine(final Phase phase) {
+        return String.format("- %-10s %9.1f %9.1f %13s %23s %8d %10.0f %9.1f",
+                phase.name,
+                phase.wallTime / 1e6,
+                phase.cpuTime / 1e6,
+                phase.filesRead + "/" + phase.filesWritten,
+                phase.bytesRead + "/" + phase.bytesWritten,
+                phase.items,
+                phase.getItemsPerSecond(),
+                phase.peakHeap / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Sums up all ended phases. The peak heap usage is the maximum of all phases.
+     *
+     * @return The total.
+     */
+    private Phase getTotal() {
+        Phase total = new Phase("total");
+        for (Phase phase : phases) {
+            total.wallTime += phase.wallTime;
+            total.cpuTime += phase.cpuTime;
+            total.filesRead += phase.filesRead;
+            total.filesWritten += phase.filesWritten;
+            total.bytesRead += phase.bytesRead;
+            total.bytesWritten += phase.bytesWritten;
+            total.peakHeap = Math.max(total.peakHeap, phase.peakHeap);
+        }
+        // Items of different phases are not comparable, the total refers to the items of the last phase.
+        total.items = phases.isEmpty() ? 0 : phases.get(phases.size() - 1).items;
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder json = new StringBuilder()
+                .append("{\n")
+                .append("  \"total\": ");
+        appendJson(json, getTotal());
+        json.append(",\n  \"phases\": [");
+        for (int i = 0; i < phases.size(); i++) {
+            json.append(i == 0 ? "\n    " : ",\n    ");
+            appendJson(json, phases.get(i));
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    private void appendJson(final StringBuilder json, final Phase phase) {
+        json.append("{\"phase\": \"").append(phase.name).append('"')
+                .append(", \"wallTimeNanos\": ").append(phase.wallTime)
+                .append(", \"cpuTimeNanos\": ").append(phase.cpuTime)
+                .append(", \"filesRead\": ").append(phase.filesRead)
+                .append(", \"filesWritten\": ").append(phase.filesWritten)
+                .append(", \"bytesRead\": ").append(phase.bytesRead)
+                .append(", \"bytesWritten\": ").append(phase.bytesWritten)
+                .append(", \"items\": ").append(phase.items)
+                .append(", \"itemsPerSecond\": ").append(Math.round(phase.getItemsPerSecond()))
+                .append(", \"peakHeapBytes\": ").append(phase.peakHeap)
+                .append('}');
+    }
+
+    /**
+     * Returns the CPU time of the whole process, so that concurrent generation threads are included.
+     * If the JVM does not provide it, the CPU time of the current thread is used.
+     *
+     * @return The CPU time in nanoseconds or 0 if it cannot be measured.
+     */
+    private static long getCpuTime() {
+        OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+        if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean) {
+            long processCpuTime = ((com.sun.management.OperatingSystemMXBean) operatingSystem).getProcessCpuTime();
+            if (processCpuTime >= 0) {
+                return processCpuTime;
+            }
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long getUsedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * The measurements of one phase.
+     */
+    private static final class Phase {
+        private final String name;
+        private long wallTime;
+        private long cpuTime;
+        private long filesRead;
+        private long filesWritten;
+        private long bytesRead;
+        private long bytesWritten;
+        private long items;
+        private long peakHeap;
+
+        private Phase(final String name) {
+            this.name = name;
+        }
+
+        private double getItemsPerSecond() {
+            return wallTime > 0 ? items * 1e9 / wallTime : 0;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.features;
+
+import com.trivago.exceptions.CucablePluginException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Runs feature generation tasks either sequentially or on a fork/join pool.
+ * Results are always returned in input order and the errors of all failed tasks are collected.
+ */
+class GenerationTaskExecutor {
+
+    private final int numberOfThreads;
+
+    /**
+     * Constructor.
+     *
+     * @param numberOfThreads The number of worker threads. Values below 2 run all tasks in the calling thread.
+     */
+    GenerationTaskExecutor(final int numberOfThreads) {
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * Applies a task to every input.
+     *
+     * @param inputs The task inputs.
+     * @param task   The task to apply to each input.
+     * @param <T>    The input type.
+     * @param <R>    The result type.
+     * @return The task results in the order of the inputs.
+     * @throws CucablePluginException The error of the failed task or a combined error if multiple tasks failed.
+     */
+    <T, R> List<R> processAll(final List<T> inputs, final GenerationTask<T, R> task) throws CucablePluginException {
+        int size = inputs.size();
+        Object[] results = new Object[size];
+        CucablePluginException[] errors = new CucablePluginException[size];
+
+        if (numberOfThreads < 2 || size < 2) {
+            for (int i = 0; i < size; i++) {
+                process(inputs, task, i, results, errors);
+            }
+        } else {
+            ForkJoinPool forkJoinPool = new ForkJoinPool(numberOfThreads);
+            try {
+                forkJoinPool.submit(() ->
+                        IntStream.range(0, size).parallel().forEach(i -> process(inputs, task, i, results, errors))
+                ).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CucablePluginException("Feature generation was interrupted.");
+            } catch (ExecutionException e) {
+                throw new CucablePluginException("Feature generation failed: " + e.getCause(), e.getCause());
+            } finally {
+                forkJoinPool.shutdown();
+            }
+        }
+
+        throwCollectedErrors(errors);
+
+        List<R> resultList = new ArrayList<>(size);
+        for (Object result : results) {
+            @SuppressWarnings("unchecked")
+            R typedResult = (R) result;
+            resultList.add(typedResult);
+        }
+        return resultList;
+    }
+
+    /**
+     * Processes a single input and stores either its result or its error at the input index.
+     */
+    private <T, R> void process(
+            final List<T> inputs,
+            final GenerationTask<T, R> task,
+            final int index,
+            final Object[] results,
+            final CucablePluginException[] errors) {
+        try {
+            results[index] = task.process(inputs.get(index));
+        } catch (CucablePluginException e) {
+            errors[index] = e;
+        } catch (RuntimeException e) {
+            errors[index] = new CucablePluginException(e.toString(), e);
+        }
+    }
+
+    /**
+     * Throws a single error unchanged or combines multiple errors into one exception.
+     *
+     * @param errors The collected errors (null entries mean success).
+     * @throws CucablePluginException if at least one error was collected.
+     */
+    private void throwCollectedErrors(final CucablePluginException[] errors) throws CucablePluginException {
+        List<CucablePluginException> collectedErrors = new ArrayList<>();
+        Arrays.stream(errors).filter(error -> error != null).forEachOrdered(collectedErrors::add);
+
+        if (collectedErrors.isEmpty()) {
+            return;
+        }
+        if (collectedErrors.size() == 1) {
+            throw collectedErrors.get(0);
+        }
+
+        StringBuilder message = new StringBuilder()
+                .append(collectedErrors.size())
+                .append(" errors occurred during feature generation:");
+        for (CucablePluginException error : collectedErrors) {
+            message.append(System.lineSeparator()).append("- ").append(error.getMessage());
+        }
+        CucablePluginException combinedError = new CucablePluginException(message.toString());
+        collectedErrors.forEach(combinedError::addSuppressed);
+        throw combinedError;
+    }
+
+    /**
+     * A generation task that may fail with a {@link CucablePluginException}.
+     *
+     * @param <T> The input type.
+     * @param <R> The result type.
+     */
+    @FunctionalInterface
+    interface GenerationTask<T, R> {
+        R process(T input) throws CucablePluginException;
+    }
+}
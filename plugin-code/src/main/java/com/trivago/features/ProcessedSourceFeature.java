@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.features;
+
+import com.trivago.vo.GeneratedFeature;
+import com.trivago.vo.SingleScenario;
+
+import java.util.List;
+
+/**
+ * Holds the result of reading and parsing a single source feature file.
+ */
+final class ProcessedSourceFeature {
+
+    private final String sourceKey;
+    private final String contentHash;
+    private final List<SingleScenario> singleScenarios;
+    private final List<GeneratedFeature> unchangedGeneratedFeatures;
+
+    /**
+     * Constructor.
+     *
+     * @param sourceKey                  The key identifying the source feature and its position.
+     * @param contentHash                The hash of the source content or null if generation is not incremental.
+     * @param singleScenarios            The parsed single scenarios of the source feature.
+     * @param unchangedGeneratedFeatures The previously generated features if the source feature did not change,
+     *                                   otherwise null.
+     */
+    ProcessedSourceFeature(
+            final String sourceKey,
+            final String contentHash,
+            final List<SingleScenario> singleScenarios,
+            final List<GeneratedFeature> unchangedGeneratedFeatures) {
+
+        this.sourceKey = sourceKey;
+        this.contentHash = contentHash;
+        this.singleScenarios = singleScenarios;
+        this.unchangedGeneratedFeatures = unchangedGeneratedFeatures;
+    }
+
+    String getSourceKey() {
+        return sourceKey;
+    }
+
+    String getContentHash() {
+        return contentHash;
+    }
+
+    List<SingleScenario> getSingleScenarios() {
+        return singleScenarios;
+    }
+
+    List<GeneratedFeature> getUnchangedGeneratedFeatures() {
+        return unchangedGeneratedFeatures;
+    }
+
+    boolean isUnchanged() {
+        return unchangedGeneratedFeatures != null;
+    }
+}
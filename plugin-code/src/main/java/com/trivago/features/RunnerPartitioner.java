@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.features;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Distributes generated features over runners so that the runners have similar total costs.
+ */
+final class RunnerPartitioner {
+
+    private RunnerPartitioner() {
+    }
+
+    /**
+     * Assigns features to runners using the longest processing time first heuristic:
+     * the most expensive remaining feature is always added to the runner with the lowest total cost.
+     * The features of each runner keep their original order.
+     *
+     * @param generatedFeatureNames    The generated feature names in generation order.
+     * @param featureCosts             The estimated cost (e.g. duration) of each generated feature.
+     * @param numberOfRunners          The number of runners.
+     * @param maxFeaturesPerRunner     The maximum number of features per runner.
+     * @return The feature names per runner (runners may be empty if there are fewer features than runners).
+     */
+    static List<List<String>> partitionByCost(
+            final List<String> generatedFeatureNames,
+            final Map<String, Long> featureCosts,
+            final int numberOfRunners,
+            final int maxFeaturesPerRunner) {
+
+        List<Integer> featureIndexes = new ArrayList<>();
+        for (int i = 0; i < generatedFeatureNames.size(); i++) {
+            featureIndexes.add(i);
+        }
+        featureIndexes.sort(Comparator
+                .comparing((Integer index) -> featureCosts.getOrDefault(generatedFeatureNames.get(index), 0L))
+                .reversed()
+                .thenComparing(index -> index));
+
+        long[] runnerCosts = new long[numberOfRunners];
+        List<List<Integer>> runnerFeatureIndexes = new ArrayList<>(numberOfRunners);
+        PriorityQueue<Integer> runnersByCost = new PriorityQueue<>(Math.max(1, numberOfRunners), Comparator
+                .comparingLong((Integer runner) -> runnerCosts[runner])
+                .thenComparing(runner -> runner));
+        for (int i = 0; i < numberOfRunners; i++) {
+            runnerFeatureIndexes.add(new ArrayList<>());
+            runnersByCost.add(i);
+        }
+
+        for (Integer featureIndex : featureIndexes) {
+            Integer runner = runnersByCost.poll();
+            if (runner == null) {
+                break;
+            }
+            runnerFeatureIndexes.get(runner).add(featureIndex);
+            runnerCosts[runner] += featureCosts.getOrDefault(generatedFeatureNames.get(featureIndex), 0L);
+            if (runnerFeatureIndexes.get(runner).size() < maxFeaturesPerRunner) {
+                runnersByCost.add(runner);
+            }
+        }
+
+        List<List<String>> generatedFeatureNamesPerRunner = new ArrayList<>(numberOfRunners);
+        for (List<Integer> indexes : runnerFeatureIndexes) {
+            indexes.sort(Comparator.naturalOrder());
+            List<String> names = new ArrayList<>(indexes.size());
+            for (Integer index : indexes) {
+                names.add(generatedFeatureNames.get(index));
+            }
+            generatedFeatureNamesPerRunner.add(names);
+        }
+        return generatedFeatureNamesPerRunner;
+    }
+}
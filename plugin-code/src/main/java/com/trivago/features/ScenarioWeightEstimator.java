@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.features;
+
+import com.trivago.properties.PropertyManager;
+import com.trivago.vo.SingleScenario;
+import com.trivago.vo.Step;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the relative cost of running a single scenario from its structure.
+ * The estimate is used to balance runners when no recorded durations are available.
+ */
+@Singleton
+public class ScenarioWeightEstimator {
+
+    static final long SCENARIO_WEIGHT = 10;
+    static final long STEP_WEIGHT = 10;
+    static final long DATA_TABLE_ROW_WEIGHT = 2;
+    static final long DOC_STRING_WEIGHT = 1;
+    static final int DOC_STRING_CHARACTERS_PER_WEIGHT = 100;
+
+    private final PropertyManager propertyManager;
+
+    @Inject
+    public ScenarioWeightEstimator(final PropertyManager propertyManager) {
+        this.propertyManager = propertyManager;
+    }
+
+    /**
+     * Estimates the weight of a scenario. Every scenario, step (including background steps),
+     * data table row and started 100 characters of a doc string add to the weight.
+     * The result is multiplied by the configured weight of every tag of the scenario.
+     *
+     * @param singleScenario The scenario.
+     * @return The estimated weight (at least 1).
+     */
+    public long estimateWeight(final SingleScenario singleScenario) {
+        long weight = SCENARIO_WEIGHT
+                + getStepsWeight(singleScenario.getBackgroundSteps())
+                + getStepsWeight(singleScenario.getSteps());
+
+        Map<String, Long> tagWeights = propertyManager.getTagWeights();
+        if (!tagWeights.isEmpty()) {
+            Set<String> tags = new HashSet<>();
+            addAll(tags, singleScenario.getFeatureTags());
+            addAll(tags, singleScenario.getScenarioTags());
+            addAll(tags, singleScenario.getExampleTags());
+            for (String tag : tags) {
+                weight *= tagWeights.getOrDefault(tag, 1L);
+            }
+        }
+        return Math.max(1, weight);
+    }
+
+    private long getStepsWeight(final List<Step> steps) {
+        if (steps == null) {
+            return 0;
+        }
+        long weight = 0;
+        for (Step step : steps) {
+            weight += STEP_WEIGHT;
+            if (step.getDataTable() != null) {
+                weight += DATA_TABLE_ROW_WEIGHT * step.getDataTable().getRows().size();
+            }
+            if (step.getDocString() != null) {
+                int docStringLength = step.getDocString().length();
+                weight += DOC_STRING_WEIGHT
+                        * ((docStringLength + DOC_STRING_CHARACTERS_PER_WEIGHT - 1) / DOC_STRING_CHARACTERS_PER_WEIGHT);
+            }
+        }
+        return weight;
+    }
+
+    private void addAll(final Set<String> tags, final List<String> tagsToAdd) {
+        if (tagsToAdd != null) {
+            tags.addAll(tagsToAdd);
+        }
+    }
+}
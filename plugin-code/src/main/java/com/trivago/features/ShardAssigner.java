@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.features;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns the generated features of a suite to the shards (e.g. build nodes) it is split over.
+ * The assignment only depends on the generated features, so every node computes the same shards.
+ */
+final class ShardAssigner {
+
+    private ShardAssigner() {
+    }
+
+    /**
+     * Assigns each feature to a shard by a consistent hash of its key.
+     * If the number of shards grows, only the features that move to the new shards change their shard.
+     *
+     * @param shardKeys  The machine independent keys of the features.
+     * @param shardCount The number of shards.
+     * @return The shard index of each feature.
+     */
+    static int[] assignByHash(final List<String> shardKeys, final int shardCount) {
+        int[] shards = new int[shardKeys.size()];
+        for (int i = 0; i < shardKeys.size(); i++) {
+            long keyHash = Long.parseUnsignedLong(GenerationManifest.hash(shardKeys.get(i)).substring(0, 16), 16);
+            shards[i] = getJumpConsistentHash(keyHash, shardCount);
+        }
+        return shards;
+    }
+
+    /**
+     * Assigns the features to shards so that all shards have a similar total cost.
+     *
+     * @param featureNames The unique feature names in generation order.
+     * @param featureCosts The estimated cost of each feature.
+     * @param shardCount   The number of shards.
+     * @return The shard index of each feature.
+     */
+    static int[] assignByCost(final List<String> featureNames, final Map<String, Long> featureCosts, final int shardCount) {
+        Map<String, Integer> featureIndexes = new HashMap<>();
+        for (int i = 0; i < featureNames.size(); i++) {
+            featureIndexes.put(featureNames.get(i), i);
+        }
+        List<List<String>> featureNamesPerShard =
+                RunnerPartitioner.partitionByCost(featureNames, featureCosts, shardCount, Integer.MAX_VALUE);
+        int[] shards = new int[featureNames.size()];
+        for (int shard = 0; shard < featureNamesPerShard.size(); shard++) {
+            for (String featureName : featureNamesPerShard.get(shard)) {
+                shards[featureIndexes.get(featureName)] = shard;
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Maps a key hash to one of the given number of buckets with the jump consistent hash function
+     * by Lamping and Veach.
+     *
+     * @param keyHash     The hash of the key.
+     * @param bucketCount The number of buckets.
+     * @return The bucket between 0 (inclusive) and bucketCount (exclusive).
+     */
+    static int getJumpConsistentHash(final long keyHash, final int bucketCount) {
+        long key = keyHash;
+        long bucket = -1;
+        long nextBucket = 0;
+        while (nextBucket < bucketCount) {
+            bucket = nextBucket;
+            key = key * 2862933555777941757L + 1;
+            nextBucket = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.features;
+
+import com.trivago.properties.PropertyManager;
+
+/**
+ * Summarizes how the generated features are split over all shards, e.g. to create a CI build matrix from it.
+ * It is the same on every shard and written as JSON.
+ */
+class ShardManifest {
+
+    static final String FILE_NAME = "cucable-shards.json";
+
+    private final PropertyManager.ShardAssignment shardAssignment;
+    private final int[] featureCounts;
+    private final long[] estimatedCosts;
+    private final boolean hasEstimatedCosts;
+
+    /**
+     * Constructor.
+     *
+     * @param shardCount        The number of shards.
+     * @param shardAssignment   The assignment of features to shards.
+     * @param hasEstimatedCosts true if the estimated costs of the shards should be included.
+     */
+    ShardManifest(
+            final int shardCount,
+            final PropertyManager.ShardAssignment shardAssignment,
+            final boolean hasEstimatedCosts) {
+
+        this.shardAssignment = shardAssignment;
+        this.featureCounts = new int[shardCount];
+        this.estimatedCosts = new long[shardCount];
+        this.hasEstimatedCosts = hasEstimatedCosts;
+    }
+
+    /**
+     * Adds a generated feature to a shard.
+     *
+     * @param shardIndex    The shard of the feature.
+     * @param estimatedCost The estimated cost of the feature.
+     */
+    void addFeature(final int shardIndex, final long estimatedCost) {
+        featureCounts[shardIndex]++;
+        estimatedCosts[shardIndex] += estimatedCost;
+    }
+
+    int getFeatureCount(final int shardIndex) {
+        return featureCounts[shardIndex];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder json = new StringBuilder()
+                .append("{\n")
+                .append("  \"shardCount\": ").append(featureCounts.length).append(",\n")
+                .append("  \"shardAssignment\": \"").append(shardAssignment.name().toLowerCase()).append("\",\n")
+                .append("  \"shards\": [");
+        for (int i = 0; i < featureCounts.length; i++) {
+            json.append(i == 0 ? "\n" : ",\n")
+                    .append("    {\"shardIndex\": ").append(i)
+                    .append(", \"features\": ").append(featureCounts[i]);
+            if (hasEstimatedCosts) {
+                json.append(", \"estimatedCost\": ").append(estimatedCosts[i]);
+            }
+            json.append('}');
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+}
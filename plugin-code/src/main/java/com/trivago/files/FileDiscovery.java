@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.files;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds the files with a given extension below a root directory.
+ * Directories are listed in parallel, excluded directories are pruned before they are descended into
+ * and symbolic links that point to one of their own parent directories are not followed.
+ * The found files are always returned in sorted order.
+ */
+final class FileDiscovery {
+
+    /**
+     * The optional file in the root directory that lists additional exclude globs, one per line.
+     */
+    static final String IGNORE_FILE_NAME = ".cucableignore";
+
+    // Listing directories mostly waits for the file system, so more threads than processors are used.
+    private static final int PARALLELISM = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    private final String fileSuffix;
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> excludes;
+    private final List<PathMatcher> directoryExcludes;
+
+    /**
+     * Constructor.
+     *
+     * @param extension    The extension of the files to find.
+     * @param includeGlobs Globs of which one has to match the path of a file relative to the root (all files if empty).
+     * @param excludeGlobs Globs of files and directories to skip, relative to the root.
+     */
+    FileDiscovery(final String extension, final List<String> includeGlobs, final List<String> excludeGlobs) {
+        this.fileSuffix = "." + extension;
+        this.includes = new ArrayList<>();
+        this.excludes = new ArrayList<>();
+        this.directoryExcludes = new ArrayList<>();
+        FileSystem fileSystem = FileSystems.getDefault();
+        for (String includeGlob : includeGlobs) {
+            includes.add(toMatcher(fileSystem, includeGlob));
+        }
+        for (String excludeGlob : excludeGlobs) {
+            excludes.add(toMatcher(fileSystem, excludeGlob));
+            // A glob like "fixtures/**" excludes everything below "fixtures", so the directory itself is pruned.
+            if (excludeGlob.endsWith("/**") && excludeGlob.length() > 3) {
+                directoryExcludes.add(toMatcher(fileSystem, excludeGlob.substring(0, excludeGlob.length() - 3)));
+            }
+        }
+        directoryExcludes.addAll(excludes);
+    }
+
+    /**
+     * Reads the exclude globs of the {@value #IGNORE_FILE_NAME} file in the given directory.
+     * Empty lines and lines starting with '#' are skipped.
+     *
+     * @param directory The root directory.
+     * @return The exclude globs or an empty list if there is no ignore file.
+     * @throws IOException if the ignore file cannot be read.
+     */
+    static List<String> readIgnoreFile(final Path directory) throws IOException {
+        Path ignoreFile = directory.resolve(IGNORE_FILE_NAME);
+        if (!Files.isRegularFile(ignoreFile)) {
+            return Collections.emptyList();
+        }
+        List<String> globs = new ArrayList<>();
+        for (String line : Files.readAllLines(ignoreFile, StandardCharsets.UTF_8)) {
+            String glob = line.trim();
+            if (!glob.isEmpty() && !glob.startsWith("#")) {
+                globs.add(glob);
+            }
+        }
+        return globs;
+    }
+
+    /**
+     * Finds all matching files below the root directory.
+     *
+     * @param root The root directory.
+     * @return The sorted paths of the matching files.
+     * @throws IOException if a directory cannot be listed.
+     */
+    List<Path> find(final Path root) throws IOException {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(PARALLELISM);
+        try {
+            List<Path> files = forkJoinPool.invoke(new DirectoryTask(root, root, directoryKey(root), null));
+            Collections.sort(files);
+            return files;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    private boolean isIncludedFile(final Path relativePath) {
+        if (!relativePath.toString().endsWith(fileSuffix) || matchesAny(excludes, relativePath)) {
+            return false;
+        }
+        return includes.isEmpty() || matchesAny(includes, relativePath);
+    }
+
+    private static boolean matchesAny(final List<PathMatcher> matchers, final Path relativePath) {
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(relativePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a matcher for a glob. Globs without a '/' match the file or directory name at any depth.
+     */
+    private static PathMatcher toMatcher(final FileSystem fileSystem, final String glob) {
+        PathMatcher matcher = fileSystem.getPathMatcher("glob:" + glob);
+        if (glob.contains("/")) {
+            return matcher;
+        }
+        return path -> path.getFileName() != null && matcher.matches(path.getFileName());
+    }
+
+    /**
+     * Returns a value that identifies a directory independent of the path it was reached by.
+     */
+    private static Object directoryKey(final Path directory) throws IOException {
+        Object fileKey = Files.readAttributes(directory, BasicFileAttributes.class).fileKey();
+        return fileKey != null ? fileKey : directory.toRealPath();
+    }
+
+    /**
+     * The directories from the root to the currently listed directory, used to detect symbolic link loops.
+     */
+    private static final class Ancestor {
+        private final Object key;
+        private final Ancestor parent;
+
+        private Ancestor(final Object key, final Ancestor parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+        private boolean contains(final Object directoryKey) {
+            for (Ancestor ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (ancestor.key.equals(directoryKey)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Lists one directory and forks a task for each of its subdirectories.
+     */
+    private final class DirectoryTask extends RecursiveTask<List<Path>> {
+        private final Path root;
+        private final Path directory;
+        private final Ancestor ancestors;
+
+        private DirectoryTask(final Path root, final Path directory, final Object key, final Ancestor parent) {
+            this.root = root;
+            this.directory = directory;
+            this.ancestors = new Ancestor(key, parent);
+        }
+
+        @Override
+        protected List<Path> compute() {
+            List<Path> files = new ArrayList<>();
+            List<DirectoryTask> subdirectoryTasks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                    } catch (NoSuchFileException e) {
+                        // Broken symbolic link or a file that was removed while listing.
+                        continue;
+                    }
+                    Path relativePath = root.relativize(entry);
+                    if (attributes.isDirectory()) {
+                        Object key = attributes.fileKey() != null ? attributes.fileKey() : entry.toRealPath();
+                        if (!matchesAny(directoryExcludes, relativePath) && !ancestors.contains(key)) {
+                            subdirectoryTasks.add(new DirectoryTask(root, entry, key, ancestors));
+                        }
+                    } else if (attributes.isRegularFile() && isIncludedFile(relativePath)) {
+                        files.add(entry);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for (DirectoryTask subdirectoryTask : invokeAll(subdirectoryTasks)) {
+                files.addAll(subdirectoryTask.join());
+            }
+            return files;
+        }
+    }
+}
@@ -28,21 +28,46 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 
 @Singleton
 public class FileSystemManager {
 
     public static final String FEATURE_FILE_EXTENSION = "feature";
     public static final String TEXT_FILE_EXTENSION = "txt";
+    private static final int WRITE_BUFFER_CAPACITY = 64 * 1024;
+
+    // Each thread encodes its written content with its own encoder into its own reusable buffer.
+    private final ThreadLocal<CharsetEncoder> encoders = ThreadLocal.withInitial(() -> StandardCharsets.UTF_8
+            .newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE));
+    private final ThreadLocal<ByteBuffer> writeBuffers =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(WRITE_BUFFER_CAPACITY));
+
+    // Totals of all reads and writes of this execution, they may be updated by concurrent generation threads.
+    private final LongAdder filesRead = new LongAdder();
+    private final LongAdder filesWritten = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
 
     @Inject
     public FileSystemManager() {
@@ -55,6 +80,24 @@ public class FileSystemManager {
      * @throws CucablePluginException see {@link CucablePluginException}
      */
     public List<Path> getPathsFromCucableFeature(final CucableFeature cucableFeature) throws CucablePluginException {
+        return getPathsFromCucableFeature(cucableFeature, Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Returns a list of feature file paths located in the specified source feature directory.
+     * Feature files in a directory are filtered by the given globs and the globs of an optional
+     * {@value FileDiscovery#IGNORE_FILE_NAME} file in that directory. A single feature file is never filtered.
+     *
+     * @param cucableFeature The source feature file or directory.
+     * @param includeGlobs   Globs of feature files to include, relative to the source directory (all if empty).
+     * @param excludeGlobs   Globs of feature files and directories to exclude, relative to the source directory.
+     * @return a list of feature file paths.
+     * @throws CucablePluginException see {@link CucablePluginException}
+     */
+    public List<Path> getPathsFromCucableFeature(
+            final CucableFeature cucableFeature,
+            final List<String> includeGlobs,
+            final List<String> excludeGlobs) throws CucablePluginException {
 
         if (cucableFeature == null) {
             return Collections.emptyList();
@@ -75,7 +118,14 @@ public class FileSystemManager {
         }
 
         if (sourceFeaturesFile.isDirectory()) {
-            return getFilesWithExtension(sourceFeatures, FEATURE_FILE_EXTENSION);
+            List<String> allExcludeGlobs = new ArrayList<>(excludeGlobs);
+            try {
+                allExcludeGlobs.addAll(FileDiscovery.readIgnoreFile(Paths.get(sourceFeatures)));
+            } catch (IOException e) {
+                throw new CucablePluginException(
+                        "Unable to read " + FileDiscovery.IGNORE_FILE_NAME + " in " + sourceFeatures + ": " + e.getMessage());
+            }
+            return getFilesWithExtension(sourceFeatures, FEATURE_FILE_EXTENSION, includeGlobs, allExcludeGlobs);
         }
 
         throw new CucablePluginException(
@@ -93,12 +143,16 @@ public class FileSystemManager {
      */
     public List<Path> getFilesWithExtension(final String sourceFeatureDirectory, final String extension) throws
             CucablePluginException {
-        try (Stream<Path> paths = Files.walk(Paths.get(sourceFeatureDirectory))) {
-            return paths
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.toString().endsWith("." + extension))
-                    .sorted()
-                    .collect(Collectors.toList());
+        return getFilesWithExtension(sourceFeatureDirectory, extension, Collections.emptyList(), Collections.emptyList());
+    }
+
+    private List<Path> getFilesWithExtension(
+            final String sourceFeatureDirectory,
+            final String extension,
+            final List<String> includeGlobs,
+            final List<String> excludeGlobs) throws CucablePluginException {
+        try {
+            return new FileDiscovery(extension, includeGlobs, excludeGlobs).find(Paths.get(sourceFeatureDirectory));
         } catch (IOException e) {
             throw new CucablePluginException(
                     "Unable to traverse " + extension + " files in " + sourceFeatureDirectory + ": " + e.getMessage());
@@ -109,12 +163,22 @@ public class FileSystemManager {
      * Create generated feature and runner dirs if they don't exist and clear their contents.
      */
     public void prepareGeneratedFeatureAndRunnerDirectories(final String runnerDir, final String featureDir) throws CucablePluginException {
+        createGeneratedFeatureAndRunnerDirectories(runnerDir, featureDir);
+        removeFilesFromPath(featureDir, "feature", Collections.emptySet());
+
+        if (runnerDir != null && !runnerDir.isEmpty()) {
+            removeFilesFromPath(runnerDir, "java", Collections.emptySet());
+        }
+    }
+
+    /**
+     * Create generated feature and runner dirs if they don't exist but keep their contents.
+     */
+    public void createGeneratedFeatureAndRunnerDirectories(final String runnerDir, final String featureDir) throws CucablePluginException {
         createDirIfNotExists(featureDir);
-        removeFilesFromPath(featureDir, "feature");
 
         if (runnerDir != null && !runnerDir.isEmpty()) {
             createDirIfNotExists(runnerDir);
-            removeFilesFromPath(runnerDir, "java");
         }
     }
 
@@ -133,36 +197,207 @@ public class FileSystemManager {
     /**
      * Removes files with the specified extension from the given path.
      *
-     * @param path          The path to clear.
-     * @param fileExtension The file extension to consider.
+     * @param path             The path to clear.
+     * @param fileExtension    The file extension to consider.
+     * @param fileNamesToKeep  The names of files (without extension) that should not be removed.
+     * @return The number of removed files.
+     * @throws FileDeletionException if a file cannot be deleted.
      */
-    private void removeFilesFromPath(final String path, final String fileExtension)
+    public int removeFilesFromPath(final String path, final String fileExtension, final Set<String> fileNamesToKeep)
             throws FileDeletionException {
 
+        int removedFiles = 0;
+        String extensionSuffix = "." + fileExtension;
         File basePath = new File(path);
         File[] files = basePath.listFiles();
         if (files != null) {
             for (File file : files) {
-                if (file.getName().endsWith("." + fileExtension) && !file.delete()) {
-                    throw new FileDeletionException(file.getName());
+                String fileName = file.getName();
+                if (!fileName.endsWith(extensionSuffix)) {
+                    continue;
                 }
+                if (fileNamesToKeep.contains(fileName.substring(0, fileName.length() - extensionSuffix.length()))) {
+                    continue;
+                }
+                if (!file.delete()) {
+                    throw new FileDeletionException(fileName);
+                }
+                removedFiles++;
             }
         }
+        return removedFiles;
+    }
+
+    /**
+     * Removes a single file if it exists.
+     *
+     * @param filePath the complete path to the file.
+     * @throws FileDeletionException if the file exists but cannot be deleted.
+     */
+    public void removeFileIfExists(final String filePath) throws FileDeletionException {
+        try {
+            Files.deleteIfExists(Paths.get(filePath));
+        } catch (IOException e) {
+            throw new FileDeletionException(filePath);
+        }
+    }
+
+    /**
+     * Checks if a regular file exists.
+     *
+     * @param filePath the complete path to the file.
+     * @return true if the file exists.
+     */
+    public boolean fileExists(final String filePath) {
+        return new File(filePath).isFile();
+    }
+
+    /**
+     * Returns the last modification time of a file.
+     *
+     * @param filePath the complete path to the file.
+     * @return the modification time in milliseconds since the epoch or 0 if the file does not exist.
+     */
+    public long getLastModifiedTime(final String filePath) {
+        return new File(filePath).lastModified();
     }
 
     /**
      * Writes string content to a file.
+     * The content is encoded in chunks into a reusable buffer, so no copy of the complete content is created.
      *
      * @param content  the string content to be written.
      * @param filePath the complete path to the target file.
      * @throws FileCreationException a {@link FileCreationException} in case the file cannot be created.
      */
-    public void writeContentToFile(String content, String filePath) throws FileCreationException {
+    public void writeContentToFile(CharSequence content, String filePath) throws FileCreationException {
+        try (FileChannel channel = FileChannel.open(
+                Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            countWrite(writeEncodedContent(content, channel));
+        } catch (Exception e) {
+            throw new FileCreationException(filePath);
+        }
+    }
+
+    /**
+     * Encodes content as UTF-8 and writes it to a channel.
+     *
+     * @param content the content to be written.
+     * @param channel the target channel.
+     * @return the number of written bytes.
+     * @throws IOException if the content cannot be written.
+     */
+    private long writeEncodedContent(final CharSequence content, final FileChannel channel) throws IOException {
+        CharsetEncoder encoder = encoders.get().reset();
+        ByteBuffer buffer = writeBuffers.get();
+        buffer.clear();
+        CharBuffer characters = CharBuffer.wrap(content);
+        long writtenBytes = 0;
+        CoderResult result;
+        do {
+            result = encoder.encode(characters, buffer, true);
+            writtenBytes += writeBuffer(buffer, channel);
+        } while (result.isOverflow());
+        do {
+            result = encoder.flush(buffer);
+            writtenBytes += writeBuffer(buffer, channel);
+        } while (result.isOverflow());
+        return writtenBytes;
+    }
+
+    /**
+     * Writes the encoded bytes of a buffer to a channel and clears the buffer.
+     *
+     * @param buffer  the buffer with the encoded bytes.
+     * @param channel the target channel.
+     * @return the number of written bytes.
+     * @throws IOException if the bytes cannot be written.
+     */
+    private int writeBuffer(final ByteBuffer buffer, final FileChannel channel) throws IOException {
+        buffer.flip();
+        int writtenBytes = 0;
+        while (buffer.hasRemaining()) {
+            writtenBytes += channel.write(buffer);
+        }
+        buffer.clear();
+        return writtenBytes;
+    }
+
+    /**
+     * Creates a file with the same content as an existing file without writing the content again.
+     * The file is created as a hard link if the file system supports it, otherwise it is copied. If neither works,
+     * the content is written.
+     *
+     * @param sourceFilePath the complete path to the existing file.
+     * @param filePath       the complete path to the target file.
+     * @param content        the content of the existing file that is written if it cannot be linked or copied.
+     * @throws FileCreationException a {@link FileCreationException} in case the file cannot be created.
+     */
+    public void duplicateFile(String sourceFilePath, String filePath, CharSequence content) throws FileCreationException {
+        Path sourcePath = Paths.get(sourceFilePath);
+        Path path = Paths.get(filePath);
+        try {
+            Files.deleteIfExists(path);
+            Files.createLink(path, sourcePath);
+            countWrite(0);
+            return;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            // Hard links are not supported here, fall back to a copy.
+        }
+        try {
+            Files.copy(sourcePath, path, StandardCopyOption.REPLACE_EXISTING);
+            countWrite(Files.size(path));
+        } catch (IOException | SecurityException e) {
+            writeContentToFile(content, filePath);
+        }
+    }
+
+    /**
+     * Replaces the content of a file in a single step.
+     * The content is written to a temporary file in the target directory first which is then moved over the target
+     * file, so readers never see a partially written file.
+     *
+     * @param content  the string content to be written.
+     * @param filePath the complete path to the target file.
+     * @throws FileCreationException a {@link FileCreationException} in case the file cannot be created.
+     */
+    public void writeContentToFileAtomically(CharSequence content, String filePath) throws FileCreationException {
+        Path temporaryPath = null;
         try {
-            Path path = Paths.get(filePath);
-            Files.write(path, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            Path path = Paths.get(filePath).toAbsolutePath();
+            // Unlike Files.createTempFile, this creates the file with default permissions like all other written files.
+            temporaryPath = path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            long writtenBytes;
+            try (FileChannel channel =
+                         FileChannel.open(temporaryPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                writtenBytes = writeEncodedContent(content, channel);
+            }
+            try {
+                Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            countWrite(writtenBytes);
         } catch (Exception e) {
             throw new FileCreationException(filePath);
+        } finally {
+            deleteTemporaryFile(temporaryPath);
+        }
+    }
+
+    /**
+     * Removes a temporary file that was not moved to its target.
+     *
+     * @param temporaryPath the temporary file or null if none was created.
+     */
+    private void deleteTemporaryFile(final Path temporaryPath) {
+        if (temporaryPath == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporaryPath);
+        } catch (IOException ignored) {
+            // The temporary file is left behind if it cannot be removed.
         }
     }
 
@@ -175,9 +410,53 @@ public class FileSystemManager {
      */
     public String readContentFromFile(String filePath) throws MissingFileException {
         try {
-            return FileUtils.fileRead(filePath, "UTF-8");
+            String content = FileUtils.fileRead(filePath, "UTF-8");
+            filesRead.increment();
+            bytesRead.add(new File(filePath).length());
+            return content;
         } catch (IOException e) {
             throw new MissingFileException(filePath);
         }
     }
+
+    /**
+     * Returns the number of files that were read so far.
+     *
+     * @return the number of read files.
+     */
+    public long getFilesRead() {
+        return filesRead.sum();
+    }
+
+    /**
+     * Returns the number of files that were written, copied or linked so far.
+     *
+     * @return the number of written files.
+     */
+    public long getFilesWritten() {
+        return filesWritten.sum();
+    }
+
+    /**
+     * Returns the number of bytes that were read so far.
+     *
+     * @return the number of read bytes.
+     */
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Returns the number of bytes that were written so far. Linked files do not count as written bytes.
+     *
+     * @return the number of written bytes.
+     */
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    private void countWrite(final long numberOfBytes) {
+        filesWritten.increment();
+        bytesWritten.add(numberOfBytes);
+    }
 }
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.gherkin;
+
+import io.cucumber.tagexpressions.TagExpressionException;
+import io.cucumber.tagexpressions.TagExpressionParser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A Cucumber tag expression that is parsed once and evaluated against bitsets of tag ids.
+ * <p>
+ * Every tag that occurs in the expression gets an id. The tags of a scenario are mapped to a bitset of these ids,
+ * tags that do not occur in the expression are irrelevant for the result and are ignored.
+ * The operator precedence and literal escaping are the same as those of {@link TagExpressionParser}.
+ */
+final class CompiledTagExpression {
+
+    private final Node root;
+    private final Map<String, Integer> tagIds;
+    private final ThreadLocal<long[]> tagBits;
+
+    private CompiledTagExpression(final Node root, final Map<String, Integer> tagIds) {
+        this.root = root;
+        this.tagIds = tagIds;
+        int numberOfWords = Math.max(1, (tagIds.size() + 63) / 64);
+        this.tagBits = ThreadLocal.withInitial(() -> new long[numberOfWords]);
+    }
+
+    /**
+     * Compiles a tag expression.
+     *
+     * @param tagExpression The tag expression.
+     * @return The compiled expression.
+     * @throws TagExpressionException if the tag expression is invalid.
+     */
+    static CompiledTagExpression compile(final String tagExpression) {
+        // The Cucumber parser reports invalid expressions, so the compiler only has to handle valid ones.
+        TagExpressionParser.parse(tagExpression);
+
+        Map<String, Integer> tagIds = new LinkedHashMap<>();
+        Deque<String> operators = new ArrayDeque<>();
+        Deque<Node> operands = new ArrayDeque<>();
+        for (String token : tokenize(tagExpression)) {
+            switch (token) {
+                case "not":
+                case "(":
+                    operators.push(token);
+                    break;
+                case "and":
+                case "or":
+                    while (!operators.isEmpty() && precedence(operators.peek()) >= precedence(token)) {
+                        push(operators.pop(), operands);
+                    }
+                    operators.push(token);
+                    break;
+                case ")":
+                    while (!"(".equals(operators.peek())) {
+                        push(operators.pop(), operands);
+                    }
+                    operators.pop();
+                    break;
+                default:
+                    Integer tagId = tagIds.get(token);
+                    if (tagId == null) {
+                        tagId = tagIds.size();
+                        tagIds.put(token, tagId);
+                    }
+                    operands.push(new TagNode(tagId));
+            }
+        }
+        while (!operators.isEmpty()) {
+            push(operators.pop(), operands);
+        }
+        Node root = operands.isEmpty() ? bits -> true : operands.pop();
+        return new CompiledTagExpression(root, tagIds);
+    }
+
+    /**
+     * Returns the distinct tags of the expression in the order of their ids.
+     *
+     * @return The tags of the expression.
+     */
+    Set<String> getTags() {
+        return Collections.unmodifiableSet(tagIds.keySet());
+    }
+
+    /**
+     * Returns the id of a tag.
+     *
+     * @param tag The tag.
+     * @return The id of the tag or -1 if it does not occur in the expression.
+     */
+    int getTagId(final String tag) {
+        Integer tagId = tagIds.get(tag);
+        return tagId == null ? -1 : tagId;
+    }
+
+    /**
+     * Checks if the combined tags of a scenario match the expression.
+     *
+     * @param scenarioTags The tags of the scenario.
+     * @param featureTags  The tags of its feature.
+     * @param exampleTags  The tags of its examples.
+     * @return true if the expression matches.
+     */
+    boolean matches(final List<String> scenarioTags, final List<String> featureTags, final List<String> exampleTags) {
+        long[] bits = tagBits.get();
+        clear(bits);
+        setTagBits(scenarioTags, bits);
+        setTagBits(featureTags, bits);
+        setTagBits(exampleTags, bits);
+        return root.evaluate(bits);
+    }
+
+    /**
+     * Evaluates the expression.
+     *
+     * @param bits The bitset of the ids of the present tags.
+     * @return true if the expression matches.
+     */
+    boolean evaluate(final long[] bits) {
+        return root.evaluate(bits);
+    }
+
+    /**
+     * Creates an empty bitset that can hold the ids of all tags of the expression.
+     *
+     * @return The bitset.
+     */
+    long[] newTagBits() {
+        return new long[tagBits.get().length];
+    }
+
+    static void clear(final long[] bits) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = 0;
+        }
+    }
+
+    static void setBit(final long[] bits, final int tagId) {
+        bits[tagId >>> 6] |= 1L << tagId;
+    }
+
+    private void setTagBits(final List<String> tagList, final long[] bits) {
+        for (int i = 0; i < tagList.size(); i++) {
+            Integer tagId = tagIds.get(tagList.get(i));
+            if (tagId != null) {
+                setBit(bits, tagId);
+            }
+        }
+    }
+
+    private static int precedence(final String operator) {
+        switch (operator) {
+            case "or":
+                return 0;
+            case "and":
+                return 1;
+            case "not":
+                return 2;
+            default:
+                return -1;
+        }
+    }
+
+    private static void push(final String operator, final Deque<Node> operands) {
+        if ("not".equals(operator)) {
+            Node operand = operands.pop();
+            operands.push(bits -> !operand.evaluate(bits));
+            return;
+        }
+        Node right = operands.pop();
+        Node left = operands.pop();
+        if ("and".equals(operator)) {
+            operands.push(bits -> left.evaluate(bits) && right.evaluate(bits));
+        } else {
+            operands.push(bits -> left.evaluate(bits) || right.evaluate(bits));
+        }
+    }
+
+    /**
+     * Splits a tag expression into operators, parentheses and unescaped tags.
+     */
+    private static List<String> tokenize(final String tagExpression) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean escaped = false;
+        for (int i = 0; i < tagExpression.length(); i++) {
+            char character = tagExpression.charAt(i);
+            if (escaped) {
+                token.append(character);
+                escaped = false;
+            } else if (character == '\\') {
+                escaped = true;
+            } else if (character == '(' || character == ')' || Character.isWhitespace(character)) {
+                if (token.length() > 0) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+                if (!Character.isWhitespace(character)) {
+                    tokens.add(String.valueOf(character));
+                }
+            } else {
+                token.append(character);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * A part of the compiled expression.
+     */
+    private interface Node {
+        boolean evaluate(long[] bits);
+    }
+
+    /**
+     * Matches if the bit of its tag is set.
+     */
+    private static final class TagNode implements Node {
+        private final int word;
+        private final long mask;
+
+        private TagNode(final int tagId) {
+            this.word = tagId >>> 6;
+            this.mask = 1L << tagId;
+        }
+
+        @Override
+        public boolean evaluate(final long[] bits) {
+            return (bits[word] & mask) != 0;
+        }
+    }
+}
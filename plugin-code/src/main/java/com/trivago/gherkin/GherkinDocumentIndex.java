@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.gherkin;
+
+import io.cucumber.messages.types.Background;
+import io.cucumber.messages.types.Examples;
+import io.cucumber.messages.types.Feature;
+import io.cucumber.messages.types.FeatureChild;
+import io.cucumber.messages.types.Rule;
+import io.cucumber.messages.types.RuleChild;
+import io.cucumber.messages.types.Scenario;
+import io.cucumber.messages.types.Step;
+import io.cucumber.messages.types.TableRow;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of all AST nodes of a single Gherkin document by their id.
+ * It is built once per document so that pickles can be resolved to their source nodes in constant time.
+ */
+class GherkinDocumentIndex {
+
+    private final Map<String, Step> steps = new HashMap<>();
+    private final Map<String, Scenario> scenarios = new HashMap<>();
+    private final Map<String, Background> backgrounds = new HashMap<>();
+    private final Map<String, Rule> rules = new HashMap<>();
+    private final Map<String, TableRow> exampleRows = new HashMap<>();
+    private final Map<String, Examples> examples = new HashMap<>();
+    private final Map<String, String> parentIds = new HashMap<>();
+    private final Set<String> featureBackgroundStepIds = new HashSet<>();
+
+    /**
+     * Builds the index of a feature.
+     *
+     * @param feature The feature to index.
+     */
+    GherkinDocumentIndex(final Feature feature) {
+        for (FeatureChild child : feature.getChildren()) {
+            if (child.getBackground().isPresent()) {
+                Background background = child.getBackground().get();
+                addBackground(background, null);
+                for (Step step : background.getSteps()) {
+                    featureBackgroundStepIds.add(step.getId());
+                }
+            }
+            if (child.getScenario().isPresent()) {
+                addScenario(child.getScenario().get(), null);
+            }
+            if (child.getRule().isPresent()) {
+                addRule(child.getRule().get());
+            }
+        }
+    }
+
+    Step getStep(final String id) {
+        return steps.get(id);
+    }
+
+    Scenario getScenario(final String id) {
+        return scenarios.get(id);
+    }
+
+    Background getBackground(final String id) {
+        return backgrounds.get(id);
+    }
+
+    Rule getRule(final String id) {
+        return rules.get(id);
+    }
+
+    TableRow getExampleRow(final String id) {
+        return exampleRows.get(id);
+    }
+
+    /**
+     * Returns the examples table that contains an example row.
+     *
+     * @param exampleRowId The id of the example row.
+     * @return The examples table or null if the id does not belong to an example row.
+     */
+    Examples getExamplesOfExampleRow(final String exampleRowId) {
+        if (!exampleRows.containsKey(exampleRowId)) {
+            return null;
+        }
+        return examples.get(parentIds.get(exampleRowId));
+    }
+
+    /**
+     * Returns the id of the parent node of a step, example row, examples table, scenario or background.
+     *
+     * @param id The id of the child node.
+     * @return The parent id or null if the node is a direct child of the feature.
+     */
+    String getParentId(final String id) {
+        return parentIds.get(id);
+    }
+
+    /**
+     * Checks if a step belongs to the background of the feature (not to the background of a rule).
+     *
+     * @param stepId The step id.
+     * @return true if the step is a feature background step.
+     */
+    boolean isFeatureBackgroundStep(final String stepId) {
+        return featureBackgroundStepIds.contains(stepId);
+    }
+
+    private void addRule(final Rule rule) {
+        rules.put(rule.getId(), rule);
+        for (RuleChild child : rule.getChildren()) {
+            if (child.getBackground().isPresent()) {
+                addBackground(child.getBackground().get(), rule.getId());
+            }
+            if (child.getScenario().isPresent()) {
+                addScenario(child.getScenario().get(), rule.getId());
+            }
+        }
+    }
+
+    private void addBackground(final Background background, final String parentId) {
+        backgrounds.put(background.getId(), background);
+        putParentId(background.getId(), parentId);
+        for (Step step : background.getSteps()) {
+            steps.put(step.getId(), step);
+            parentIds.put(step.getId(), background.getId());
+        }
+    }
+
+    private void addScenario(final Scenario scenario, final String parentId) {
+        scenarios.put(scenario.getId(), scenario);
+        putParentId(scenario.getId(), parentId);
+        for (Step step : scenario.getSteps()) {
+            steps.put(step.getId(), step);
+            parentIds.put(step.getId(), scenario.getId());
+        }
+        for (Examples scenarioExamples : scenario.getExamples()) {
+            examples.put(scenarioExamples.getId(), scenarioExamples);
+            parentIds.put(scenarioExamples.getId(), scenario.getId());
+            for (TableRow tableRow : scenarioExamples.getTableBody()) {
+                exampleRows.put(tableRow.getId(), tableRow);
+                parentIds.put(tableRow.getId(), scenarioExamples.getId());
+            }
+        }
+    }
+
+    private void putParentId(final String id, final String parentId) {
+        if (parentId != null) {
+            parentIds.put(id, parentId);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.trivago.exceptions.CucablePluginException;
 import com.trivago.exceptions.filesystem.FeatureFileParseException;
 import com.trivago.logging.CucableLogger;
 import com.trivago.properties.PropertyManager;
+import com.trivago.vo.FeatureContext;
 import com.trivago.vo.SingleScenario;
 import com.trivago.vo.Step;
 import io.cucumber.gherkin.GherkinParser;
@@ -27,46 +28,61 @@ import io.cucumber.messages.types.Envelope;
 import io.cucumber.messages.types.Background;
 import io.cucumber.messages.types.Feature;
 import io.cucumber.messages.types.FeatureChild;
-import io.cucumber.tagexpressions.Expression;
 import io.cucumber.tagexpressions.TagExpressionException;
-import io.cucumber.tagexpressions.TagExpressionParser;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
-import java.util.HashMap;
 
 @Singleton
 public class GherkinDocumentParser {
 
     private final GherkinToCucableConverter gherkinToCucableConverter;
+    private final GherkinParserProvider gherkinParserProvider;
     private final PropertyManager propertyManager;
     private final CucableLogger cucableLogger;
+    // Each tag expression is only parsed once, no matter how many scenarios are evaluated.
+    private final Map<String, CompiledTagExpression> compiledTagExpressions = new ConcurrentHashMap<>();
+    // The matcher of the current scenarioNames list, it is replaced if the list changes.
+    private volatile ScenarioNameMatcherEntry scenarioNameMatcherEntry;
 
     @Inject
     GherkinDocumentParser(
             final GherkinToCucableConverter gherkinToCucableConverter,
+            final GherkinParserProvider gherkinParserProvider,
             final PropertyManager propertyManager,
             final CucableLogger logger
     ) {
         this.gherkinToCucableConverter = gherkinToCucableConverter;
+        this.gherkinParserProvider = gherkinParserProvider;
         this.propertyManager = propertyManager;
         this.cucableLogger = logger;
     }
 
+    /**
+     * Releases the tags, keywords and step texts that were shared between the scenarios of a generation.
+     * Scenarios that were already returned keep their values.
+     */
+    public void clearSharedValues() {
+        gherkinToCucableConverter.clearStringPool();
+    }
+
     /**
      * Returns a {@link SingleScenario} list from a given feature file.
      *
      * @param featureContent  A feature string.
      * @param featureFilePath The path to the source feature file.
+     * @param scenarioLineNumbers The requested line numbers of scenarios, examples or example rows
+     *                            (null or empty to select all scenarios).
      * @return A {@link SingleScenario} list.
      * @throws CucablePluginException see {@link CucablePluginException}.
      */
@@ -76,14 +92,21 @@ public class GherkinDocumentParser {
             final List<Integer> scenarioLineNumbers
     ) throws CucablePluginException {
 
+        boolean allScenariosRequested = scenarioLineNumbers == null || scenarioLineNumbers.isEmpty();
+        if (allScenariosRequested && cannotMatchIncludeScenarioTags(featureContent)) {
+            return Collections.emptyList();
+        }
+
         String escapedFeatureContent = featureContent.replace("\\n", "\\\\n");
         List<SingleScenario> singleScenarioFeatures = new ArrayList<>();
         
-        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(escapedFeatureContent.getBytes(StandardCharsets.UTF_8))) {
-            GherkinParser gherkinParser = GherkinParser.builder().build();
+        try {
+            GherkinParser gherkinParser = gherkinParserProvider.getGherkinParser();
             List<io.cucumber.messages.types.Pickle> pickles = new ArrayList<>();
             Feature feature = null;
-            List<Envelope> envelopes = gherkinParser.parse(featureFilePath, inputStream).collect(Collectors.toList());
+            List<Envelope> envelopes = gherkinParser
+                    .parse(featureFilePath, escapedFeatureContent.getBytes(StandardCharsets.UTF_8))
+                    .collect(Collectors.toList());
             
             // Check if parsing was successful
             boolean hasParseErrors = envelopes.stream()
@@ -111,51 +134,51 @@ public class GherkinDocumentParser {
             String featureDescription = feature.getDescription();
             List<String> featureTags = gherkinToCucableConverter.convertGherkinTagsToCucableTags(feature.getTags());
             List<Step> backgroundSteps = getBackgroundSteps(feature);
-            
-            // Build a map from step ID to GherkinStep for keyword extraction
-            Map<String, io.cucumber.messages.types.Step> stepIdMap = new HashMap<>();
-            // Build a map from scenario ID to scenario keyword
-            Map<String, String> scenarioKeywordMap = new HashMap<>();
-            // Build a map from scenario ID to scenario outline info
-            Map<String, io.cucumber.messages.types.Scenario> scenarioMap = new HashMap<>();
-            for (FeatureChild child : feature.getChildren()) {
-                if (child.getBackground().isPresent()) {
-                    for (io.cucumber.messages.types.Step step : child.getBackground().get().getSteps()) {
-                        stepIdMap.put(step.getId(), step);
-                    }
-                }
-                if (child.getScenario().isPresent()) {
-                    io.cucumber.messages.types.Scenario scenario = child.getScenario().get();
-                    scenarioKeywordMap.put(scenario.getId(), scenario.getKeyword());
-                    scenarioMap.put(scenario.getId(), scenario);
-                    for (io.cucumber.messages.types.Step step : scenario.getSteps()) {
-                        stepIdMap.put(step.getId(), step);
-                    }
-                }
-            }
-            
+            // All scenarios of this feature share its information instead of holding their own copies
+            FeatureContext featureContext = new FeatureContext(
+                    featureName, featureFilePath, featureLanguage, featureDescription, featureTags, backgroundSteps);
+
+            // Index all AST nodes once so that each pickle can be resolved without scanning the document
+            GherkinDocumentIndex documentIndex = new GherkinDocumentIndex(feature);
+
+            Set<Integer> requestedLineNumbers = scenarioLineNumbers == null || scenarioLineNumbers.isEmpty()
+                    ? null : new TreeSet<>(scenarioLineNumbers);
+            Set<Integer> matchedLineNumbers = new HashSet<>();
+
             for (io.cucumber.messages.types.Pickle pickle : pickles) {
                 int lineNumber = 0;
-                
+
                 // Get the actual scenario keyword from the source file
                 String scenarioKeyword = "Scenario";
                 io.cucumber.messages.types.Scenario originalScenario = null;
                 if (!pickle.getAstNodeIds().isEmpty()) {
-                    String scenarioId = pickle.getAstNodeIds().get(0);
-                    scenarioKeyword = scenarioKeywordMap.getOrDefault(scenarioId, "Scenario");
-                    originalScenario = scenarioMap.get(scenarioId);
-                    
-                    // Get line number from the scenario's location
-                    if (originalScenario != null && originalScenario.getLocation() != null) {
-                        lineNumber = originalScenario.getLocation().getLine().intValue();
+                    originalScenario = documentIndex.getScenario(pickle.getAstNodeIds().get(0));
+                    if (originalScenario != null) {
+                        scenarioKeyword = originalScenario.getKeyword();
+
+                        // Get line number from the scenario's location
+                        if (originalScenario.getLocation() != null) {
+                            lineNumber = originalScenario.getLocation().getLine().intValue();
+                        }
                     }
                 }
-                
+
+                // The second AST node id of an outline pickle is its example row
+                String exampleRowId = pickle.getAstNodeIds().size() > 1 ? pickle.getAstNodeIds().get(1) : null;
+                io.cucumber.messages.types.TableRow exampleRow = documentIndex.getExampleRow(exampleRowId);
+                io.cucumber.messages.types.Examples examples = documentIndex.getExamplesOfExampleRow(exampleRowId);
+
+                // Skip the conversion of scenarios and example rows that were not requested
+                if (requestedLineNumbers != null && !isSelectedByLineNumber(
+                        requestedLineNumbers, matchedLineNumbers, lineNumber, examples, exampleRow)) {
+                    continue;
+                }
+
                 // Check if this is a scenario outline (has examples)
-                boolean isScenarioOutline = originalScenario != null && 
-                    originalScenario.getExamples() != null && 
+                boolean isScenarioOutline = originalScenario != null &&
+                    originalScenario.getExamples() != null &&
                     !originalScenario.getExamples().isEmpty();
-                
+
                 String scenarioName;
                 if (isScenarioOutline) {
                     // For scenario outlines, keep the original name with placeholders
@@ -163,99 +186,67 @@ public class GherkinDocumentParser {
                 } else {
                     scenarioName = scenarioKeyword + ": " + pickle.getName();
                 }
-                
+
                 SingleScenario singleScenario = new SingleScenario(
-                    featureName,
-                    featureFilePath,
-                    featureLanguage,
-                    featureDescription,
-                    scenarioName,
+                    featureContext,
+                    gherkinToCucableConverter.intern(scenarioName),
                     lineNumber,
-                    "", // Pickle does not have a description
-                    featureTags,
-                    backgroundSteps
+                    "" // Pickle does not have a description
                 );
 
-                
                 // Set scenario outline flag and extract examples if needed
                 if (isScenarioOutline) {
                     singleScenario.setScenarioOutline(true);
                     List<String> headers = new ArrayList<>();
                     List<String> rowValues = new ArrayList<>();
                     String examplesKeyword = "Examples:";
-                    // For each Examples block
-                    if (originalScenario != null && originalScenario.getExamples() != null) {
-                        for (io.cucumber.messages.types.Examples examples : originalScenario.getExamples()) {
-                            // Extract the examples keyword from the source
-                            if (examples.getKeyword() != null && !examples.getKeyword().isEmpty()) {
-                                examplesKeyword = examples.getKeyword();
-                            }
-                            if (examples.getTableHeader().isPresent()) {
-                                headers = examples.getTableHeader().get().getCells().stream()
+                    if (examples != null && exampleRow != null) {
+                        // Extract the examples keyword from the source
+                        if (examples.getKeyword() != null && !examples.getKeyword().isEmpty()) {
+                            examplesKeyword = examples.getKeyword();
+                        }
+                        if (examples.getTableHeader().isPresent()) {
+                            headers = gherkinToCucableConverter.internList(
+                                examples.getTableHeader().get().getCells().stream()
                                     .map(io.cucumber.messages.types.TableCell::getValue)
-                                    .collect(Collectors.toList());
-                            }
-                            // For each row, check if its ID matches any pickle AST node ID
-                            for (io.cucumber.messages.types.TableRow tableRow : examples.getTableBody()) {
-                                if (pickle.getAstNodeIds().contains(tableRow.getId())) {
-                                    rowValues = tableRow.getCells().stream()
-                                        .map(io.cucumber.messages.types.TableCell::getValue)
-                                        .collect(Collectors.toList());
-                                    break;
-                                }
-                            }
-                            if (!rowValues.isEmpty()) {
-                                break;
-                            }
+                                    .collect(Collectors.toList()));
                         }
+                        singleScenario.setExampleRowLineNumber(exampleRow.getLocation().getLine().intValue());
+                        rowValues = exampleRow.getCells().stream()
+                            .map(io.cucumber.messages.types.TableCell::getValue)
+                            .collect(Collectors.toList());
                     }
                     singleScenario.setExampleHeaders(headers);
                     singleScenario.setExampleRow(rowValues);
-                    singleScenario.setExamplesKeyword(examplesKeyword);
+                    singleScenario.setExamplesKeyword(gherkinToCucableConverter.intern(examplesKeyword));
                 }
-                
+
                 // Tags
-                List<String> tags = pickle.getTags().stream()
+                List<String> tags = gherkinToCucableConverter.internList(pickle.getTags().stream()
                     .map(io.cucumber.messages.types.PickleTag::getName)
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toList()));
                 singleScenario.setScenarioTags(tags);
-                
-                // Collect background step IDs
-                List<String> backgroundStepIds = new ArrayList<>();
-                for (FeatureChild child : feature.getChildren()) {
-                    if (child.getBackground().isPresent()) {
-                        for (io.cucumber.messages.types.Step step : child.getBackground().get().getSteps()) {
-                            backgroundStepIds.add(step.getId());
-                        }
-                    }
-                }
-                // Steps: only those not in backgroundStepIds
-                final io.cucumber.messages.types.Scenario finalOriginalScenario = originalScenario;
+
+                // Steps: only those not belonging to the feature background
                 List<Step> steps = pickle.getSteps().stream()
-                    .filter(pickleStep -> pickleStep.getAstNodeIds().stream().noneMatch(backgroundStepIds::contains))
+                    .filter(pickleStep -> pickleStep.getAstNodeIds().stream()
+                        .noneMatch(documentIndex::isFeatureBackgroundStep))
                     .map(pickleStep -> {
                         String stepText = pickleStep.getText();
                         String keyword = "";
                         // Find the original Gherkin step by AST node ID
                         for (String astId : pickleStep.getAstNodeIds()) {
-                            io.cucumber.messages.types.Step gherkinStep = stepIdMap.get(astId);
+                            io.cucumber.messages.types.Step gherkinStep = documentIndex.getStep(astId);
                             if (gherkinStep != null) {
                                 keyword = gherkinStep.getKeyword();
-                                break;
-                            }
-                        }
-                        
-                        // For scenario outlines, we need to reconstruct the original step with placeholders
-                        if (isScenarioOutline && finalOriginalScenario != null) {
-                            // Find the original step in the scenario outline by matching the pickle step's AST node ID
-                            for (io.cucumber.messages.types.Step gherkinStep : finalOriginalScenario.getSteps()) {
-                                if (pickleStep.getAstNodeIds().contains(gherkinStep.getId())) {
+                                // For scenario outlines, keep the original step text with placeholders
+                                if (isScenarioOutline) {
                                     stepText = gherkinStep.getText();
-                                    break;
                                 }
+                                break;
                             }
                         }
-                        
+
                         // Handle DataTable and DocString from PickleStep argument (only one allowed)
                         com.trivago.vo.DataTable dataTable = null;
                         String docString = null;
@@ -270,17 +261,26 @@ public class GherkinDocumentParser {
                             }
                         }
                         return new Step(
-                            (keyword + stepText).trim(),
+                            gherkinToCucableConverter.intern((keyword + stepText).trim()),
                             dataTable,
                             docString
                         );
                     }).collect(Collectors.toList());
                 singleScenario.setSteps(steps);
-                
+
                 if (scenarioShouldBeIncluded(singleScenario)) {
                     singleScenarioFeatures.add(singleScenario);
                 }
             }
+            if (requestedLineNumbers != null) {
+                for (Integer requestedLineNumber : requestedLineNumbers) {
+                    if (!matchedLineNumbers.contains(requestedLineNumber)) {
+                        cucableLogger.warn(String.format(
+                                "Line %d of %s does not match any scenario, examples or example row.",
+                                requestedLineNumber, featureFilePath));
+                    }
+                }
+            }
         } catch (CucablePluginException e) {
             throw e;
         } catch (Exception e) {
@@ -290,6 +290,43 @@ public class GherkinDocumentParser {
         return singleScenarioFeatures;
     }
 
+    /**
+     * Checks if a pickle is selected by a scenario line number, the line of its examples block or
+     * the line of its example row.
+     *
+     * @param requestedLineNumbers The requested line numbers.
+     * @param matchedLineNumbers   The requested line numbers that matched so far (matching lines are added).
+     * @param scenarioLineNumber   The line number of the scenario or scenario outline.
+     * @param examples             The examples block of the pickle or null if it is a plain scenario.
+     * @param exampleRow           The example row of the pickle or null if it is a plain scenario.
+     * @return true if at least one requested line number selects the pickle.
+     */
+    private boolean isSelectedByLineNumber(
+            final Set<Integer> requestedLineNumbers,
+            final Set<Integer> matchedLineNumbers,
+            final int scenarioLineNumber,
+            final io.cucumber.messages.types.Examples examples,
+            final io.cucumber.messages.types.TableRow exampleRow) {
+
+        List<Integer> candidateLineNumbers = new ArrayList<>();
+        candidateLineNumbers.add(scenarioLineNumber);
+        if (examples != null) {
+            candidateLineNumbers.add(examples.getLocation().getLine().intValue());
+        }
+        if (exampleRow != null) {
+            candidateLineNumbers.add(exampleRow.getLocation().getLine().intValue());
+        }
+
+        boolean selected = false;
+        for (Integer candidateLineNumber : candidateLineNumbers) {
+            if (requestedLineNumbers.contains(candidateLineNumber)) {
+                matchedLineNumbers.add(candidateLineNumber);
+                selected = true;
+            }
+        }
+        return selected;
+    }
+
     /**
      * Extracts background steps from a feature.
      */
@@ -313,27 +350,49 @@ public class GherkinDocumentParser {
     private boolean scenarioShouldBeIncluded(final SingleScenario singleScenario) throws CucablePluginException {
 
         String includeScenarioTags = propertyManager.getIncludeScenarioTags();
+        if (includeScenarioTags != null && !includeScenarioTags.isEmpty()) {
+            CompiledTagExpression tagExpression = getCompiledTagExpression(includeScenarioTags);
+            if (!tagExpression.matches(singleScenario.getScenarioTags(), singleScenario.getFeatureTags(),
+                    singleScenario.getExampleTags())) {
+                return false;
+            }
+        }
+
         String language = singleScenario.getFeatureLanguage();
         String scenarioName = singleScenario.getScenarioName();
-        boolean scenarioNameMatchExists = matchScenarioWithScenarioNames(language, scenarioName) >= 0;
-
-        List<String> combinedScenarioTags = new ArrayList<>(singleScenario.getScenarioTags());
-        combinedScenarioTags.addAll(singleScenario.getFeatureTags());
-        combinedScenarioTags.addAll(singleScenario.getExampleTags());
-        combinedScenarioTags = combinedScenarioTags.stream().distinct().collect(Collectors.toList());
-
-        if (includeScenarioTags == null || includeScenarioTags.isEmpty()) {
-            return scenarioNameMatchExists;
-        }
+        return matchScenarioWithScenarioNames(language, scenarioName) >= 0;
+    }
 
+    /**
+     * Returns the compiled form of a tag expression.
+     *
+     * @param tagExpression The tag expression.
+     * @return The compiled tag expression.
+     * @throws CucablePluginException if the tag expression is invalid.
+     */
+    private CompiledTagExpression getCompiledTagExpression(final String tagExpression) throws CucablePluginException {
         try {
-            Expression tagExpression = TagExpressionParser.parse(includeScenarioTags);
-            return tagExpression.evaluate(combinedScenarioTags) && scenarioNameMatchExists;
+            return compiledTagExpressions.computeIfAbsent(tagExpression, CompiledTagExpression::compile);
         } catch (TagExpressionException e) {
             throw new CucablePluginException(
-                    "The tag expression '" + includeScenarioTags + "' is invalid: " + e.getMessage());
+                    "The tag expression '" + tagExpression + "' is invalid: " + e.getMessage());
         }
+    }
 
+    /**
+     * Checks if a cheap scan of the tag lines proves that no scenario of a feature can match the includeScenarioTags
+     * expression. Features with requested line numbers are always parsed so that unmatched lines are reported.
+     *
+     * @param featureContent A feature string.
+     * @return true if the feature does not need to be parsed.
+     * @throws CucablePluginException if the tag expression is invalid.
+     */
+    private boolean cannotMatchIncludeScenarioTags(final String featureContent) throws CucablePluginException {
+        String includeScenarioTags = propertyManager.getIncludeScenarioTags();
+        if (includeScenarioTags == null || includeScenarioTags.isEmpty()) {
+            return false;
+        }
+        return TagPreScan.cannotMatch(getCompiledTagExpression(includeScenarioTags), featureContent);
     }
 
     /**
@@ -346,26 +405,39 @@ public class GherkinDocumentParser {
      */
     public int matchScenarioWithScenarioNames(final String language, final String stringToMatch) {
         List<String> scenarioNames = propertyManager.getScenarioNames();
-        int matchIndex = -1;
 
         if (scenarioNames == null || scenarioNames.isEmpty()) {
             return 0;
         }
 
-        for (String scenarioName : scenarioNames) {
-            // Match any scenario keyword followed by colon and the scenario name
-            // Case-insensitive matching for better user experience
-            String regex = ".*:.+" + Pattern.quote(scenarioName);
-            Pattern pattern = Pattern.compile(regex, Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
-            Matcher matcher = pattern.matcher(stringToMatch);
-            if (matcher.find()) {
-                matchIndex = scenarioNames.indexOf(scenarioName);
-                break;
-            }
-        }
+        return getScenarioNameMatcher(scenarioNames).match(stringToMatch);
+    }
 
-        return matchIndex;
+    /**
+     * Returns the matcher for the given scenario names. It is only rebuilt if another list of names is passed.
+     *
+     * @param scenarioNames The scenario names.
+     * @return The scenario name matcher.
+     */
+    private ScenarioNameMatcher getScenarioNameMatcher(final List<String> scenarioNames) {
+        ScenarioNameMatcherEntry entry = scenarioNameMatcherEntry;
+        if (entry == null || entry.scenarioNames != scenarioNames) {
+            entry = new ScenarioNameMatcherEntry(scenarioNames, new ScenarioNameMatcher(scenarioNames));
+            scenarioNameMatcherEntry = entry;
+        }
+        return entry.matcher;
     }
 
+    /**
+     * A scenario name matcher and the list of names it was built from.
+     */
+    private static final class ScenarioNameMatcherEntry {
+        private final List<String> scenarioNames;
+        private final ScenarioNameMatcher matcher;
 
-}
\ No newline at end of file
+        private ScenarioNameMatcherEntry(final List<String> scenarioNames, final ScenarioNameMatcher matcher) {
+            this.scenarioNames = scenarioNames;
+            this.matcher = matcher;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.gherkin;
+
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.IdGenerator;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Provides configured {@link GherkinParser} instances that are reused for all feature files of a plugin execution.
+ * Each thread gets its own parser so the parsers can be used during concurrent feature generation.
+ */
+@Singleton
+public class GherkinParserProvider {
+
+    private final ThreadLocal<GherkinParser> gherkinParsers = ThreadLocal.withInitial(this::createGherkinParser);
+
+    @Inject
+    public GherkinParserProvider() {
+    }
+
+    /**
+     * Returns the parser of the current thread.
+     *
+     * @return A {@link GherkinParser} that must not be shared with other threads.
+     */
+    public GherkinParser getGherkinParser() {
+        return gherkinParsers.get();
+    }
+
+    /**
+     * Creates a parser that only emits Gherkin documents and pickles.
+     * AST node ids only have to be unique within a single document, so a cheap thread confined counter
+     * is used instead of the default random UUIDs.
+     *
+     * @return A new {@link GherkinParser}.
+     */
+    GherkinParser createGherkinParser() {
+        return GherkinParser.builder()
+                .includeSource(false)
+                .idGenerator(new ThreadConfinedIdGenerator())
+                .build();
+    }
+
+    /**
+     * Generates ascending numeric ids. Instances must only be used by a single thread.
+     */
+    private static final class ThreadConfinedIdGenerator implements IdGenerator {
+        private long nextId = 0;
+
+        @Override
+        public String newId() {
+            return Long.toString(nextId++);
+        }
+    }
+}
@@ -35,6 +35,11 @@ import java.util.stream.IntStream;
 @Singleton
 class GherkinToCucableConverter {
 
+    private static final int STRING_POOL_SIZE = 1 << 18;
+
+    // Shares repeated tags, keywords and step texts between all scenarios of all source features of one generation.
+    private final StringPool stringPool = new StringPool(STRING_POOL_SIZE);
+
     /**
      * Converts a list of Gherkin steps to Cucable steps including data tables.
      *
@@ -53,7 +58,7 @@ class GherkinToCucableConverter {
                     .map(DocString::getContent)
                     .orElse(null);
 
-            String keywordAndName = gherkinStep.getKeyword().concat(gherkinStep.getText());
+            String keywordAndName = intern(gherkinStep.getKeyword().concat(gherkinStep.getText()));
             step = new com.trivago.vo.Step(keywordAndName, dataTable, docString);
             steps.add(step);
         }
@@ -84,7 +89,34 @@ class GherkinToCucableConverter {
      * @return a {@link String} list of tags.
      */
     List<String> convertGherkinTagsToCucableTags(final List<Tag> gherkinTags) {
-        return gherkinTags.stream().map(Tag::getName).collect(Collectors.toList());
+        return internList(gherkinTags.stream().map(Tag::getName).collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns a shared instance of a string that is equal for many scenarios, e.g. a keyword or step text.
+     *
+     * @param string the string.
+     * @return an equal string instance.
+     */
+    String intern(final String string) {
+        return stringPool.intern(string);
+    }
+
+    /**
+     * Returns a shared unmodifiable instance of a string list that is equal for many scenarios, e.g. their tags.
+     *
+     * @param strings the string list.
+     * @return an equal unmodifiable string list.
+     */
+    List<String> internList(final List<String> strings) {
+        return stringPool.internList(strings);
+    }
+
+    /**
+     * Releases all shared string instances so that they do not stay in memory after a generation.
+     */
+    void clearStringPool() {
+        stringPool.clear();
     }
 
     /**
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.gherkin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Finds the first of many scenario names in a scenario title in a single pass (Aho-Corasick).
+ * <p>
+ * A name matches like the case-insensitive regular expression {@code .*:.+<name>} that was used before:
+ * the name has to occur after a colon and at least one other character on the same line.
+ * As with {@link java.util.regex.Pattern#CASE_INSENSITIVE} only US-ASCII letters are compared case-insensitively.
+ */
+final class ScenarioNameMatcher {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private final char[][] transitionCharacters;
+    private final int[][] transitionTargets;
+    private final int[] failureLinks;
+    private final int[] outputLinks;
+    private final int[] nameIndexes;
+    private final int[] depths;
+    private final int emptyNameIndex;
+
+    /**
+     * Constructor.
+     *
+     * @param scenarioNames The scenario names in order of their priority.
+     */
+    ScenarioNameMatcher(final List<String> scenarioNames) {
+        List<Map<Character, Integer>> transitions = new ArrayList<>();
+        List<Integer> nameIndexList = new ArrayList<>();
+        List<Integer> depthList = new ArrayList<>();
+        transitions.add(new TreeMap<>());
+        nameIndexList.add(NONE);
+        depthList.add(0);
+
+        for (int nameIndex = 0; nameIndex < scenarioNames.size(); nameIndex++) {
+            String scenarioName = scenarioNames.get(nameIndex);
+            int node = ROOT;
+            for (int i = 0; i < scenarioName.length(); i++) {
+                char character = toLowerCase(scenarioName.charAt(i));
+                Integer target = transitions.get(node).get(character);
+                if (target == null) {
+                    target = transitions.size();
+                    transitions.add(new TreeMap<>());
+                    nameIndexList.add(NONE);
+                    depthList.add(depthList.get(node) + 1);
+                    transitions.get(node).put(character, target);
+                }
+                node = target;
+            }
+            // For duplicate names the first index wins.
+            if (nameIndexList.get(node) == NONE) {
+                nameIndexList.set(node, nameIndex);
+            }
+        }
+
+        int numberOfNodes = transitions.size();
+        transitionCharacters = new char[numberOfNodes][];
+        transitionTargets = new int[numberOfNodes][];
+        nameIndexes = new int[numberOfNodes];
+        depths = new int[numberOfNodes];
+        for (int node = 0; node < numberOfNodes; node++) {
+            Map<Character, Integer> nodeTransitions = transitions.get(node);
+            transitionCharacters[node] = new char[nodeTransitions.size()];
+            transitionTargets[node] = new int[nodeTransitions.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> transition : nodeTransitions.entrySet()) {
+                transitionCharacters[node][i] = transition.getKey();
+                transitionTargets[node][i++] = transition.getValue();
+            }
+            nameIndexes[node] = nameIndexList.get(node);
+            depths[node] = depthList.get(node);
+        }
+        emptyNameIndex = nameIndexes[ROOT];
+
+        failureLinks = new int[numberOfNodes];
+        outputLinks = new int[numberOfNodes];
+        outputLinks[ROOT] = NONE;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : transitionTargets[ROOT]) {
+            failureLinks[child] = ROOT;
+            outputLinks[child] = NONE;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < transitionCharacters[node].length; i++) {
+                char character = transitionCharacters[node][i];
+                int child = transitionTargets[node][i];
+                int failure = failureLinks[node];
+                while (failure != ROOT && transition(failure, character) == NONE) {
+                    failure = failureLinks[failure];
+                }
+                int failureTarget = transition(failure, character);
+                failureLinks[child] = failureTarget == NONE ? ROOT : failureTarget;
+                int suffix = failureLinks[child];
+                outputLinks[child] = suffix != ROOT && nameIndexes[suffix] != NONE ? suffix : outputLinks[suffix];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Finds the scenario name with the lowest index that matches the given scenario title.
+     *
+     * @param text The scenario title, e.g. "Scenario: my scenario".
+     * @return The index of the matching scenario name or -1 if no name matches.
+     */
+    int match(final String text) {
+        int bestIndex = Integer.MAX_VALUE;
+        int node = ROOT;
+        int lineStart = 0;
+        // The first position on the current line that follows a colon and at least one other character.
+        int validFrom = Integer.MAX_VALUE;
+
+        for (int i = 0; i < text.length(); i++) {
+            if (emptyNameIndex != NONE && i >= validFrom) {
+                bestIndex = Math.min(bestIndex, emptyNameIndex);
+            }
+            char character = text.charAt(i);
+            if (isLineTerminator(character)) {
+                lineStart = i + 1;
+                validFrom = Integer.MAX_VALUE;
+            } else if (character == ':' && validFrom == Integer.MAX_VALUE) {
+                validFrom = i + 2;
+            }
+
+            char lowerCaseCharacter = toLowerCase(character);
+            while (node != ROOT && transition(node, lowerCaseCharacter) == NONE) {
+                node = failureLinks[node];
+            }
+            int target = transition(node, lowerCaseCharacter);
+            node = target == NONE ? ROOT : target;
+
+            for (int output = nameIndexes[node] != NONE ? node : outputLinks[node];
+                 output != NONE;
+                 output = outputLinks[output]) {
+                int nameIndex = nameIndexes[output];
+                int start = i - depths[output] + 1;
+                if (nameIndex < bestIndex && isValidStart(text, start, lineStart, validFrom)) {
+                    bestIndex = nameIndex;
+                }
+            }
+            if (bestIndex == 0) {
+                return 0;
+            }
+        }
+        if (emptyNameIndex != NONE && text.length() >= validFrom) {
+            bestIndex = Math.min(bestIndex, emptyNameIndex);
+        }
+        return bestIndex == Integer.MAX_VALUE ? NONE : bestIndex;
+    }
+
+    private int transition(final int node, final char character) {
+        char[] characters = transitionCharacters[node];
+        int low = 0;
+        int high = characters.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (characters[middle] < character) {
+                low = middle + 1;
+            } else if (characters[middle] > character) {
+                high = middle - 1;
+            } else {
+                return transitionTargets[node][middle];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Checks if a name may start at the given position, i.e. if it is preceded by a colon and at least one
+     * other character on the same line.
+     */
+    private static boolean isValidStart(final String text, final int start, final int lineStart, final int validFrom) {
+        if (start >= lineStart) {
+            return start >= validFrom;
+        }
+        // The name itself contains a line break, so the line of its start has to be searched.
+        for (int i = start - 1; i >= 0; i--) {
+            char character = text.charAt(i);
+            if (isLineTerminator(character)) {
+                return false;
+            }
+            if (character == ':' && i <= start - 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLineTerminator(final char character) {
+        return character == '\n' || character == '\r' || character == '\u0085'
+                || character == '\u2028' || character == '\u2029';
+    }
+
+    private static char toLowerCase(final char character) {
+        return character >= 'A' && character <= 'Z' ? (char) (character + ('a' - 'A')) : character;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.trivago.gherkin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Returns one shared instance for equal strings and string lists, e.g. tags, keywords and step texts that repeat
+ * across the scenarios of all source features. It can be used by concurrent generation threads.
+ * Once the pool is full, new values are returned unchanged so that unique values cannot make it grow without limit.
+ */
+final class StringPool {
+
+    private final int maximumSize;
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<String>, List<String>> stringLists = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize The maximum number of strings and the maximum number of string lists in the pool.
+     */
+    StringPool(final int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the pooled instance of a string.
+     *
+     * @param string The string.
+     * @return An equal string that is shared with all other callers or the string itself.
+     */
+    String intern(final String string) {
+        if (string == null) {
+            return null;
+        }
+        String pooledString = strings.get(string);
+        if (pooledString != null) {
+            return pooledString;
+        }
+        if (strings.size() >= maximumSize) {
+            return string;
+        }
+        pooledString = strings.putIfAbsent(string, string);
+        return pooledString == null ? string : pooledString;
+    }
+
+    /**
+     * Returns the pooled instance of a string list. The returned list is unmodifiable, its strings are pooled as well.
+     *
+     * @param stringList The string list.
+     * @return An equal unmodifiable list that is shared with all other callers.
+     */
+    List<String> internList(final List<String> stringList) {
+        if (stringList == null) {
+            return null;
+        }
+        if (stringList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> pooledList = stringLists.get(stringList);
+        if (pooledList != null) {
+            return pooledList;
+        }
+        List<String> internedStrings = new ArrayList<>(stringList.size());
+        for (String string : stringList) {
+            internedStrings.add(intern(string));
+        }
+        List<String> newList = Collections.unmodifiableList(internedStrings);
+        if (stringLists.size() >= maximumSize) {
+            return newList;
+        }
+        pooledList = stringLists.putIfAbsent(newList, newList);
+        return pooledList == null ? newList : pooledList;
+    }
+
+    /**
+     * Removes all strings and string lists from the pool.
+     */
+    void clear() {
+        strings.clear();
+        stringLists.clear();
+    }
+
+    /**
+     * Returns the number of pooled strings.
+     *
+     * @return The number of strings.
+     */
+    int size() {
+        return strings.size();
+    }
+}
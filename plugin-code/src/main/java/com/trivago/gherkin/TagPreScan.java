@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.gherkin;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Proves without a full Gherkin parse that no scenario of a feature can match a tag expression.
+ * <p>
+ * The tags of every scenario are a subset of the tag tokens of its feature file. The pre-scan collects the tokens
+ * of all tag lines that are also used in the expression and evaluates the expression for every combination of them.
+ * If none of the combinations matches, no scenario of the feature can match either.
+ * If this cannot be proven cheaply, the feature has to be parsed.
+ */
+final class TagPreScan {
+
+    // At most 2^12 combinations of the tags that a feature shares with the expression are evaluated.
+    private static final int MAXIMUM_SHARED_TAGS = 12;
+
+    private TagPreScan() {
+    }
+
+    /**
+     * Checks if it is certain that no scenario of a feature can match a tag expression.
+     *
+     * @param tagExpression  The compiled tag expression.
+     * @param featureContent The content of the feature file.
+     * @return true if no scenario can match, false if the feature has to be parsed.
+     */
+    static boolean cannotMatch(final CompiledTagExpression tagExpression, final CharSequence featureContent) {
+        Set<String> sharedTags = collectTagTokens(featureContent, tagExpression.getTags());
+        if (sharedTags.size() > MAXIMUM_SHARED_TAGS) {
+            return false;
+        }
+        int[] sharedTagIds = new int[sharedTags.size()];
+        int index = 0;
+        for (String sharedTag : sharedTags) {
+            sharedTagIds[index++] = tagExpression.getTagId(sharedTag);
+        }
+        long[] bits = tagExpression.newTagBits();
+        for (int combination = 0; combination < 1 << sharedTagIds.length; combination++) {
+            CompiledTagExpression.clear(bits);
+            for (int i = 0; i < sharedTagIds.length; i++) {
+                if ((combination & 1 << i) != 0) {
+                    CompiledTagExpression.setBit(bits, sharedTagIds[i]);
+                }
+            }
+            if (tagExpression.evaluate(bits)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects the tags of all lines that start with '@' and are contained in the given set.
+     * Tag lines are tokenized like Gherkin does: everything after a '#' that follows whitespace is a comment
+     * and the rest of the line is split on '@'. A tag containing whitespace or '#' is additionally collected
+     * in parts so that no tag is missed.
+     *
+     * @param content The content of a feature file.
+     * @param wanted  The tags to collect.
+     * @return The collected tags in order of their first occurrence.
+     */
+    static Set<String> collectTagTokens(final CharSequence content, final Set<String> wanted) {
+        if (wanted.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        int length = content.length();
+        int position = 0;
+        while (position < length) {
+            while (position < length && isBlank(content.charAt(position))) {
+                position++;
+            }
+            int lineStart = position;
+            while (position < length && !isLineBreak(content.charAt(position))) {
+                position++;
+            }
+            if (lineStart < position && content.charAt(lineStart) == '@') {
+                collectLineTags(content.subSequence(lineStart, position).toString(), wanted, tokens);
+            }
+            position++;
+        }
+        return tokens;
+    }
+
+    private static void collectLineTags(final String line, final Set<String> wanted, final Set<String> tokens) {
+        String uncommentedLine = line;
+        for (int i = 1; i < line.length(); i++) {
+            if (line.charAt(i) == '#' && isCommentSeparator(line.charAt(i - 1))) {
+                uncommentedLine = line.substring(0, i);
+                break;
+            }
+        }
+        for (String element : uncommentedLine.split("@")) {
+            String tag = element.trim();
+            if (tag.isEmpty()) {
+                continue;
+            }
+            addIfWanted("@" + tag, wanted, tokens);
+            for (String part : tag.split("[\\s\\p{Zs}]+")) {
+                addIfWanted("@" + part, wanted, tokens);
+                int commentStart = part.indexOf('#');
+                if (commentStart > 0) {
+                    addIfWanted("@" + part.substring(0, commentStart), wanted, tokens);
+                }
+            }
+        }
+    }
+
+    private static void addIfWanted(final String token, final Set<String> wanted, final Set<String> tokens) {
+        if (wanted.contains(token)) {
+            tokens.add(token);
+        }
+    }
+
+    // A byte order mark is skipped like whitespace so that the tags of the first line of such a file are collected.
+    private static boolean isBlank(final char character) {
+        return character == '\uFEFF'
+                || !isLineBreak(character) && (Character.isWhitespace(character) || Character.isSpaceChar(character));
+    }
+
+    // The whitespace characters of the regular expression "\s#" that Gherkin uses to find comments on tag lines.
+    private static boolean isCommentSeparator(final char character) {
+        return character == ' ' || character == '\t' || character == '\u000B' || character == '\f';
+    }
+
+    private static boolean isLineBreak(final char character) {
+        return character == '\n' || character == '\r';
+    }
+}
@@ -21,6 +21,7 @@ import com.trivago.exceptions.properties.WrongOrMissingPropertiesException;
 import com.trivago.files.FileSystemManager;
 import com.trivago.logging.CucableLogger;
 import com.trivago.logging.CucableLogger.CucableLogLevel;
+import com.trivago.logging.Language;
 import com.trivago.vo.CucableFeature;
 
 import javax.inject.Inject;
@@ -37,6 +38,8 @@ import static com.trivago.logging.CucableLogger.CucableLogLevel.DEFAULT;
 @Singleton
 public class PropertyManager {
 
+    private static final String AUTOMATIC_NUMBER_OF_RUNNERS = "auto";
+
     private final CucableLogger logger;
     private final FileSystemManager fileSystemManager;
 
@@ -46,11 +49,25 @@ public class PropertyManager {
     private String generatedFeatureDirectory;
     private int numberOfTestRuns;
     private String includeScenarioTags;
+    private List<String> includeFeatureFiles = new ArrayList<>();
+    private List<String> excludeFeatureFiles = new ArrayList<>();
     private ParallelizationMode parallelizationMode;
+    private NamingMode namingMode = NamingMode.COUNTER;
+    private boolean lineReferences;
     private Map<String, String> customPlaceholders;
     private int desiredNumberOfRunners = -1;
+    private boolean automaticNumberOfRunners;
+    private String forkCount;
     private int desiredNumberOfFeaturesPerRunner;
     private List<String> scenarioNames = new ArrayList<>();
+    private int numberOfGenerationThreads = 1;
+    private boolean incremental;
+    private String durationHistory;
+    private boolean balanceByScenarioWeight;
+    private Map<String, Long> tagWeights = new HashMap<>();
+    private int shardIndex;
+    private int shardCount = 1;
+    private ShardAssignment shardAssignment = ShardAssignment.HASH;
 
     @Inject
     public PropertyManager(final CucableLogger logger, final FileSystemManager fileSystemManager) {
@@ -196,6 +213,38 @@ public class PropertyManager {
         }
     }
 
+    public NamingMode getNamingMode() {
+        return namingMode;
+    }
+
+    public void setNamingMode(final String namingMode) throws CucablePluginException {
+        if (namingMode == null || namingMode.isEmpty()) {
+            this.namingMode = NamingMode.COUNTER;
+            return;
+        }
+        try {
+            this.namingMode = NamingMode.valueOf(namingMode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new CucablePluginException(
+                    "Unknown <namingMode> '" + namingMode + "'. Please use 'counter' or 'hash'."
+            );
+        }
+    }
+
+    /**
+     * Returns whether runners reference scenarios in the source features by line number
+     * instead of using generated feature files.
+     *
+     * @return true if no feature files are generated.
+     */
+    public boolean isLineReferences() {
+        return lineReferences;
+    }
+
+    public void setLineReferences(final boolean lineReferences) {
+        this.lineReferences = lineReferences;
+    }
+
     public Map<String, String> getCustomPlaceholders() {
         return customPlaceholders;
     }
@@ -204,12 +253,100 @@ public class PropertyManager {
         this.customPlaceholders = customPlaceholders;
     }
 
+    /**
+     * Returns the desired number of runners. In automatic mode, this is derived from the fork count hint
+     * or the number of processors available to the JVM.
+     *
+     * @return The desired number of runners (-1 means one runner per generated feature).
+     */
     public int getDesiredNumberOfRunners() {
+        if (automaticNumberOfRunners) {
+            return getNumberOfParallelForks();
+        }
         return desiredNumberOfRunners;
     }
 
     public void setDesiredNumberOfRunners(final int desiredNumberOfRunners) {
         this.desiredNumberOfRunners = desiredNumberOfRunners;
+        this.automaticNumberOfRunners = false;
+    }
+
+    /**
+     * Sets the desired number of runners from a number or 'auto'.
+     *
+     * @param desiredNumberOfRunners The desired number of runners or 'auto'.
+     * @throws CucablePluginException Thrown if the value is neither a number nor 'auto'.
+     */
+    public void setDesiredNumberOfRunners(final String desiredNumberOfRunners) throws CucablePluginException {
+        if (desiredNumberOfRunners == null || desiredNumberOfRunners.trim().isEmpty()) {
+            setDesiredNumberOfRunners(-1);
+            return;
+        }
+        if (desiredNumberOfRunners.trim().equalsIgnoreCase(AUTOMATIC_NUMBER_OF_RUNNERS)) {
+            this.automaticNumberOfRunners = true;
+            return;
+        }
+        try {
+            setDesiredNumberOfRunners(Integer.parseInt(desiredNumberOfRunners.trim()));
+        } catch (NumberFormatException e) {
+            throw new CucablePluginException(
+                    "Invalid <desiredNumberOfRunners> '" + desiredNumberOfRunners + "'. Please use a number or 'auto'."
+            );
+        }
+    }
+
+    /**
+     * Returns whether the number of runners is derived from the available processors or fork count hint.
+     *
+     * @return true if desiredNumberOfRunners is 'auto'.
+     */
+    public boolean isAutomaticNumberOfRunners() {
+        return automaticNumberOfRunners;
+    }
+
+    public String getForkCount() {
+        return forkCount;
+    }
+
+    /**
+     * Sets the hint for the number of forks or threads that run the generated runners concurrently.
+     * Like the Surefire and Failsafe forkCount, a value with a 'C' suffix is multiplied by the available processors.
+     *
+     * @param forkCount The fork count hint, e.g. "4" or "1.5C".
+     * @throws CucablePluginException Thrown if the fork count is not a positive number.
+     */
+    public void setForkCount(final String forkCount) throws CucablePluginException {
+        if (forkCount != null && !forkCount.trim().isEmpty()) {
+            this.forkCount = forkCount.trim();
+            if (getNumberOfParallelForks() < 1) {
+                throw new CucablePluginException(
+                        "Invalid <forkCount> '" + forkCount + "'. Please use a positive number like '4' or '1.5C'."
+                );
+            }
+        } else {
+            this.forkCount = null;
+        }
+    }
+
+    /**
+     * Resolves the number of forks or threads that run the generated runners concurrently.
+     *
+     * @return The number of parallel forks or 0 if the fork count hint is invalid.
+     */
+    private int getNumberOfParallelForks() {
+        int availableProcessors = Runtime.getRuntime().availableProcessors();
+        if (forkCount == null) {
+            return availableProcessors;
+        }
+        try {
+            if (forkCount.toUpperCase().endsWith("C")) {
+                double forksPerProcessor = Double.parseDouble(forkCount.substring(0, forkCount.length() - 1));
+                return (int) Math.ceil(forksPerProcessor * availableProcessors);
+            }
+            return Integer.parseInt(forkCount);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
 
     public int getDesiredNumberOfFeaturesPerRunner() {
@@ -220,6 +357,39 @@ public class PropertyManager {
         this.desiredNumberOfFeaturesPerRunner = desiredNumberOfFeaturesPerRunner;
     }
 
+    /**
+     * Returns the globs of feature files to include when a source feature directory is scanned.
+     *
+     * @return The include globs (all feature files are included if empty).
+     */
+    public List<String> getIncludeFeatureFiles() {
+        return includeFeatureFiles;
+    }
+
+    public void setIncludeFeatureFiles(final String includeFeatureFiles) {
+        this.includeFeatureFiles = toGlobList(includeFeatureFiles);
+    }
+
+    /**
+     * Returns the globs of feature files and directories to skip when a source feature directory is scanned.
+     *
+     * @return The exclude globs.
+     */
+    public List<String> getExcludeFeatureFiles() {
+        return excludeFeatureFiles;
+    }
+
+    public void setExcludeFeatureFiles(final String excludeFeatureFiles) {
+        this.excludeFeatureFiles = toGlobList(excludeFeatureFiles);
+    }
+
+    private List<String> toGlobList(final String globs) {
+        if (globs == null || globs.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.asList(globs.trim().split("\\s*,\\s*"));
+    }
+
     public List<String> getScenarioNames() {
         return scenarioNames;
     }
@@ -238,6 +408,188 @@ public class PropertyManager {
         this.scenarioNames = scenarioNameList;
     }
 
+    /**
+     * Returns the number of threads used for parsing and generating features.
+     *
+     * @return The number of generation threads (1 means sequential generation).
+     */
+    public int getNumberOfGenerationThreads() {
+        return numberOfGenerationThreads;
+    }
+
+    /**
+     * Sets the number of threads used for parsing and generating features.
+     * A value of 0 or less uses one thread per available processor.
+     *
+     * @param numberOfGenerationThreads The desired number of generation threads.
+     */
+    public void setNumberOfGenerationThreads(final int numberOfGenerationThreads) {
+        if (numberOfGenerationThreads < 1) {
+            this.numberOfGenerationThreads = Runtime.getRuntime().availableProcessors();
+            return;
+        }
+        this.numberOfGenerationThreads = numberOfGenerationThreads;
+    }
+
+    /**
+     * Returns whether only features of changed source features are regenerated.
+     *
+     * @return true if incremental generation is enabled.
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(final boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Returns the Cucumber JSON report file or directory of reports used to balance the runners.
+     *
+     * @return The duration history path or null if runners are not balanced by duration.
+     */
+    public String getDurationHistory() {
+        return durationHistory;
+    }
+
+    public void setDurationHistory(final String durationHistory) {
+        this.durationHistory = durationHistory;
+    }
+
+    /**
+     * Returns whether runners are balanced by the estimated weight of their scenarios.
+     *
+     * @return true if runners are balanced by scenario weight.
+     */
+    public boolean isBalanceByScenarioWeight() {
+        return balanceByScenarioWeight;
+    }
+
+    public void setBalanceByScenarioWeight(final boolean balanceByScenarioWeight) {
+        this.balanceByScenarioWeight = balanceByScenarioWeight;
+    }
+
+    public Map<String, Long> getTagWeights() {
+        return tagWeights;
+    }
+
+    /**
+     * Sets the weight multipliers of tags from a comma separated list like "@slow=10, @db=3".
+     *
+     * @param tagWeights The tag weights.
+     * @throws CucablePluginException Thrown if an entry is not a tag with a positive integer weight.
+     */
+    public void setTagWeights(final String tagWeights) throws CucablePluginException {
+        Map<String, Long> tagWeightMap = new HashMap<>();
+        if (tagWeights != null && !tagWeights.trim().isEmpty()) {
+            for (String tagWeight : tagWeights.trim().split("\\s*,\\s*")) {
+                String[] tagAndWeight = tagWeight.split("\\s*=\\s*");
+                long weight = 0;
+                if (tagAndWeight.length == 2 && tagAndWeight[0].startsWith("@")) {
+                    try {
+                        weight = Long.parseLong(tagAndWeight[1]);
+                    } catch (NumberFormatException ignored) {
+                        // Reported below.
+                    }
+                }
+                if (weight < 1) {
+                    throw new CucablePluginException(
+                            "Invalid <tagWeights> entry '" + tagWeight + "'. Please use '@tag=weight' with a positive weight."
+                    );
+                }
+                tagWeightMap.put(tagAndWeight[0], weight);
+            }
+        }
+        this.tagWeights = tagWeightMap;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public void setShardIndex(final int shardIndex) throws CucablePluginException {
+        if (shardIndex < 0) {
+            throw new CucablePluginException(
+                    "Invalid <shardIndex> '" + shardIndex + "'. Please use a value of 0 or greater."
+            );
+        }
+        this.shardIndex = shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(final int shardCount) throws CucablePluginException {
+        if (shardCount < 1) {
+            throw new CucablePluginException(
+                    "Invalid <shardCount> '" + shardCount + "'. Please use a value of 1 or greater."
+            );
+        }
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Returns whether only a part of the scenarios is generated because the suite is split over multiple shards.
+     *
+     * @return true if more than one shard is configured.
+     */
+    public boolean isSharding() {
+        return shardCount > 1;
+    }
+
+    public ShardAssignment getShardAssignment() {
+        return shardAssignment;
+    }
+
+    public void setShardAssignment(final String shardAssignment) throws CucablePluginException {
+        if (shardAssignment == null || shardAssignment.isEmpty()) {
+            this.shardAssignment = ShardAssignment.HASH;
+            return;
+        }
+        try {
+            this.shardAssignment = ShardAssignment.valueOf(shardAssignment.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new CucablePluginException(
+                    "Unknown <shardAssignment> '" + shardAssignment + "'. Please use 'hash' or 'balanced'."
+            );
+        }
+    }
+
+    /**
+     * Returns a description of all properties that influence the content and names of generated files.
+     * Incremental generation only reuses previously generated files if this description did not change.
+     *
+     * @return The effective configuration as a string.
+     */
+    public String getEffectiveConfiguration() {
+        StringBuilder configuration = new StringBuilder()
+                .append("sourceRunnerTemplateFile=").append(sourceRunnerTemplateFile).append('\n')
+                .append("generatedRunnerDirectory=").append(generatedRunnerDirectory).append('\n')
+                .append("generatedFeatureDirectory=").append(generatedFeatureDirectory).append('\n')
+                .append("numberOfTestRuns=").append(numberOfTestRuns).append('\n')
+                .append("includeScenarioTags=").append(includeScenarioTags).append('\n')
+                .append("includeFeatureFiles=").append(includeFeatureFiles).append('\n')
+                .append("excludeFeatureFiles=").append(excludeFeatureFiles).append('\n')
+                .append("parallelizationMode=").append(parallelizationMode).append('\n')
+                .append("namingMode=").append(namingMode).append('\n')
+                .append("lineReferences=").append(lineReferences).append('\n')
+                .append("desiredNumberOfRunners=").append(getDesiredNumberOfRunners()).append('\n')
+                .append("desiredNumberOfFeaturesPerRunner=").append(desiredNumberOfFeaturesPerRunner).append('\n')
+                .append("scenarioNames=").append(scenarioNames).append('\n')
+                .append("tagWeights=").append(new TreeMap<>(tagWeights)).append('\n')
+                .append("balanceByScenarioWeight=").append(balanceByScenarioWeight).append('\n')
+                .append("durationHistory=").append(durationHistory).append('\n')
+                .append("shardIndex=").append(shardIndex).append('\n')
+                .append("shardCount=").append(shardCount).append('\n')
+                .append("shardAssignment=").append(shardAssignment).append('\n');
+        if (customPlaceholders != null) {
+            configuration.append("customPlaceholders=").append(new TreeMap<>(customPlaceholders)).append('\n');
+        }
+        return configuration.toString();
+    }
+
     /**
      * Checks the pom settings for the plugin.
      *
@@ -250,7 +602,7 @@ public class PropertyManager {
         if (sourceFeatures == null || sourceFeatures.isEmpty()) {
             missingProperties.add("<sourceFeatures>");
         }
-        if (desiredNumberOfRunners != 0) {
+        if (getDesiredNumberOfRunners() != 0) {
             if (sourceRunnerTemplateFile == null || sourceRunnerTemplateFile.isEmpty()) {
                 saveMissingProperty(sourceRunnerTemplateFile, "<sourceRunnerTemplateFile>", missingProperties);
             }
@@ -272,12 +624,25 @@ public class PropertyManager {
      */
     public void checkForDisallowedPropertyCombinations() throws CucablePluginException {
 
-        if (desiredNumberOfFeaturesPerRunner > 0 && desiredNumberOfRunners > 0) {
+        if (desiredNumberOfFeaturesPerRunner > 0 && getDesiredNumberOfRunners() > 0) {
             throw new CucablePluginException(
                     "You cannot use desiredNumberOfFeaturesPerRunner and desiredNumberOfRunners/scenarioNames at the same time!"
             );
         }
 
+        // Cucumber merges the line filters of a feature file, so repeated references would only run once.
+        if (lineReferences && numberOfTestRuns > 1) {
+            throw new CucablePluginException(
+                    "You cannot use lineReferences and numberOfTestRuns greater than 1 at the same time!"
+            );
+        }
+
+        if (shardIndex >= shardCount) {
+            throw new CucablePluginException(
+                    "shardIndex " + shardIndex + " must be lower than shardCount " + shardCount + "!"
+            );
+        }
+
         if (parallelizationMode == ParallelizationMode.SCENARIOS) {
             return;
         }
@@ -318,13 +683,13 @@ public class PropertyManager {
             logger.info("- sourceFeatures               : not specified", logLevels);
         }
 
-        if (desiredNumberOfRunners != 0) {
+        if (getDesiredNumberOfRunners() != 0) {
             logger.info(String.format("- sourceRunnerTemplateFile     : %s", sourceRunnerTemplateFile), logLevels);
         }
 
         logger.logInfoSeparator(DEFAULT);
         logger.info(String.format("- generatedFeatureDirectory    : %s", generatedFeatureDirectory), logLevels);
-        if (desiredNumberOfRunners != 0) {
+        if (getDesiredNumberOfRunners() != 0) {
             logger.info(String.format("- generatedRunnerDirectory     : %s", generatedRunnerDirectory), logLevels);
         }
         logger.logInfoSeparator(DEFAULT);
@@ -333,6 +698,14 @@ public class PropertyManager {
             logger.info(String.format("- includeScenarioTags          : %s",
                     String.join(", ", includeScenarioTags)), logLevels);
         }
+        if (!includeFeatureFiles.isEmpty()) {
+            logger.info(String.format("- includeFeatureFiles          : %s",
+                    String.join(", ", includeFeatureFiles)), logLevels);
+        }
+        if (!excludeFeatureFiles.isEmpty()) {
+            logger.info(String.format("- excludeFeatureFiles          : %s",
+                    String.join(", ", excludeFeatureFiles)), logLevels);
+        }
         if (customPlaceholders != null && !customPlaceholders.isEmpty()) {
             logger.info("- customPlaceholders           :", logLevels);
             for (Map.Entry<String, String> customPlaceholder : customPlaceholders.entrySet()) {
@@ -346,10 +719,53 @@ public class PropertyManager {
         logger.info(String.format("- parallelizationMode          : %s", parallelizationMode.name().toLowerCase()), logLevels);
         logger.info(String.format("- numberOfTestRuns             : %d", numberOfTestRuns), logLevels);
 
-        if (desiredNumberOfRunners > 0) {
+        if (namingMode != NamingMode.COUNTER) {
+            logger.info(String.format("- namingMode                   : %s", namingMode.name().toLowerCase()), logLevels);
+        }
+
+        if (lineReferences) {
+            logger.info("- lineReferences               : true", logLevels);
+        }
+
+        if (automaticNumberOfRunners) {
+            logger.info(String.format("- desiredNumberOfRunners       : %d (auto, %s on %d available %s)",
+                    getDesiredNumberOfRunners(),
+                    forkCount == null ? "one runner per processor" : "forkCount " + forkCount,
+                    Runtime.getRuntime().availableProcessors(),
+                    Language.singularPlural(Runtime.getRuntime().availableProcessors(), "processor", "processors")
+            ), logLevels);
+        } else if (desiredNumberOfRunners > 0) {
             logger.info(String.format("- desiredNumberOfRunners       : %d", desiredNumberOfRunners), logLevels);
         }
 
+        if (numberOfGenerationThreads > 1) {
+            logger.info(String.format("- numberOfGenerationThreads    : %d", numberOfGenerationThreads), logLevels);
+        }
+
+        if (incremental) {
+            logger.info("- incremental                  : true", logLevels);
+        }
+
+        if (durationHistory != null && !durationHistory.isEmpty()) {
+            logger.info(String.format("- durationHistory              : %s", durationHistory), logLevels);
+        }
+
+        if (balanceByScenarioWeight) {
+            logger.info("- balanceByScenarioWeight      : true", logLevels);
+        }
+
+        if (!tagWeights.isEmpty()) {
+            logger.info("- tagWeights                   :", logLevels);
+            for (Map.Entry<String, Long> tagWeight : new TreeMap<>(tagWeights).entrySet()) {
+                logger.info(String.format("  %s => %d", tagWeight.getKey(), tagWeight.getValue()), logLevels);
+            }
+        }
+
+        if (isSharding()) {
+            logger.info(String.format("- shard                        : %d of %d (%s)",
+                    shardIndex, shardCount, shardAssignment.name().toLowerCase()), logLevels);
+        }
+
         logger.logInfoSeparator(logLevels);
     }
 
@@ -373,4 +789,12 @@ public class PropertyManager {
     public enum ParallelizationMode {
         SCENARIOS, FEATURES
     }
+
+    public enum NamingMode {
+        COUNTER, HASH
+    }
+
+    public enum ShardAssignment {
+        HASH, BALANCED
+    }
 }
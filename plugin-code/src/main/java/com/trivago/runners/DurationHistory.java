@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.runners;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recorded scenario durations by source feature path and line number.
+ * If a scenario was recorded multiple times, its average duration is used.
+ */
+public class DurationHistory {
+
+    private final Map<String, long[]> durationTotals = new HashMap<>();
+    private final Map<String, List<String>> pathsByFileNameAndLine = new HashMap<>();
+
+    /**
+     * Records the duration of a scenario.
+     *
+     * @param featureFilePath The path or uri of the source feature.
+     * @param lineNumber      The line number of the scenario (1 for a complete feature).
+     * @param durationNanos   The duration in nanoseconds.
+     */
+    public void addDuration(final String featureFilePath, final int lineNumber, final long durationNanos) {
+        String path = normalizePath(featureFilePath);
+        String key = path + ":" + lineNumber;
+        long[] total = durationTotals.get(key);
+        if (total == null) {
+            total = new long[2];
+            durationTotals.put(key, total);
+            pathsByFileNameAndLine
+                    .computeIfAbsent(getFileName(path) + ":" + lineNumber, k -> new ArrayList<>())
+                    .add(path);
+        }
+        total[0] += durationNanos;
+        total[1]++;
+    }
+
+    /**
+     * Returns the recorded duration of a scenario.
+     * Reports of plain Cucumber runs may use classpath uris, so paths that only differ in their leading directories
+     * are also matched.
+     *
+     * @param featureFilePath The path to the source feature.
+     * @param lineNumber      The line number of the scenario (1 for a complete feature).
+     * @return The average duration in nanoseconds or null if the scenario was not recorded.
+     */
+    public Long getDuration(final String featureFilePath, final int lineNumber) {
+        String path = normalizePath(featureFilePath);
+        long[] total = durationTotals.get(path + ":" + lineNumber);
+        if (total == null) {
+            List<String> candidatePaths = pathsByFileNameAndLine.get(getFileName(path) + ":" + lineNumber);
+            if (candidatePaths == null) {
+                return null;
+            }
+            for (String candidatePath : candidatePaths) {
+                if (path.endsWith("/" + candidatePath) || candidatePath.endsWith("/" + path)) {
+                    total = durationTotals.get(candidatePath + ":" + lineNumber);
+                    break;
+                }
+            }
+            if (total == null) {
+                return null;
+            }
+        }
+        return total[0] / total[1];
+    }
+
+    /**
+     * Returns the number of recorded scenarios.
+     *
+     * @return The number of distinct scenario locations.
+     */
+    public int size() {
+        return durationTotals.size();
+    }
+
+    private static String normalizePath(final String featureFilePath) {
+        String path = featureFilePath.replace('\\', '/');
+        for (String prefix : new String[]{"classpath:", "file://", "file:"}) {
+            if (path.startsWith(prefix)) {
+                path = path.substring(prefix.length());
+                break;
+            }
+        }
+        while (path.startsWith("./")) {
+            path = path.substring(2);
+        }
+        return path;
+    }
+
+    private static String getFileName(final String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+}
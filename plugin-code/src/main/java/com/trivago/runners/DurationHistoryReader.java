@@ -0,0 +1,248 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.runners;
+
+import com.trivago.exceptions.CucablePluginException;
+import com.trivago.files.FileSystemManager;
+import com.trivago.logging.CucableLogger;
+import com.trivago.vo.GeneratedFeature;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads scenario durations from Cucumber JSON reports of previous test runs.
+ * Reports of generated features are mapped back to their source features using the
+ * generated-features.properties file of the generation that created them
+ * or the generated features of the current generation with the same name.
+ */
+@Singleton
+public class DurationHistoryReader {
+
+    private static final String FEATURE_FILE_EXTENSION = ".feature";
+
+    private final FileSystemManager fileSystemManager;
+    private final CucableLogger logger;
+
+    @Inject
+    public DurationHistoryReader(final FileSystemManager fileSystemManager, final CucableLogger logger) {
+        this.fileSystemManager = fileSystemManager;
+        this.logger = logger;
+    }
+
+    /**
+     * Reads the durations of all scenarios in the given reports.
+     *
+     * @param durationHistoryPath              A Cucumber JSON report or a directory containing JSON reports.
+     * @param generatedFeaturePropertiesPath   The generated-features.properties file of the previous generation.
+     * @return The recorded durations.
+     * @throws CucablePluginException if the report directory cannot be traversed.
+     */
+    public DurationHistory readDurationHistory(
+            final String durationHistoryPath,
+            final String generatedFeaturePropertiesPath) throws CucablePluginException {
+        return readDurationHistory(durationHistoryPath, generatedFeaturePropertiesPath, Collections.emptyMap());
+    }
+
+    /**
+     * Reads the durations of all scenarios in the given reports.
+     * Generated features that are not listed in the generated-features.properties file are mapped
+     * via the current generated feature with the same name.
+     *
+     * @param durationHistoryPath            A Cucumber JSON report or a directory containing JSON reports.
+     * @param generatedFeaturePropertiesPath The generated-features.properties file of the previous generation
+     *                                       or null to only map generated features of the current generation.
+     * @param currentGeneratedFeatures       The generated features of the current generation by name.
+     * @return The recorded durations.
+     * @throws CucablePluginException if the report directory cannot be traversed.
+     */
+    public DurationHistory readDurationHistory(
+            final String durationHistoryPath,
+            final String generatedFeaturePropertiesPath,
+            final Map<String, GeneratedFeature> currentGeneratedFeatures) throws CucablePluginException {
+
+        DurationHistory durationHistory = new DurationHistory();
+        List<String> reportPaths = getReportPaths(durationHistoryPath);
+        if (reportPaths.isEmpty()) {
+            logger.warn("No Cucumber JSON reports found in duration history '" + durationHistoryPath + "'.");
+            return durationHistory;
+        }
+
+        Map<String, String[]> previousSourceFeatures = new HashMap<>();
+        for (GeneratedFeature generatedFeature : currentGeneratedFeatures.values()) {
+            previousSourceFeatures.put(generatedFeature.getName(), new String[]{
+                    generatedFeature.getSourceFeatureFilePath(),
+                    String.valueOf(generatedFeature.getSourceLineNumber())
+            });
+        }
+        if (generatedFeaturePropertiesPath != null) {
+            previousSourceFeatures.putAll(readGeneratedFeatureProperties(generatedFeaturePropertiesPath));
+        }
+        for (String reportPath : reportPaths) {
+            try {
+                addReportDurations(
+                        JsonParser.parse(fileSystemManager.readContentFromFile(reportPath)),
+                        previousSourceFeatures,
+                        durationHistory
+                );
+            } catch (IllegalArgumentException | ClassCastException e) {
+                logger.warn("Skipping invalid Cucumber JSON report '" + reportPath + "': " + e.getMessage());
+            }
+        }
+        return durationHistory;
+    }
+
+    /**
+     * Determines the report files of the duration history.
+     *
+     * @param durationHistoryPath A report file or directory.
+     * @return The paths of all report files.
+     * @throws CucablePluginException if the directory cannot be traversed.
+     */
+    private List<String> getReportPaths(final String durationHistoryPath) throws CucablePluginException {
+        File durationHistoryFile = new File(durationHistoryPath);
+        if (durationHistoryFile.isFile()) {
+            return Collections.singletonList(durationHistoryPath);
+        }
+        List<String> reportPaths = new ArrayList<>();
+        if (durationHistoryFile.isDirectory()) {
+            for (Path path : fileSystemManager.getFilesWithExtension(durationHistoryPath, "json")) {
+                reportPaths.add(path.toString());
+            }
+        }
+        return reportPaths;
+    }
+
+    /**
+     * Reads the mapping of generated feature names to source feature paths and line numbers.
+     *
+     * @param generatedFeaturePropertiesPath The path to the properties file.
+     * @return A map from generated feature name to source path and line number.
+     * @throws CucablePluginException if the file exists but cannot be read.
+     */
+    private Map<String, String[]> readGeneratedFeatureProperties(final String generatedFeaturePropertiesPath)
+            throws CucablePluginException {
+        Map<String, String[]> sourceFeatures = new HashMap<>();
+        if (!fileSystemManager.fileExists(generatedFeaturePropertiesPath)) {
+            return sourceFeatures;
+        }
+        for (String line : fileSystemManager.readContentFromFile(generatedFeaturePropertiesPath).split("\n")) {
+            int nameSeparator = line.indexOf('=');
+            int lineNumberSeparator = line.lastIndexOf(':');
+            if (nameSeparator > 0 && lineNumberSeparator > nameSeparator) {
+                sourceFeatures.put(line.substring(0, nameSeparator), new String[]{
+                        line.substring(nameSeparator + 1, lineNumberSeparator),
+                        line.substring(lineNumberSeparator + 1).trim()
+                });
+            }
+        }
+        return sourceFeatures;
+    }
+
+    /**
+     * Adds the durations of all features in a parsed report.
+     * A generated feature is recorded as a whole under its source feature and line number.
+     * Other features are recorded per scenario (including the preceding background)
+     * and as a whole under line number 1.
+     *
+     * @param report                 The parsed report.
+     * @param previousSourceFeatures The mapping of generated features to source features.
+     * @param durationHistory        The history to add to.
+     */
+    private void addReportDurations(
+            final Object report,
+            final Map<String, String[]> previousSourceFeatures,
+            final DurationHistory durationHistory) {
+
+        for (Object featureObject : (List<?>) report) {
+            Map<?, ?> feature = (Map<?, ?>) featureObject;
+            String uri = String.valueOf(feature.get("uri"));
+            String[] sourceFeature = previousSourceFeatures.get(getGeneratedFeatureName(uri));
+
+            long featureDuration = 0;
+            long backgroundDuration = 0;
+            Object elements = feature.get("elements");
+            for (Object elementObject : elements == null ? Collections.emptyList() : (List<?>) elements) {
+                Map<?, ?> element = (Map<?, ?>) elementObject;
+                long elementDuration = getElementDuration(element);
+                featureDuration += elementDuration;
+                if ("background".equals(element.get("type"))) {
+                    backgroundDuration += elementDuration;
+                } else if (sourceFeature == null && element.get("line") instanceof Number) {
+                    durationHistory.addDuration(
+                            uri, ((Number) element.get("line")).intValue(), backgroundDuration + elementDuration);
+                    backgroundDuration = 0;
+                }
+            }
+
+            if (sourceFeature != null) {
+                try {
+                    durationHistory.addDuration(sourceFeature[0], Integer.parseInt(sourceFeature[1]), featureDuration);
+                } catch (NumberFormatException e) {
+                    logger.warn("Invalid line number for generated feature '" + uri + "'.");
+                }
+            } else {
+                durationHistory.addDuration(uri, 1, featureDuration);
+            }
+        }
+    }
+
+    /**
+     * Sums up the durations of all steps and hooks of a scenario or background.
+     *
+     * @param element The report element.
+     * @return The duration in nanoseconds.
+     */
+    private long getElementDuration(final Map<?, ?> element) {
+        long duration = 0;
+        for (String key : new String[]{"before", "steps", "after"}) {
+            Object results = element.get(key);
+            if (results == null) {
+                continue;
+            }
+            for (Object resultObject : (List<?>) results) {
+                Object result = ((Map<?, ?>) resultObject).get("result");
+                if (result instanceof Map && ((Map<?, ?>) result).get("duration") instanceof Number) {
+                    duration += ((Number) ((Map<?, ?>) result).get("duration")).longValue();
+                }
+            }
+        }
+        return duration;
+    }
+
+    /**
+     * Extracts the generated feature name from a feature uri.
+     *
+     * @param uri The feature uri of the report.
+     * @return The file name without extension.
+     */
+    private String getGeneratedFeatureName(final String uri) {
+        String fileName = uri.substring(
+                Math.max(Math.max(uri.lastIndexOf('/'), uri.lastIndexOf('\\')), uri.lastIndexOf(':')) + 1);
+        if (fileName.endsWith(FEATURE_FILE_EXTENSION)) {
+            fileName = fileName.substring(0, fileName.length() - FEATURE_FILE_EXTENSION.length());
+        }
+        return fileName;
+    }
+}
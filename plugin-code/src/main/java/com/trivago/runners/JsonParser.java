@@ -0,0 +1,216 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.runners;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal JSON parser for reading Cucumber JSON reports without an additional dependency.
+ * Objects become maps, arrays become lists and numbers become longs or doubles.
+ */
+final class JsonParser {
+
+    private final String json;
+    private int position;
+
+    private JsonParser(final String json) {
+        this.json = json;
+    }
+
+    /**
+     * Parses a JSON document.
+     *
+     * @param json The JSON string.
+     * @return The parsed value.
+     * @throws IllegalArgumentException if the string is not valid JSON.
+     */
+    static Object parse(final String json) {
+        JsonParser parser = new JsonParser(json);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.position < json.length()) {
+            throw parser.error("Unexpected trailing content");
+        }
+        return value;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (position >= json.length()) {
+            throw error("Unexpected end of JSON");
+        }
+        char character = json.charAt(position);
+        switch (character) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                return readLiteral("true", Boolean.TRUE);
+            case 'f':
+                return readLiteral("false", Boolean.FALSE);
+            case 'n':
+                return readLiteral("null", null);
+            default:
+                return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        position++;
+        skipWhitespace();
+        if (consume('}')) {
+            return object;
+        }
+        do {
+            skipWhitespace();
+            if (position >= json.length() || json.charAt(position) != '"') {
+                throw error("Expected object key");
+            }
+            String key = readString();
+            skipWhitespace();
+            if (!consume(':')) {
+                throw error("Expected ':'");
+            }
+            object.put(key, readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume('}')) {
+            throw error("Expected '}'");
+        }
+        return object;
+    }
+
+    private List<Object> readArray() {
+        List<Object> array = new ArrayList<>();
+        position++;
+        skipWhitespace();
+        if (consume(']')) {
+            return array;
+        }
+        do {
+            array.add(readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume(']')) {
+            throw error("Expected ']'");
+        }
+        return array;
+    }
+
+    private String readString() {
+        StringBuilder string = new StringBuilder();
+        position++;
+        while (position < json.length()) {
+            char character = json.charAt(position++);
+            if (character == '"') {
+                return string.toString();
+            }
+            if (character != '\\') {
+                string.append(character);
+                continue;
+            }
+            if (position >= json.length()) {
+                break;
+            }
+            char escaped = json.charAt(position++);
+            switch (escaped) {
+                case 'b':
+                    string.append('\b');
+                    break;
+                case 'f':
+                    string.append('\f');
+                    break;
+                case 'n':
+                    string.append('\n');
+                    break;
+                case 'r':
+                    string.append('\r');
+                    break;
+                case 't':
+                    string.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > json.length()) {
+                        throw error("Invalid unicode escape");
+                    }
+                    try {
+                        string.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    string.append(escaped);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Object readLiteral(final String literal, final Object value) {
+        if (!json.startsWith(literal, position)) {
+            throw error("Unexpected character");
+        }
+        position += literal.length();
+        return value;
+    }
+
+    private Number readNumber() {
+        int start = position;
+        boolean decimal = false;
+        while (position < json.length()) {
+            char character = json.charAt(position);
+            if (character == '.' || character == 'e' || character == 'E') {
+                decimal = true;
+            } else if (!(character == '-' || character == '+' || Character.isDigit(character))) {
+                break;
+            }
+            position++;
+        }
+        String number = json.substring(start, position);
+        try {
+            return decimal ? (Number) Double.parseDouble(number) : (Number) Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + number + "'");
+        }
+    }
+
+    private boolean consume(final char character) {
+        if (position < json.length() && json.charAt(position) == character) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(final String message) {
+        return new IllegalArgumentException(message + " at position " + position);
+    }
+}
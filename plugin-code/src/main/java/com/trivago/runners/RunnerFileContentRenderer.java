@@ -20,13 +20,20 @@ import com.trivago.exceptions.CucablePluginException;
 import com.trivago.files.FileSystemManager;
 import com.trivago.logging.CucableLogger;
 import com.trivago.properties.PropertyManager;
+import com.trivago.runners.RunnerTemplate.FeatureBlockSegment;
+import com.trivago.runners.RunnerTemplate.FeatureNameSegment;
+import com.trivago.runners.RunnerTemplate.LiteralSegment;
+import com.trivago.runners.RunnerTemplate.RunnerSegment;
+import com.trivago.runners.RunnerTemplate.Segment;
 import com.trivago.vo.FeatureRunner;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -37,9 +44,19 @@ public class RunnerFileContentRenderer {
     private static final String CUCABLE_RUNNER_PLACEHOLDER = "[CUCABLE:RUNNER]";
     private static final String CUCABLE_CUSTOM_PLACEHOLDER = "[CUCABLE:CUSTOM:%s]";
 
+    // Private use characters that mark runner name positions while a template is compiled.
+    private static final String JAVA_CLASS_NAME_MARKER = "\uE000";
+    private static final String RUNNER_PLACEHOLDER_MARKER = "\uE001";
+    private static final Pattern FEATURE_BLOCK_PATTERN =
+            Pattern.compile("(\".*\\" + CUCABLE_FEATURE_PLACEHOLDER + ").*\"", Pattern.MULTILINE);
+    private static final Pattern FEATURE_PLACEHOLDER_PATTERN =
+            Pattern.compile("\\" + CUCABLE_FEATURE_PLACEHOLDER, Pattern.MULTILINE);
+
     private final FileSystemManager fileSystemManager;
     private final PropertyManager propertyManager;
     private final CucableLogger logger;
+    private final Map<String, RunnerTemplate> compiledRunnerTemplates = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> renderBuffers = ThreadLocal.withInitial(StringBuilder::new);
 
     @Inject
     public RunnerFileContentRenderer(
@@ -52,6 +69,14 @@ public class RunnerFileContentRenderer {
         this.logger = logger;
     }
 
+    /**
+     * Removes all compiled runner templates, so that templates are validated and their warnings are logged again
+     * in every generation.
+     */
+    public void clearCompiledRunnerTemplates() {
+        compiledRunnerTemplates.clear();
+    }
+
     /**
      * Returns the full content for the concrete runner file.
      *
@@ -60,23 +85,117 @@ public class RunnerFileContentRenderer {
      * @throws CucablePluginException see {@link CucablePluginException}.
      */
     public String getRenderedRunnerFileContent(FeatureRunner featureRunner) throws CucablePluginException {
+        RunnerTemplate runnerTemplate = getRunnerTemplate(featureRunner.getRunnerTemplatePath());
+        if (featureRunner.getFeatureReferences() != null) {
+            return runnerTemplate.renderReferences(
+                    featureRunner.getRunnerClassName(), featureRunner.getFeatureReferences(), renderBuffers.get());
+        }
+        return runnerTemplate.render(
+                featureRunner.getRunnerClassName(), featureRunner.getFeatureFileNames(), renderBuffers.get());
+    }
 
-        final String runnerTemplatePath = featureRunner.getRunnerTemplatePath();
-        final String runnerClassName = featureRunner.getRunnerClassName();
+    /**
+     * Returns the compiled runner template for a template path.
+     * Within one generation, templates are only compiled again if the template file or the custom placeholders change.
+     *
+     * @param runnerTemplatePath The path to the runner template.
+     * @return The compiled {@link RunnerTemplate}.
+     * @throws CucablePluginException see {@link CucablePluginException}.
+     */
+    private RunnerTemplate getRunnerTemplate(final String runnerTemplatePath) throws CucablePluginException {
+        String cacheKey = runnerTemplatePath + "\n" +
+                          fileSystemManager.getLastModifiedTime(runnerTemplatePath) + "\n" +
+                          propertyManager.getCustomPlaceholders();
+        RunnerTemplate runnerTemplate = compiledRunnerTemplates.get(cacheKey);
+        if (runnerTemplate == null) {
+            runnerTemplate = compileRunnerTemplate(runnerTemplatePath);
+            compiledRunnerTemplates.put(cacheKey, runnerTemplate);
+        }
+        return runnerTemplate;
+    }
 
+    /**
+     * Reads, validates and splits a runner template into segments.
+     * The java class name of java templates and the runner placeholder become runner segments,
+     * the quoted feature placeholder becomes a feature block segment and custom placeholders are resolved directly.
+     *
+     * @param runnerTemplatePath The path to the runner template.
+     * @return The compiled {@link RunnerTemplate}.
+     * @throws CucablePluginException see {@link CucablePluginException}.
+     */
+    private RunnerTemplate compileRunnerTemplate(final String runnerTemplatePath) throws CucablePluginException {
         String fileString = fileSystemManager.readContentFromFile(runnerTemplatePath);
         checkForPlaceholderErrors(fileString);
 
         if (runnerTemplatePath.trim().toLowerCase().endsWith(".java")) {
-            fileString = replaceJavaTemplatePlaceholders(runnerTemplatePath, runnerClassName, fileString);
+            fileString = replaceJavaTemplatePlaceholders(runnerTemplatePath, fileString);
         }
+        fileString = fileString.replace(CUCABLE_RUNNER_PLACEHOLDER, RUNNER_PLACEHOLDER_MARKER);
 
-        fileString = replaceFeatureFilePlaceholder(fileString, featureRunner.getFeatureFileNames());
-        fileString = fileString.replace(CUCABLE_RUNNER_PLACEHOLDER, runnerClassName);
-        fileString = replaceCustomParameters(fileString);
-        fileString = addCucableInfo(fileString, runnerTemplatePath);
+        List<Segment> segments = new ArrayList<>();
+        Matcher matcher = FEATURE_BLOCK_PATTERN.matcher(fileString);
+        if (matcher.find()) {
+            String fullCucableFeaturePlaceholder = matcher.group(0);
+            FeatureBlockSegment featureBlockSegment =
+                    new FeatureBlockSegment(getFeatureBlockParts(fullCucableFeaturePlaceholder));
+            int textStart = 0;
+            int blockStart;
+            while ((blockStart = fileString.indexOf(fullCucableFeaturePlaceholder, textStart)) >= 0) {
+                addTextSegments(segments, fileString.substring(textStart, blockStart));
+                segments.add(featureBlockSegment);
+                textStart = blockStart + fullCucableFeaturePlaceholder.length();
+            }
+            addTextSegments(segments, fileString.substring(textStart));
+        } else {
+            addTextSegments(segments, fileString);
+        }
 
-        return fileString;
+        return new RunnerTemplate(replaceCustomParameters(segments), getCucableInfo(runnerTemplatePath));
+    }
+
+    /**
+     * Splits a feature entry into literal text, runner and feature name segments.
+     *
+     * @param fullCucableFeaturePlaceholder The quoted feature entry of the template.
+     * @return The parts of the feature entry.
+     */
+    private List<Segment> getFeatureBlockParts(final String fullCucableFeaturePlaceholder) {
+        List<Segment> parts = new ArrayList<>();
+        int textStart = 0;
+        int placeholderStart;
+        while ((placeholderStart =
+                fullCucableFeaturePlaceholder.indexOf(CUCABLE_FEATURE_PLACEHOLDER, textStart)) >= 0) {
+            addTextSegments(parts, fullCucableFeaturePlaceholder.substring(textStart, placeholderStart));
+            parts.add(new FeatureNameSegment());
+            textStart = placeholderStart + CUCABLE_FEATURE_PLACEHOLDER.length();
+        }
+        addTextSegments(parts, fullCucableFeaturePlaceholder.substring(textStart));
+        return parts;
+    }
+
+    /**
+     * Adds literal and runner segments for a piece of template text that contains runner markers.
+     *
+     * @param segments The segment list to add to.
+     * @param text     The template text.
+     */
+    private void addTextSegments(final List<Segment> segments, final String text) {
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+            if (character == JAVA_CLASS_NAME_MARKER.charAt(0) || character == RUNNER_PLACEHOLDER_MARKER.charAt(0)) {
+                if (literal.length() > 0) {
+                    segments.add(new LiteralSegment(literal.toString()));
+                    literal.setLength(0);
+                }
+                segments.add(new RunnerSegment());
+            } else {
+                literal.append(character);
+            }
+        }
+        if (literal.length() > 0) {
+            segments.add(new LiteralSegment(literal.toString()));
+        }
     }
 
     /**
@@ -94,111 +213,107 @@ public class RunnerFileContentRenderer {
         }
 
         // Check if at least one feature placeholder is present
-        final String regex = "\\" + CUCABLE_FEATURE_PLACEHOLDER;
-        final Pattern pattern = Pattern.compile(regex, Pattern.MULTILINE);
-        final Matcher matcher = pattern.matcher(runnerFileContentString);
-        if (!matcher.find()) {
+        if (!FEATURE_PLACEHOLDER_PATTERN.matcher(runnerFileContentString).find()) {
             throw new CucablePluginException("At least one " + CUCABLE_FEATURE_PLACEHOLDER + " placeholder is needed in your template.");
         }
     }
 
     /**
-     * Replace the custom placeholders in the template.
+     * Replace the custom placeholders in the literal segments of the template.
+     * A warning is logged once for every custom placeholder that does not occur in the template.
      *
-     * @param runnerFileContentString The source string.
-     * @return The new string with the replaced custom placeholders.
+     * @param segments The template segments.
+     * @return The template segments with replaced custom placeholders.
      */
-    private String replaceCustomParameters(final String runnerFileContentString) {
-        String resultString = runnerFileContentString;
+    private List<Segment> replaceCustomParameters(final List<Segment> segments) {
+        List<Segment> resultSegments = segments;
 
         Map<String, String> customPlaceholders = propertyManager.getCustomPlaceholders();
         if (customPlaceholders != null) {
             for (Map.Entry<String, String> customPlaceholder : customPlaceholders.entrySet()) {
                 String placeholder = String.format(CUCABLE_CUSTOM_PLACEHOLDER, customPlaceholder.getKey().trim());
-                String newResultString = resultString.replace(placeholder, customPlaceholder.getValue());
-                if (newResultString.equals(resultString)) {
+                boolean[] placeholderFound = new boolean[1];
+                resultSegments = replaceInLiteralSegments(
+                        resultSegments, placeholder, customPlaceholder.getValue(), placeholderFound);
+                if (!placeholderFound[0]) {
                     logger.warn("Custom placeholder '" + placeholder + "' could not be found in your Cucable template.");
                 }
-                resultString = newResultString;
             }
         }
 
-        return resultString;
+        return resultSegments;
     }
 
     /**
-     * Replace the feature placeholder in the template by the generated feature file names.
+     * Replaces a string in all literal segments including the parts of feature blocks.
      *
-     * @param runnerFileContentString The source string.
-     * @param featureFileNames        The list of feature file names.
-     * @return The new string with the replaced feature placeholder.
+     * @param segments         The template segments.
+     * @param target           The string to replace.
+     * @param replacement      The replacement string.
+     * @param placeholderFound Set to true if at least one literal segment contained the target.
+     * @return The new template segments.
      */
-    private String replaceFeatureFilePlaceholder(
-            final String runnerFileContentString, final List<String> featureFileNames) {
-
-        final String regex = "(\".*\\" + CUCABLE_FEATURE_PLACEHOLDER + ").*\"";
-        final Pattern pattern = Pattern.compile(regex, Pattern.MULTILINE);
-        final Matcher matcher = pattern.matcher(runnerFileContentString);
-
-        if (!matcher.find()) return runnerFileContentString;
-
-        String fullCucableFeaturePlaceholder = matcher.group(0);
-        StringBuilder completeFeatureStringBuilder = new StringBuilder();
-        for (int i = 0; i < featureFileNames.size(); i++) {
-            String featureFileName = featureFileNames.get(i);
-            completeFeatureStringBuilder.append(
-                    fullCucableFeaturePlaceholder.replace(CUCABLE_FEATURE_PLACEHOLDER, featureFileName)
-            );
-            if (i < featureFileNames.size() - 1) {
-                completeFeatureStringBuilder.append(",\n");
+    private List<Segment> replaceInLiteralSegments(
+            final List<Segment> segments,
+            final String target,
+            final String replacement,
+            final boolean[] placeholderFound) {
+
+        List<Segment> resultSegments = new ArrayList<>(segments.size());
+        for (Segment segment : segments) {
+            if (segment instanceof LiteralSegment) {
+                String text = ((LiteralSegment) segment).getText();
+                if (text.contains(target)) {
+                    placeholderFound[0] = true;
+                    resultSegments.add(new LiteralSegment(text.replace(target, replacement)));
+                } else {
+                    resultSegments.add(segment);
+                }
+            } else if (segment instanceof FeatureBlockSegment) {
+                resultSegments.add(new FeatureBlockSegment(replaceInLiteralSegments(
+                        ((FeatureBlockSegment) segment).getParts(), target, replacement, placeholderFound)));
+            } else {
+                resultSegments.add(segment);
             }
         }
-
-        return runnerFileContentString.replace(fullCucableFeaturePlaceholder, completeFeatureStringBuilder);
+        return resultSegments;
     }
 
     /**
-     * Adds the source scenario comments to the runner file content string.
+     * Returns the source information that is added to the end of every runner file.
      *
-     * @param runnerFileContentString The source string.
-     * @param runnerTemplatePath      The path to the runner template file.
-     * @return The new string with the scenario information attached.
+     * @param runnerTemplatePath The path to the runner template file.
+     * @return The Cucable information comment.
      */
-    private String addCucableInfo(
-            final String runnerFileContentString,
-            final String runnerTemplatePath
-    ) {
+    private String getCucableInfo(final String runnerTemplatePath) {
         String version = getClass().getPackage().getImplementationVersion();
         if (version == null) {
             version = "unknown";
         }
-        return runnerFileContentString
-                .concat(System.lineSeparator())
+        return System.lineSeparator()
                 .concat(System.lineSeparator())
                 .concat("// Generated by Cucable ")
                 .concat(version)
                 .concat(" from ")
                 .concat(runnerTemplatePath.replace("\\", "/"))
                 .concat(System.lineSeparator());
-
     }
 
     /**
      * Perform additional substitutions when the provided template is a java class file.
+     * The java class name is marked so that it is replaced by the runner class name when rendering.
      *
      * @param runnerTemplatePath The path to the runner java template.
-     * @param runnerClassName    The name of the runner file class.
-     * @param fileString         The file content string of the rendered runner file.
-     * @return The file content for the runner file with replaced package and java class name.
+     * @param fileString         The file content string of the runner template.
+     * @return The file content with marked java class name and without package declaration.
      */
     private String replaceJavaTemplatePlaceholders(
             final String runnerTemplatePath,
-            final String runnerClassName,
             final String fileString
     ) {
         final String javaFileName = Paths.get(runnerTemplatePath).getFileName().toString();
         final String javaFileNameWithoutExtension = javaFileName.substring(0, javaFileName.lastIndexOf('.'));
-        String replacedFileString = fileString.replace(javaFileNameWithoutExtension, runnerClassName);
+        String replacedFileString = fileString.replace(javaFileNameWithoutExtension, JAVA_CLASS_NAME_MARKER);
         replacedFileString = replacedFileString.replaceAll("package .*;", "");
         return replacedFileString;
     }
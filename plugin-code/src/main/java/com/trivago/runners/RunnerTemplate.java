@@ -0,0 +1,260 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.runners;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A runner template that was split into literal text and placeholder segments.
+ * Rendering a runner only appends the segments, the template is never searched again.
+ */
+final class RunnerTemplate {
+
+    private final List<Segment> segments;
+    private final String cucableInfo;
+    private final int estimatedLength;
+
+    /**
+     * Constructor.
+     *
+     * @param segments    The template segments in output order.
+     * @param cucableInfo The generation comment that is appended to every runner.
+     */
+    RunnerTemplate(final List<Segment> segments, final String cucableInfo) {
+        this.segments = Collections.unmodifiableList(new ArrayList<>(segments));
+        this.cucableInfo = cucableInfo;
+        int length = cucableInfo.length();
+        for (Segment segment : segments) {
+            length += segment.estimatedLength();
+        }
+        this.estimatedLength = length;
+    }
+
+    /**
+     * Renders a runner into the given buffer.
+     *
+     * @param runnerClassName  The name of the runner class.
+     * @param featureFileNames The names of the generated features that the runner should trigger.
+     * @param buffer           The buffer to render into (it is cleared first).
+     * @return The rendered runner content.
+     */
+    String render(final String runnerClassName, final List<String> featureFileNames, final StringBuilder buffer) {
+        return render(runnerClassName, featureFileNames, false, buffer);
+    }
+
+    /**
+     * Renders a runner whose feature entries reference scenarios in the source features.
+     * Each feature entry is replaced by the quoted reference, the surrounding template path is omitted.
+     *
+     * @param runnerClassName   The name of the runner class.
+     * @param featureReferences The source feature paths with optional line numbers.
+     * @param buffer            The buffer to render into (it is cleared first).
+     * @return The rendered runner content.
+     */
+    String renderReferences(
+            final String runnerClassName, final List<String> featureReferences, final StringBuilder buffer) {
+        return render(runnerClassName, featureReferences, true, buffer);
+    }
+
+    private String render(
+            final String runnerClassName,
+            final List<String> featureEntries,
+            final boolean featureReferences,
+            final StringBuilder buffer) {
+
+        buffer.setLength(0);
+        buffer.ensureCapacity(estimatedLength + featureEntries.size() * 64);
+        for (Segment segment : segments) {
+            if (featureReferences && segment instanceof FeatureBlockSegment) {
+                ((FeatureBlockSegment) segment).appendReferencesTo(buffer, runnerClassName, featureEntries);
+            } else {
+                segment.appendTo(buffer, runnerClassName, featureEntries);
+            }
+        }
+        buffer.append(cucableInfo);
+        return buffer.toString();
+    }
+
+    /**
+     * A part of a runner template.
+     */
+    interface Segment {
+        void appendTo(StringBuilder buffer, String runnerClassName, List<String> featureFileNames);
+
+        int estimatedLength();
+    }
+
+    /**
+     * Template text that is copied unchanged.
+     */
+    static final class LiteralSegment implements Segment {
+        private final String text;
+
+        LiteralSegment(final String text) {
+            this.text = text;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        @Override
+        public void appendTo(
+                final StringBuilder buffer, final String runnerClassName, final List<String> featureFileNames) {
+            buffer.append(text);
+        }
+
+        @Override
+        public int estimatedLength() {
+            return text.length();
+        }
+    }
+
+    /**
+     * The name of the runner class.
+     */
+    static final class RunnerSegment implements Segment {
+        @Override
+        public void appendTo(
+                final StringBuilder buffer, final String runnerClassName, final List<String> featureFileNames) {
+            buffer.append(runnerClassName);
+        }
+
+        @Override
+        public int estimatedLength() {
+            return 32;
+        }
+    }
+
+    /**
+     * A feature entry that is repeated for every feature file name, separated by a comma and a line break.
+     * The parts are either literal text or the runner or feature name.
+     */
+    static final class FeatureBlockSegment implements Segment {
+        private final List<Segment> parts;
+        private final List<Segment> referencePrefix = new ArrayList<>();
+        private final List<Segment> referenceSuffix = new ArrayList<>();
+
+        FeatureBlockSegment(final List<Segment> parts) {
+            this.parts = Collections.unmodifiableList(new ArrayList<>(parts));
+            splitAroundFeatureEntry(parts);
+        }
+
+        List<Segment> getParts() {
+            return parts;
+        }
+
+        @Override
+        public void appendTo(
+                final StringBuilder buffer, final String runnerClassName, final List<String> featureFileNames) {
+            for (int i = 0; i < featureFileNames.size(); i++) {
+                for (Segment part : parts) {
+                    if (part instanceof FeatureNameSegment) {
+                        buffer.append(featureFileNames.get(i));
+                    } else {
+                        part.appendTo(buffer, runnerClassName, featureFileNames);
+                    }
+                }
+                if (i < featureFileNames.size() - 1) {
+                    buffer.append(",\n");
+                }
+            }
+        }
+
+        /**
+         * Appends a quoted entry for every feature reference. The template text around the quoted feature entry
+         * is appended once and the text inside the quotes (e.g. the generated feature directory) is omitted.
+         *
+         * @param buffer            The buffer to append to.
+         * @param runnerClassName   The name of the runner class.
+         * @param featureReferences The source feature paths with optional line numbers.
+         */
+        void appendReferencesTo(
+                final StringBuilder buffer, final String runnerClassName, final List<String> featureReferences) {
+            for (Segment part : referencePrefix) {
+                part.appendTo(buffer, runnerClassName, featureReferences);
+            }
+            for (int i = 0; i < featureReferences.size(); i++) {
+                buffer.append('"').append(featureReferences.get(i)).append('"');
+                if (i < featureReferences.size() - 1) {
+                    buffer.append(",\n");
+                }
+            }
+            for (Segment part : referenceSuffix) {
+                part.appendTo(buffer, runnerClassName, featureReferences);
+            }
+        }
+
+        /**
+         * Determines the parts before the opening and after the closing quote of the first feature entry.
+         *
+         * @param parts The parts of the feature block.
+         */
+        private void splitAroundFeatureEntry(final List<Segment> parts) {
+            int featureNameIndex = 0;
+            while (featureNameIndex < parts.size() && !(parts.get(featureNameIndex) instanceof FeatureNameSegment)) {
+                featureNameIndex++;
+            }
+            for (int i = 0; i < featureNameIndex; i++) {
+                Segment part = parts.get(i);
+                if (i == featureNameIndex - 1 && part instanceof LiteralSegment) {
+                    String text = ((LiteralSegment) part).getText();
+                    part = new LiteralSegment(text.substring(0, Math.max(0, text.lastIndexOf('"'))));
+                }
+                referencePrefix.add(part);
+            }
+            for (int i = featureNameIndex + 1; i < parts.size(); i++) {
+                Segment part = parts.get(i);
+                if (i == featureNameIndex + 1 && part instanceof LiteralSegment) {
+                    String text = ((LiteralSegment) part).getText();
+                    int quoteIndex = text.indexOf('"');
+                    part = new LiteralSegment(quoteIndex < 0 ? "" : text.substring(quoteIndex + 1));
+                }
+                if (!(part instanceof FeatureNameSegment)) {
+                    referenceSuffix.add(part);
+                }
+            }
+        }
+
+        @Override
+        public int estimatedLength() {
+            int length = 0;
+            for (Segment part : parts) {
+                length += part.estimatedLength();
+            }
+            return length;
+        }
+    }
+
+    /**
+     * The feature name inside a {@link FeatureBlockSegment}. It is resolved by its enclosing block.
+     */
+    static final class FeatureNameSegment implements Segment {
+        @Override
+        public void appendTo(
+                final StringBuilder buffer, final String runnerClassName, final List<String> featureFileNames) {
+            throw new IllegalStateException("Feature names can only be rendered inside a feature block.");
+        }
+
+        @Override
+        public int estimatedLength() {
+            return 0;
+        }
+    }
+}
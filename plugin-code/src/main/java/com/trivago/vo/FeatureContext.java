@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.trivago.vo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Holds the information of a source feature that all of its single scenarios share.
+ */
+public final class FeatureContext {
+
+    private final String featureName;
+    private final String featureFilePath;
+    private final String featureLanguage;
+    private final String featureDescription;
+    private final List<String> featureTags;
+    private final List<Step> backgroundSteps;
+
+    public FeatureContext(
+            final String featureName,
+            final String featureFilePath,
+            final String featureLanguage,
+            final String featureDescription,
+            final List<String> featureTags,
+            final List<Step> backgroundSteps
+    ) {
+        this.featureName = featureName;
+        this.featureFilePath = featureFilePath;
+        this.featureLanguage = featureLanguage;
+        this.featureDescription = featureDescription;
+        this.featureTags = featureTags == null ? null : Collections.unmodifiableList(featureTags);
+        this.backgroundSteps = backgroundSteps == null ? null : Collections.unmodifiableList(backgroundSteps);
+    }
+
+    public String getFeatureName() {
+        return featureName;
+    }
+
+    public String getFeatureFilePath() {
+        return featureFilePath;
+    }
+
+    public String getFeatureLanguage() {
+        return featureLanguage;
+    }
+
+    public String getFeatureDescription() {
+        return featureDescription;
+    }
+
+    public List<String> getFeatureTags() {
+        return featureTags;
+    }
+
+    public List<Step> getBackgroundSteps() {
+        return backgroundSteps;
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureContext{" +
+                "featureName='" + featureName + '\'' +
+                ", featureFilePath='" + featureFilePath + '\'' +
+                ", featureLanguage='" + featureLanguage + '\'' +
+                ", featureDescription='" + featureDescription + '\'' +
+                ", featureTags=" + featureTags +
+                ", backgroundSteps=" + backgroundSteps +
+                '}';
+    }
+}
@@ -26,6 +26,7 @@ public final class FeatureRunner {
     private final String runnerTemplatePath;
     private final String runnerClassName;
     private final List<String> featureFileNames;
+    private final List<String> featureReferences;
 
     /**
      * Constructor for a single or multiple feature runner.
@@ -38,9 +39,28 @@ public final class FeatureRunner {
             final String runnerTemplatePath,
             final String runnerClassName, final List<String> featureFileNames) {
 
+        this(runnerTemplatePath, runnerClassName, featureFileNames, null);
+    }
+
+    /**
+     * Constructor for a runner that references its scenarios in the source features.
+     *
+     * @param runnerTemplatePath The path to the runner template.
+     * @param runnerClassName    The name of the generated runner class.
+     * @param featureFileNames   The name string of the feature file(s) for this runner.
+     * @param featureReferences  The source feature paths with line numbers (e.g. "path/to.feature:12")
+     *                           or null if the runner uses generated feature files.
+     */
+    public FeatureRunner(
+            final String runnerTemplatePath,
+            final String runnerClassName,
+            final List<String> featureFileNames,
+            final List<String> featureReferences) {
+
         this.runnerTemplatePath = runnerTemplatePath;
         this.runnerClassName = runnerClassName;
         this.featureFileNames = featureFileNames;
+        this.featureReferences = featureReferences;
     }
 
     public String getRunnerTemplatePath() {
@@ -54,4 +74,8 @@ public final class FeatureRunner {
     public String getRunnerClassName() {
         return runnerClassName;
     }
+
+    public List<String> getFeatureReferences() {
+        return featureReferences;
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 trivago N.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trivago.vo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a single feature file that is generated from a source feature.
+ * Generated scenario features also carry the scenario information that runner grouping needs,
+ * so that generated files never have to be read or parsed again.
+ */
+public final class GeneratedFeature {
+
+    private final String name;
+    private final String sourceFeatureFilePath;
+    private final int sourceLineNumber;
+    private final String language;
+    private final String scenarioName;
+    private final List<String> tags;
+    private final long weight;
+    private SingleScenario singleScenario;
+
+    /**
+     * Constructor for a generated feature.
+     *
+     * @param name                  The name of the generated feature file without extension.
+     * @param sourceFeatureFilePath The path to the source feature file.
+     * @param sourceLineNumber      The line number of the source scenario (1 for complete features).
+     * @param singleScenario        The scenario to render or null if the complete source feature is copied.
+     */
+    public GeneratedFeature(
+            final String name,
+            final String sourceFeatureFilePath,
+            final int sourceLineNumber,
+            final SingleScenario singleScenario) {
+
+        this(name, sourceFeatureFilePath, sourceLineNumber, null, null, Collections.emptyList(), 0, singleScenario);
+    }
+
+    /**
+     * Constructor for a generated feature with scenario information.
+     *
+     * @param name                  The name of the generated feature file without extension.
+     * @param sourceFeatureFilePath The path to the source feature file.
+     * @param sourceLineNumber      The line number of the source scenario (1 for complete features).
+     * @param language              The language of the source feature or null if unknown.
+     * @param scenarioName          The scenario keyword and name or null for complete features.
+     * @param tags                  The combined feature, scenario and example tags of the scenario.
+     * @param weight                The estimated weight of the scenario or 0 if unknown.
+     * @param singleScenario        The scenario to render or null if it does not have to be rendered.
+     */
+    public GeneratedFeature(
+            final String name,
+            final String sourceFeatureFilePath,
+            final int sourceLineNumber,
+            final String language,
+            final String scenarioName,
+            final List<String> tags,
+            final long weight,
+            final SingleScenario singleScenario) {
+
+        this.name = name;
+        this.sourceFeatureFilePath = sourceFeatureFilePath;
+        this.sourceLineNumber = sourceLineNumber;
+        this.language = language;
+        this.scenarioName = scenarioName;
+        this.tags = Collections.unmodifiableList(tags);
+        this.weight = weight;
+        this.singleScenario = singleScenario;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSourceFeatureFilePath() {
+        return sourceFeatureFilePath;
+    }
+
+    public int getSourceLineNumber() {
+        return sourceLineNumber;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public String getScenarioName() {
+        return scenarioName;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public SingleScenario getSingleScenario() {
+        return singleScenario;
+    }
+
+    /**
+     * Releases the scenario once it is no longer needed, so that only the name and scenario information of this
+     * generated feature stay in memory until the runners are generated.
+     */
+    public void releaseSingleScenario() {
+        singleScenario = null;
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedFeature{" +
+                "name='" + name + '\'' +
+                ", sourceFeatureFilePath='" + sourceFeatureFilePath + '\'' +
+                ", sourceLineNumber=" + sourceLineNumber +
+                ", scenarioName='" + scenarioName + '\'' +
+                '}';
+    }
+}
@@ -24,21 +24,17 @@ import java.util.List;
  */
 public final class SingleScenario {
 
-    private final String featureName;
-    private final String featureFilePath;
-    private final String featureLanguage;
-    private final String featureDescription;
+    private final FeatureContext featureContext;
     private final String scenarioName;
     private final int lineNumber;
     private final String scenarioDescription;
-    private final List<String> featureTags;
-    private final List<Step> backgroundSteps;
     private List<String> scenarioTags = new ArrayList<>();
     private List<String> exampleTags = new ArrayList<>();
     private List<Step> steps = new ArrayList<>();
     private boolean isScenarioOutline = false;
     private List<String> exampleHeaders = new ArrayList<>();
     private List<String> exampleRow = new ArrayList<>();
+    private int exampleRowLineNumber;
     private String examplesKeyword = "Examples:";
 
     public SingleScenario(
@@ -52,35 +48,57 @@ public final class SingleScenario {
             final List<String> featureTags,
             final List<Step> backgroundSteps
     ) {
-        this.featureName = featureName;
-        this.featureFilePath = featureFilePath;
-        this.featureLanguage = featureLanguage;
-        this.featureDescription = featureDescription;
+        this(
+                new FeatureContext(
+                        featureName, featureFilePath, featureLanguage, featureDescription, featureTags, backgroundSteps),
+                scenarioName,
+                lineNumber,
+                scenarioDescription
+        );
+    }
+
+    /**
+     * Constructor for a scenario that shares the feature information with the other scenarios of its feature.
+     *
+     * @param featureContext      The information of the source feature.
+     * @param scenarioName        The scenario keyword and name.
+     * @param lineNumber          The line number of the scenario in the source feature.
+     * @param scenarioDescription The scenario description.
+     */
+    public SingleScenario(
+            final FeatureContext featureContext,
+            final String scenarioName,
+            final int lineNumber,
+            final String scenarioDescription
+    ) {
+        this.featureContext = featureContext;
         this.scenarioName = scenarioName;
         this.lineNumber = lineNumber;
         this.scenarioDescription = scenarioDescription;
-        this.featureTags = featureTags;
-        this.backgroundSteps = backgroundSteps;
+    }
+
+    public FeatureContext getFeatureContext() {
+        return featureContext;
     }
 
     public List<String> getFeatureTags() {
-        return featureTags;
+        return featureContext.getFeatureTags();
     }
 
     public String getFeatureName() {
-        return featureName;
+        return featureContext.getFeatureName();
     }
 
     public String getFeatureFilePath() {
-        return featureFilePath;
+        return featureContext.getFeatureFilePath();
     }
 
     public String getFeatureLanguage() {
-        return featureLanguage;
+        return featureContext.getFeatureLanguage();
     }
 
     public String getFeatureDescription() {
-        return featureDescription;
+        return featureContext.getFeatureDescription();
     }
 
     public List<String> getScenarioTags() {
@@ -108,7 +126,7 @@ public final class SingleScenario {
     }
 
     public List<Step> getBackgroundSteps() {
-        return backgroundSteps;
+        return featureContext.getBackgroundSteps();
     }
 
     public List<String> getExampleTags() {
@@ -143,6 +161,14 @@ public final class SingleScenario {
         this.exampleRow = exampleRow;
     }
 
+    public int getExampleRowLineNumber() {
+        return exampleRowLineNumber;
+    }
+
+    public void setExampleRowLineNumber(final int exampleRowLineNumber) {
+        this.exampleRowLineNumber = exampleRowLineNumber;
+    }
+
     public String getExamplesKeyword() {
         return examplesKeyword;
     }
@@ -154,14 +180,14 @@ public final class SingleScenario {
     @Override
     public String toString() {
         return "SingleScenario{" +
-                "featureName='" + featureName + '\'' +
-                ", featureFilePath='" + featureFilePath + '\'' +
-                ", featureLanguage='" + featureLanguage + '\'' +
-                ", featureDescription='" + featureDescription + '\'' +
+                "featureName='" + getFeatureName() + '\'' +
+                ", featureFilePath='" + getFeatureFilePath() + '\'' +
+                ", featureLanguage='" + getFeatureLanguage() + '\'' +
+                ", featureDescription='" + getFeatureDescription() + '\'' +
                 ", scenarioName='" + scenarioName + '\'' +
                 ", scenarioDescription='" + scenarioDescription + '\'' +
-                ", featureTags=" + featureTags +
-                ", backgroundSteps=" + backgroundSteps +
+                ", featureTags=" + getFeatureTags() +
+                ", backgroundSteps=" + getBackgroundSteps() +
                 ", scenarioTags=" + scenarioTags +
                 ", exampleTags=" + exampleTags +
                 ", steps=" + steps +
@@ -0,0 +1,342 @@
+package com.trivago.corpus;
+
+import io.cucumber.gherkin.GherkinDialect;
+import io.cucumber.gherkin.GherkinDialectProvider;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic Gherkin features for scale tests.
+ * Every feature only depends on the seed and its index, so large corpora can be generated feature by feature
+ * and always have the same content.
+ * The benchmarks module contains the same generator, so that test classes never have to be published.
+ */
+public final class GherkinCorpusGenerator {
+
+    private static final GherkinDialectProvider DIALECT_PROVIDER = new GherkinDialectProvider();
+    private static final String[] WORDS = {
+            "account", "basket", "booking", "city", "customer", "date", "filter", "hotel", "price", "result",
+            "room", "search", "session", "traveller", "voucher"
+    };
+
+    private long seed = 1;
+    private int numberOfFeatures = 10;
+    private int scenariosPerFeature = 5;
+    private int outlinesPerFeature = 1;
+    private int exampleRowsPerOutline = 10;
+    private int stepsPerScenario = 3;
+    private int dataTablePercentage = 20;
+    private int dataTableRows = 3;
+    private int docStringPercentage = 10;
+    private int docStringLines = 3;
+    private int tagsPerScenario = 2;
+    private int tagPoolSize = 10;
+    private int rulesPerFeature = 0;
+    private boolean backgrounds = true;
+    private List<String> languages = Collections.singletonList("en");
+
+    public GherkinCorpusGenerator seed(final long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public GherkinCorpusGenerator features(final int numberOfFeatures) {
+        this.numberOfFeatures = numberOfFeatures;
+        return this;
+    }
+
+    public GherkinCorpusGenerator scenariosPerFeature(final int scenariosPerFeature) {
+        this.scenariosPerFeature = scenariosPerFeature;
+        return this;
+    }
+
+    public GherkinCorpusGenerator outlinesPerFeature(final int outlinesPerFeature) {
+        this.outlinesPerFeature = outlinesPerFeature;
+        return this;
+    }
+
+    public GherkinCorpusGenerator exampleRowsPerOutline(final int exampleRowsPerOutline) {
+        this.exampleRowsPerOutline = exampleRowsPerOutline;
+        return this;
+    }
+
+    public GherkinCorpusGenerator stepsPerScenario(final int stepsPerScenario) {
+        this.stepsPerScenario = stepsPerScenario;
+        return this;
+    }
+
+    /**
+     * Sets how often a step has a data table.
+     *
+     * @param percentage    The percentage of steps with a data table.
+     * @param dataTableRows The number of rows of each data table (excluding the header).
+     * @return This generator.
+     */
+    public GherkinCorpusGenerator dataTables(final int percentage, final int dataTableRows) {
+        this.dataTablePercentage = percentage;
+        this.dataTableRows = dataTableRows;
+        return this;
+    }
+
+    /**
+     * Sets how often a step has a doc string.
+     *
+     * @param percentage     The percentage of steps with a doc string (if they do not have a data table).
+     * @param docStringLines The number of lines of each doc string.
+     * @return This generator.
+     */
+    public GherkinCorpusGenerator docStrings(final int percentage, final int docStringLines) {
+        this.docStringPercentage = percentage;
+        this.docStringLines = docStringLines;
+        return this;
+    }
+
+    /**
+     * Sets the tags of the scenarios.
+     *
+     * @param tagsPerScenario The number of tags of each scenario and outline.
+     * @param tagPoolSize     The number of different tags in the corpus.
+     * @return This generator.
+     */
+    public GherkinCorpusGenerator tags(final int tagsPerScenario, final int tagPoolSize) {
+        this.tagsPerScenario = tagsPerScenario;
+        this.tagPoolSize = tagPoolSize;
+        return this;
+    }
+
+    public GherkinCorpusGenerator rulesPerFeature(final int rulesPerFeature) {
+        this.rulesPerFeature = rulesPerFeature;
+        return this;
+    }
+
+    public GherkinCorpusGenerator backgrounds(final boolean backgrounds) {
+        this.backgrounds = backgrounds;
+        return this;
+    }
+
+    /**
+     * Sets the Gherkin dialects of the features. Each feature uses one of them.
+     *
+     * @param languages The language codes like "en" or "de".
+     * @return This generator.
+     */
+    public GherkinCorpusGenerator languages(final String... languages) {
+        for (String language : languages) {
+            if (!DIALECT_PROVIDER.getDialect(language).isPresent()) {
+                throw new IllegalArgumentException("Unknown Gherkin dialect '" + language + "'.");
+            }
+        }
+        this.languages = Arrays.asList(languages);
+        return this;
+    }
+
+    public int getNumberOfFeatures() {
+        return numberOfFeatures;
+    }
+
+    /**
+     * Returns the number of pickles, i.e. single scenarios, of the whole corpus.
+     *
+     * @return The number of pickles.
+     */
+    public long getNumberOfPickles() {
+        return (long) numberOfFeatures * (scenariosPerFeature + (long) outlinesPerFeature * exampleRowsPerOutline);
+    }
+
+    /**
+     * Returns the file name of a feature.
+     *
+     * @param featureIndex The index of the feature.
+     * @return The file name.
+     */
+    public String getFeatureFileName(final int featureIndex) {
+        return String.format("Feature%05d.feature", featureIndex);
+    }
+
+    /**
+     * Generates the content of a single feature.
+     *
+     * @param featureIndex The index of the feature.
+     * @return The feature content.
+     */
+    public String getFeatureContent(final int featureIndex) {
+        Random random = new Random(seed * 1_000_003L + featureIndex);
+        GherkinDialect dialect = DIALECT_PROVIDER.getDialect(languages.get(random.nextInt(languages.size()))).get();
+        StringBuilder feature = new StringBuilder();
+        if (!dialect.getLanguage().equals("en")) {
+            feature.append("# language: ").append(dialect.getLanguage()).append('\n');
+        }
+        feature.append("@feature").append(featureIndex).append('\n')
+                .append(keyword(dialect.getFeatureKeywords())).append(": Feature ").append(featureIndex)
+                .append(' ').append(word(random)).append('\n')
+                .append("  Generated feature about the ").append(word(random)).append(".\n");
+        if (backgrounds) {
+            feature.append('\n').append("  ").append(keyword(dialect.getBackgroundKeywords())).append(":\n");
+            appendStep(feature, "    ", keyword(dialect.getGivenKeywords()), "the " + word(random) + " is ready");
+        }
+
+        int numberOfBlocks = Math.max(1, rulesPerFeature);
+        int scenarioCounter = 0;
+        for (int block = 0; block < numberOfBlocks; block++) {
+            String indentation = "  ";
+            if (rulesPerFeature > 0) {
+                feature.append('\n').append(indentation).append(keyword(dialect.getRuleKeywords()))
+                        .append(": Rule ").append(block).append(' ').append(word(random)).append('\n');
+                indentation = "    ";
+            }
+            for (int i = block; i < scenariosPerFeature; i += numberOfBlocks) {
+                appendScenario(feature, indentation, dialect, random, featureIndex, scenarioCounter++);
+            }
+            for (int i = block; i < outlinesPerFeature; i += numberOfBlocks) {
+                appendOutline(feature, indentation, dialect, random, featureIndex, scenarioCounter++);
+            }
+        }
+        return feature.toString();
+    }
+
+    /**
+     * Generates the contents of all features.
+     *
+     * @return The feature contents in index order.
+     */
+    public List<String> generate() {
+        List<String> featureContents = new ArrayList<>(numberOfFeatures);
+        for (int i = 0; i < numberOfFeatures; i++) {
+            featureContents.add(getFeatureContent(i));
+        }
+        return featureContents;
+    }
+
+    /**
+     * Writes all features into a directory.
+     *
+     * @param directory The target directory (it is created if it does not exist).
+     * @return The paths of the written feature files in index order.
+     * @throws IOException if a feature cannot be written.
+     */
+    public List<Path> writeTo(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> featureFiles = new ArrayList<>(numberOfFeatures);
+        for (int i = 0; i < numberOfFeatures; i++) {
+            Path featureFile = directory.resolve(getFeatureFileName(i));
+            Files.write(featureFile, getFeatureContent(i).getBytes(StandardCharsets.UTF_8));
+            featureFiles.add(featureFile);
+        }
+        return featureFiles;
+    }
+
+    private void appendScenario(
+            final StringBuilder feature,
+            final String indentation,
+            final GherkinDialect dialect,
+            final Random random,
+            final int featureIndex,
+            final int scenarioIndex) {
+
+        feature.append('\n');
+        appendTags(feature, indentation, random);
+        feature.append(indentation).append(keyword(dialect.getScenarioKeywords()))
+                .append(": Scenario ").append(featureIndex).append('-').append(scenarioIndex)
+                .append(' ').append(word(random)).append('\n');
+        appendSteps(feature, indentation + "  ", dialect, random, null);
+    }
+
+    private void appendOutline(
+            final StringBuilder feature,
+            final String indentation,
+            final GherkinDialect dialect,
+            final Random random,
+            final int featureIndex,
+            final int scenarioIndex) {
+
+        feature.append('\n');
+        appendTags(feature, indentation, random);
+        feature.append(indentation).append(keyword(dialect.getScenarioOutlineKeywords()))
+                .append(": Outline ").append(featureIndex).append('-').append(scenarioIndex)
+                .append(" with <name>\n");
+        appendSteps(feature, indentation + "  ", dialect, random, "<value>");
+        feature.append('\n')
+                .append(indentation).append("  ").append(keyword(dialect.getExamplesKeywords())).append(":\n")
+                .append(indentation).append("    | name | value |\n");
+        for (int row = 0; row < exampleRowsPerOutline; row++) {
+            feature.append(indentation).append("    | ").append(word(random)).append(row)
+                    .append(" | ").append(random.nextInt(1000)).append(" |\n");
+        }
+    }
+
+    private void appendSteps(
+            final StringBuilder feature,
+            final String indentation,
+            final GherkinDialect dialect,
+            final Random random,
+            final String parameter) {
+
+        List<String> stepKeywords = Arrays.asList(
+                keyword(dialect.getGivenKeywords()), keyword(dialect.getWhenKeywords()), keyword(dialect.getThenKeywords()));
+        for (int step = 0; step < stepsPerScenario; step++) {
+            String stepKeyword = stepKeywords.get(Math.min(step, stepKeywords.size() - 1));
+            String stepText = "the " + word(random) + " is " + (parameter != null ? parameter : random.nextInt(100));
+            appendStep(feature, indentation, stepKeyword, stepText);
+            if (random.nextInt(100) < dataTablePercentage) {
+                feature.append(indentation).append("  | key | value |\n");
+                for (int row = 0; row < dataTableRows; row++) {
+                    feature.append(indentation).append("  | ").append(word(random))
+                            .append(" | ").append(random.nextInt(1000)).append(" |\n");
+                }
+            } else if (random.nextInt(100) < docStringPercentage) {
+                feature.append(indentation).append("  \"\"\"\n");
+                for (int line = 0; line < docStringLines; line++) {
+                    feature.append(indentation).append("  The ").append(word(random))
+                            .append(" line ").append(line).append('\n');
+                }
+                feature.append(indentation).append("  \"\"\"\n");
+            }
+        }
+    }
+
+    private void appendStep(
+            final StringBuilder feature, final String indentation, final String stepKeyword, final String stepText) {
+        feature.append(indentation).append(stepKeyword).append(stepText).append('\n');
+    }
+
+    private void appendTags(final StringBuilder feature, final String indentation, final Random random) {
+        if (tagsPerScenario <= 0 || tagPoolSize <= 0) {
+            return;
+        }
+        feature.append(indentation);
+        for (int tag = 0; tag < tagsPerScenario; tag++) {
+            if (tag > 0) {
+                feature.append(' ');
+            }
+            feature.append("@tag").append(random.nextInt(tagPoolSize));
+        }
+        feature.append('\n');
+    }
+
+    /**
+     * Returns the first keyword of a dialect that is not the generic "* " step keyword.
+     *
+     * @param keywords The keywords of a dialect.
+     * @return The keyword.
+     */
+    private static String keyword(final List<String> keywords) {
+        for (String keyword : keywords) {
+            if (!keyword.trim().equals("*")) {
+                return keyword;
+            }
+        }
+        return keywords.get(0);
+    }
+
+    private static String word(final Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,89 @@
+package com.trivago.corpus;
+
+import io.cucumber.gherkin.GherkinParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class GherkinCorpusGeneratorTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    @Test
+    public void sameSeedGeneratesSameCorpusTest() {
+        List<String> corpus = new GherkinCorpusGenerator().seed(42).features(5).generate();
+        assertThat(new GherkinCorpusGenerator().seed(42).features(5).generate(), is(corpus));
+        assertThat(new GherkinCorpusGenerator().seed(43).features(5).generate(), is(not(corpus)));
+    }
+
+    @Test
+    public void featureContentDoesNotDependOnFeatureCountTest() {
+        String featureContent = new GherkinCorpusGenerator().seed(7).features(3).getFeatureContent(2);
+        assertThat(new GherkinCorpusGenerator().seed(7).features(300).generate().get(2), is(featureContent));
+    }
+
+    @Test
+    public void generatedCorpusIsParsableTest() {
+        GherkinCorpusGenerator generator = new GherkinCorpusGenerator()
+                .seed(3)
+                .features(6)
+                .scenariosPerFeature(4)
+                .outlinesPerFeature(2)
+                .exampleRowsPerOutline(5)
+                .dataTables(50, 2)
+                .docStrings(50, 2)
+                .tags(3, 5)
+                .rulesPerFeature(2)
+                .languages("en", "de", "fr", "ja");
+
+        long pickles = 0;
+        for (String featureContent : generator.generate()) {
+            pickles += countPickles(featureContent);
+        }
+        assertThat(pickles, is(generator.getNumberOfPickles()));
+    }
+
+    @Test
+    public void nonEnglishDialectTest() {
+        String featureContent = new GherkinCorpusGenerator().languages("de").getFeatureContent(0);
+        assertThat(featureContent, containsString("# language: de\n"));
+        assertThat(featureContent, containsString("Funktionalität: Feature 0"));
+        assertThat(featureContent, containsString("Grundlage:"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownDialectTest() {
+        new GherkinCorpusGenerator().languages("xx-unknown");
+    }
+
+    @Test
+    public void writeToTest() throws Exception {
+        GherkinCorpusGenerator generator = new GherkinCorpusGenerator().features(3);
+        List<Path> featureFiles = generator.writeTo(testFolder.getRoot().toPath().resolve("features"));
+        assertThat(featureFiles.size(), is(3));
+        assertThat(featureFiles.get(2).getFileName().toString(), is("Feature00002.feature"));
+        assertThat(featureFiles.get(2).toFile().isFile(), is(true));
+    }
+
+    private long countPickles(final String featureContent) {
+        GherkinParser gherkinParser = GherkinParser.builder()
+                .includeSource(false)
+                .includeGherkinDocument(false)
+                .includePickles(true)
+                .build();
+        return gherkinParser.parse("test.feature", featureContent.getBytes(StandardCharsets.UTF_8))
+                .peek(parsedEnvelope -> assertThat(parsedEnvelope.getParseError().isPresent(), is(false)))
+                .filter(parsedEnvelope -> parsedEnvelope.getPickle().isPresent())
+                .count();
+    }
+}
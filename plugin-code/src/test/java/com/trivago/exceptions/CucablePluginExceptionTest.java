@@ -28,4 +28,12 @@ public class CucablePluginExceptionTest {
         CucablePluginException exception = new CucablePluginException("This is a test");
         assertThat(exception.getMessage(), is("This is a test"));
     }
+
+    @Test
+    public void testCause() {
+        IllegalStateException cause = new IllegalStateException("cause");
+        CucablePluginException exception = new CucablePluginException("This is a test", cause);
+        assertThat(exception.getMessage(), is("This is a test"));
+        assertThat(exception.getCause(), is(cause));
+    }
 }
@@ -1,6 +1,7 @@
 package com.trivago.features;
 
 import com.trivago.vo.DataTable;
+import com.trivago.vo.FeatureContext;
 import com.trivago.vo.SingleScenario;
 import com.trivago.vo.Step;
 import org.junit.Before;
@@ -250,4 +251,58 @@ public class FeatureFileContentRendererTest {
 
         assertThat(renderedFeatureFileContent, is(expectedOutput));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void scenariosOfAlternatingFeaturesTest() {
+        FeatureContext firstFeature = new FeatureContext("Feature: first", "first.feature", "", "",
+                Collections.singletonList("@first"), Collections.singletonList(new Step("Given background", null, null)));
+        FeatureContext secondFeature = new FeatureContext("Feature: second", "second.feature", "de", "",
+                Collections.emptyList(), Collections.emptyList());
+        SingleScenario firstScenario = new SingleScenario(firstFeature, "Scenario: one", 3, "");
+        SingleScenario secondScenario = new SingleScenario(secondFeature, "Scenario: two", 5, "");
+        SingleScenario thirdScenario = new SingleScenario(firstFeature, "Scenario: three", 7, "");
+        firstScenario.setScenarioTags(Arrays.asList("@first", "@one"));
+
+        String first = featureFileContentRenderer.getRenderedFeatureFileContent(firstScenario)
+                .replaceAll("\\r\\n", "\n");
+        String second = featureFileContentRenderer.getRenderedFeatureFileContent(secondScenario)
+                .replaceAll("\\r\\n", "\n");
+        String third = featureFileContentRenderer.getRenderedFeatureFileContent(thirdScenario)
+                .replaceAll("\\r\\n", "\n");
+
+        assertThat(first, is("@first\n" +
+                "Feature: first\n" +
+                "\n" +
+                "Background:\n" +
+                "    Given background\n" +
+                "\n" +
+                "@one\n" +
+                "Scenario: one\n" +
+                "\n# Source feature: first.feature\n" +
+                "# Generated by Cucable null\n"));
+        assertThat(second, is("# language: de\n\n" +
+                "Feature: second\n" +
+                "\n" +
+                "Scenario: two\n" +
+                "\n# Source feature: second.feature\n" +
+                "# Generated by Cucable null\n"));
+        assertThat(third, is(first.replace("@one\n", "").replace("one", "three")));
+        assertThat(firstScenario.getScenarioTags(), is(Arrays.asList("@first", "@one")));
+    }
+
+    @Test
+    public void renderFeatureFileContentReusesBufferTest() {
+        FeatureContext feature = new FeatureContext("Feature: reuse", "reuse.feature", "", "",
+                Collections.emptyList(), Collections.emptyList());
+        SingleScenario firstScenario = new SingleScenario(feature, "Scenario: one", 3, "");
+        SingleScenario secondScenario = new SingleScenario(feature, "Scenario: two", 5, "");
+
+        CharSequence first = featureFileContentRenderer.renderFeatureFileContent(firstScenario);
+        String firstContent = first.toString();
+        CharSequence second = featureFileContentRenderer.renderFeatureFileContent(secondScenario);
+
+        assertThat(second == first, is(true));
+        assertThat(second.toString(), is(firstContent.replace("one", "two")));
+        assertThat(featureFileContentRenderer.getRenderedFeatureFileContent(firstScenario), is(firstContent));
+    }
+}
@@ -5,9 +5,12 @@ import com.trivago.files.FileSystemManager;
 import com.trivago.gherkin.GherkinDocumentParser;
 import com.trivago.logging.CucableLogger;
 import com.trivago.properties.PropertyManager;
+import com.trivago.runners.DurationHistory;
+import com.trivago.runners.DurationHistoryReader;
 import com.trivago.runners.RunnerFileContentRenderer;
 import com.trivago.vo.CucableFeature;
 import com.trivago.vo.FeatureRunner;
+import com.trivago.vo.GeneratedFeature;
 import com.trivago.vo.SingleScenario;
 import org.junit.Before;
 import org.junit.Rule;
@@ -17,15 +20,21 @@ import org.mockito.ArgumentCaptor;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.endsWith;
 import static org.mockito.Mockito.*;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 
 public class FeatureFileConverterTest {
 
@@ -37,6 +46,7 @@ public class FeatureFileConverterTest {
     private GherkinDocumentParser gherkinDocumentParser;
     private FeatureFileContentRenderer featureFileContentRenderer;
     private RunnerFileContentRenderer runnerFileContentRenderer;
+    private DurationHistoryReader durationHistoryReader;
     private CucableLogger logger;
 
     private FileSystemManager fileSystemManager;
@@ -47,6 +57,7 @@ public class FeatureFileConverterTest {
         featureFileContentRenderer = mock(FeatureFileContentRenderer.class);
         runnerFileContentRenderer = mock(RunnerFileContentRenderer.class);
         fileSystemManager = mock(FileSystemManager.class);
+        durationHistoryReader = mock(DurationHistoryReader.class);
         logger = mock(CucableLogger.class);
         propertyManager = new PropertyManager(logger, fileSystemManager);
 
@@ -56,6 +67,8 @@ public class FeatureFileConverterTest {
                 featureFileContentRenderer,
                 runnerFileContentRenderer,
                 fileSystemManager,
+                durationHistoryReader,
+                new ScenarioWeightEstimator(propertyManager),
                 logger
         );
     }
@@ -64,6 +77,8 @@ public class FeatureFileConverterTest {
     public void generateParallelizableFeaturesEmptyFeaturesTest() throws CucablePluginException {
         List<CucableFeature> cucableFeatures = new ArrayList<>();
         featureFileConverter.generateParallelizableFeatures(cucableFeatures);
+        verify(gherkinDocumentParser).clearSharedValues();
+        verify(runnerFileContentRenderer).clearCompiledRunnerTemplates();
     }
 
     @Test
@@ -98,7 +113,7 @@ public class FeatureFileConverterTest {
         CucableFeature cucableFeature = new CucableFeature("", "", FEATURE_FILE_NAME, null);
         cucableFeatures.add(cucableFeature);
 
-        when(fileSystemManager.getPathsFromCucableFeature(cucableFeature))
+        when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
                 .thenReturn(Collections.singletonList(Paths.get(cucableFeature.getName())));
 
         List<SingleScenario> scenarioList = new ArrayList<>();
@@ -108,7 +123,7 @@ public class FeatureFileConverterTest {
                 .thenReturn(scenarioList);
 
         String featureFileContent = "test";
-        when(featureFileContentRenderer.getRenderedFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
+        when(featureFileContentRenderer.renderFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
         when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
                 .thenReturn("RUNNER_CONTENT");
         featureFileConverter.generateParallelizableFeatures(cucableFeatures);
@@ -118,7 +133,8 @@ public class FeatureFileConverterTest {
                 any(CucableLogger.CucableLogLevel.class), any(CucableLogger.CucableLogLevel.class)
         );
         assertThat(logCaptor.getAllValues().get(0), is("Cucable created 1 separate feature file and 1 runner."));
-        verify(fileSystemManager, times(3)).writeContentToFile(anyString(), anyString()); // feature file, runner file, properties file
+        verify(fileSystemManager, times(2)).writeContentToFile(anyString(), anyString()); // feature file, runner file
+        verify(fileSystemManager, times(2)).writeContentToFileAtomically(anyString(), anyString()); // properties file, report
     }
 
     @Test
@@ -137,7 +153,7 @@ public class FeatureFileConverterTest {
         CucableFeature cucableFeature = new CucableFeature("", "", FEATURE_FILE_NAME, null);
         cucableFeatures.add(cucableFeature);
 
-        when(fileSystemManager.getPathsFromCucableFeature(cucableFeature))
+        when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
                 .thenReturn(Collections.singletonList(Paths.get(cucableFeature.getName())));
 
         List<SingleScenario> scenarioList = new ArrayList<>();
@@ -147,7 +163,7 @@ public class FeatureFileConverterTest {
                 .thenReturn(scenarioList);
 
         String featureFileContent = "test";
-        when(featureFileContentRenderer.getRenderedFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
+        when(featureFileContentRenderer.renderFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
         featureFileConverter.generateParallelizableFeatures(cucableFeatures);
 
         ArgumentCaptor<String> logCaptor = ArgumentCaptor.forClass(String.class);
@@ -155,7 +171,8 @@ public class FeatureFileConverterTest {
                 any(CucableLogger.CucableLogLevel.class), any(CucableLogger.CucableLogLevel.class)
         );
         assertThat(logCaptor.getAllValues().get(0), is("Cucable created 1 separate feature file and 0 runners."));
-        verify(fileSystemManager, times(2)).writeContentToFile(anyString(), anyString()); // feature file, properties file
+        verify(fileSystemManager, times(1)).writeContentToFile(anyString(), anyString()); // feature file
+        verify(fileSystemManager, times(2)).writeContentToFileAtomically(anyString(), anyString()); // properties file, report
     }
 
 
@@ -178,7 +195,7 @@ public class FeatureFileConverterTest {
         CucableFeature cucableFeature = new CucableFeature("", "", FEATURE_FILE_NAME, null);
         cucableFeatures.add(cucableFeature);
 
-        when(fileSystemManager.getPathsFromCucableFeature(cucableFeature))
+        when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
                 .thenReturn(Collections.singletonList(Paths.get(cucableFeature.getName())));
 
         List<SingleScenario> scenarioList = new ArrayList<>();
@@ -188,7 +205,7 @@ public class FeatureFileConverterTest {
                 .thenReturn(scenarioList);
 
         String featureFileContent = "test";
-        when(featureFileContentRenderer.getRenderedFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
+        when(featureFileContentRenderer.renderFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
 
         when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
                 .thenReturn("RUNNER_CONTENT");
@@ -196,7 +213,8 @@ public class FeatureFileConverterTest {
 
         featureFileConverter.generateParallelizableFeatures(cucableFeatures);
 
-        verify(fileSystemManager, times(3)).writeContentToFile(anyString(), anyString()); // feature file, runner file, properties file
+        verify(fileSystemManager, times(2)).writeContentToFile(anyString(), anyString()); // feature file, runner file
+        verify(fileSystemManager, times(2)).writeContentToFileAtomically(anyString(), anyString()); // properties file, report
     }
 
     @Test
@@ -218,7 +236,7 @@ public class FeatureFileConverterTest {
         CucableFeature cucableFeature = new CucableFeature("", "", FEATURE_FILE_NAME, null);
         cucableFeatures.add(cucableFeature);
 
-        when(fileSystemManager.getPathsFromCucableFeature(cucableFeature))
+        when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
                 .thenReturn(Collections.singletonList(Paths.get(cucableFeature.getName())));
 
         List<SingleScenario> scenarioList = new ArrayList<>();
@@ -229,26 +247,25 @@ public class FeatureFileConverterTest {
                 .thenReturn(scenarioList);
 
         String featureFileContent = "test";
-        when(featureFileContentRenderer.getRenderedFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
+        when(featureFileContentRenderer.renderFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
 
         when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
                 .thenReturn("RUNNER_CONTENT");
 
         featureFileConverter.generateParallelizableFeatures(cucableFeatures);
 
-        verify(fileSystemManager, times(5)).writeContentToFile(anyString(), anyString());
+        verify(fileSystemManager, times(3)).writeContentToFile(anyString(), anyString());
+        verify(fileSystemManager, times(2)).writeContentToFileAtomically(anyString(), anyString()); // properties file, report
     }
 
     @Test
     public void convertToSingleScenariosAndMultiRunnersWithScenarioNamesTest() throws Exception {
         String generatedFeatureDir = testFolder.getRoot().getPath().concat("/features");
         String generatedRunnerDir = testFolder.getRoot().getPath().concat("/runners");
-        final String scenarioMatch1Text = "Feature: feature1\n Scenario: scenarioName1";
-        final String scenarioMatch2Text = "Feature: feature2\n Scenario: scenarioName2";
+        final String scenarioMatch1Text = "Scenario: scenarioName1";
+        final String scenarioMatch2Text = "Scenario: scenarioName2";
 
         final String FEATURE_FILE_NAME = "FEATURE_FILE.feature";
-        final String GENERATED_FEATURE_FILE_NAME1 = "FEATURE_FILE_1_scenario001_run001_IT.feature";
-        final String GENERATED_FEATURE_FILE_NAME2 = "FEATURE_FILE_1_scenario002_run001_IT.feature";
 
         propertyManager.setNumberOfTestRuns(1);
         propertyManager.setGeneratedFeatureDirectory(generatedFeatureDir);
@@ -257,31 +274,26 @@ public class FeatureFileConverterTest {
         propertyManager.setScenarioNames("scenarioName1, scenarioName2");
 
         when(fileSystemManager.readContentFromFile(FEATURE_FILE_NAME)).thenReturn("TEST_CONTENT");
-        when(fileSystemManager.readContentFromFile(generatedFeatureDir + "/" + GENERATED_FEATURE_FILE_NAME1))
-                .thenReturn(scenarioMatch1Text);
-        when(fileSystemManager.readContentFromFile(generatedFeatureDir + "/" + GENERATED_FEATURE_FILE_NAME2))
-                .thenReturn(scenarioMatch2Text);
-
-        when(fileSystemManager.readContentFromFile(generatedFeatureDir + "/" + FEATURE_FILE_NAME)).thenReturn("TEST_CONTENT");
 
         List<CucableFeature> cucableFeatures = new ArrayList<>();
         CucableFeature cucableFeature = new CucableFeature("", "", FEATURE_FILE_NAME, null);
         cucableFeatures.add(cucableFeature);
 
-        when(fileSystemManager.getPathsFromCucableFeature(cucableFeature))
+        when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
                 .thenReturn(Collections.singletonList(Paths.get(cucableFeature.getName())));
 
         List<SingleScenario> scenarioList = new ArrayList<>();
-        SingleScenario singleScenario = getSingleScenario();
-        scenarioList.add(singleScenario);
-        scenarioList.add(singleScenario);
+        SingleScenario singleScenario1 = getSingleScenario(scenarioMatch1Text);
+        SingleScenario singleScenario2 = getSingleScenario(scenarioMatch2Text);
+        scenarioList.add(singleScenario1);
+        scenarioList.add(singleScenario2);
         when(gherkinDocumentParser.getSingleScenariosFromFeature("TEST_CONTENT", FEATURE_FILE_NAME, null))
                 .thenReturn(scenarioList);
-        when(gherkinDocumentParser.matchScenarioWithScenarioNames("en", scenarioMatch1Text)).thenReturn(0);
-        when(gherkinDocumentParser.matchScenarioWithScenarioNames("en", scenarioMatch2Text)).thenReturn(1);
+        when(gherkinDocumentParser.matchScenarioWithScenarioNames("", scenarioMatch1Text)).thenReturn(0);
+        when(gherkinDocumentParser.matchScenarioWithScenarioNames("", scenarioMatch2Text)).thenReturn(1);
 
         String featureFileContent = "test";
-        when(featureFileContentRenderer.getRenderedFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
+        when(featureFileContentRenderer.renderFeatureFileContent(any(SingleScenario.class))).thenReturn(featureFileContent);
 
         when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
                 .thenReturn("RUNNER_CONTENT");
@@ -293,19 +305,19 @@ public class FeatureFileConverterTest {
                 any(CucableLogger.CucableLogLevel.class), any(CucableLogger.CucableLogLevel.class)
         );
         assertThat(logCaptor.getAllValues().get(0), is("Cucable created 2 separate feature files and 2 runners."));
-        verify(fileSystemManager, times(6)).writeContentToFile(anyString(), anyString());
+        verify(fileSystemManager, times(4)).writeContentToFile(anyString(), anyString());
+        verify(fileSystemManager, times(1)).readContentFromFile(anyString());
+        verify(fileSystemManager, times(2)).writeContentToFileAtomically(anyString(), anyString()); // properties file, report
     }
 
     @Test
     public void convertToSingleScenariosAndMultiRunnersWithScenarioNamesAndExampleKeywordTest() throws Exception {
         String generatedFeatureDir = testFolder.getRoot().getPath().concat("/features");
         String generatedRunnerDir = testFolder.getRoot().getPath().concat("/runners");
-        final String scenarioMatch1Text = "Feature: feature1\n Scenario: scenarioName1";
-        final String scenarioMatch2Text = "Feature: feature2\n Example: scenarioName2";
+        final String scenarioMatch1Text = "Scenario: scenarioName1";
+        final String scenarioMatch2Text = "Example: scenarioName2";
 
         final String FEATURE_FILE_NAME = "FEATURE_FILE.feature";
-        final String GENERATED_FEATURE_FILE_NAME1 = "FEATURE_FILE_1_scenario001_run001_IT.feature";
-        final String GENERATED_FEATURE_FILE_NAME2 = "FEATURE_FILE_1_scenario002_run001_IT.feature";
 
         propertyManager.setNumberOfTestRuns(1);
         propertyManager.setGeneratedFeatureDirectory(generatedFeatureDir);
@@ -314,31 +326,26 @@ public class FeatureFileConverterTest {
         propertyManager.setScenarioNames("scenarioName1, scenarioName2");
 
         when(fileSystemManager.readContentFromFile(FEATURE_FILE_NAME)).thenReturn("TEST_CONTENT");
-        when(fileSystemManager.readContentFromFile(generatedFeatureDir + "/" + GENERATED_FEATURE_FILE_NAME1))
-                .thenReturn(scenarioMatch1Text);
-        when(fileSystemManager.readContentFromFile(generatedFeatureDir + "/" + GENERATED_FEATURE_FILE_NAME2))
-                .thenReturn(scenarioMatch2Text);
-
-        when(fileSystemManager.readContentFromFile(generatedFeatureDir + "/" + FEATURE_FILE_NAME)).thenReturn("TEST_CONTENT");
 
         List<CucableFeature> cucableFeatures = new ArrayList<>();
         CucableFeature cucableFeature = new CucableFeature("", "", FEATURE_FILE_NAME, null);
         cucableFeatures.add(cucableFeature);
 
-        when(fileSystemManager.getPathsFromCucableFeature(cucableFeature))
+        when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
                 .thenReturn(Collections.singletonList(Paths.get(cucableFeature.getName())));
 
         List<SingleScenario> scenarioList = new ArrayList<>();
-        SingleScenario singleScenario = getSingleScenario();
-        scenarioList.add(singleScenario);
-        scenarioList.add(singleScenario);
+        SingleScenario singleScenario1 = getSingleScenario(scenarioMatch1Text);
+        SingleScenario singleScenario2 = getSingleScenario(scenarioMatch2Text);
+        scenarioList.add(singleScenario1);
+        scenarioList.add(singleScenario2);
         when(gherkinDocumentParser.getSingleScenariosFromFeature("TEST_CONTENT", FEATURE_FILE_NAME, null))
                 .thenReturn(scenarioList);
-        when(gherkinDocumentParser.matchScenarioWithScenarioNames("en", scenarioMatch1Text)).thenReturn(0);
-        when(gherkinDocumentParser.matchScenarioWithScenarioNames("en", scenarioMatch2Text)).thenReturn(1);
+        when(gherkinDocumentParser.matchScenarioWithScenarioNames("", scenarioMatch1Text)).thenReturn(0);
+        when(gherkinDocumentParser.matchScenarioWithScenarioNames("", scenarioMatch2Text)).thenReturn(1);
 
         String featureFileContent = "test";
-        when(featureFileContentRenderer.getRenderedFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
+        when(featureFileContentRenderer.renderFeatureFileContent(any(SingleScenario.class))).thenReturn(featureFileContent);
 
         when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
                 .thenReturn("RUNNER_CONTENT");
@@ -350,7 +357,9 @@ public class FeatureFileConverterTest {
                 any(CucableLogger.CucableLogLevel.class), any(CucableLogger.CucableLogLevel.class)
         );
         assertThat(logCaptor.getAllValues().get(0), is("Cucable created 2 separate feature files and 2 runners."));
-        verify(fileSystemManager, times(6)).writeContentToFile(anyString(), anyString());
+        verify(fileSystemManager, times(4)).writeContentToFile(anyString(), anyString());
+        verify(fileSystemManager, times(1)).readContentFromFile(anyString());
+        verify(fileSystemManager, times(2)).writeContentToFileAtomically(anyString(), anyString()); // properties file, report
     }
 
     @Test
@@ -372,7 +381,7 @@ public class FeatureFileConverterTest {
         CucableFeature cucableFeature = new CucableFeature("", "", FEATURE_FILE_NAME, null);
         cucableFeatures.add(cucableFeature);
 
-        when(fileSystemManager.getPathsFromCucableFeature(cucableFeature))
+        when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
                 .thenReturn(Collections.singletonList(Paths.get(cucableFeature.getName())));
 
         when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
@@ -380,7 +389,113 @@ public class FeatureFileConverterTest {
 
         featureFileConverter.generateParallelizableFeatures(cucableFeatures);
 
-        verify(fileSystemManager, times(3)).writeContentToFile(anyString(), anyString()); // feature file, runner file, properties file
+        verify(fileSystemManager, times(2)).writeContentToFile(anyString(), anyString()); // feature file, runner file
+        verify(fileSystemManager, times(2)).writeContentToFileAtomically(anyString(), anyString()); // properties file, report
+    }
+
+    @Test
+    public void parallelGenerationMatchesSequentialGenerationTest() throws Exception {
+        List<String> sequentialWrites = getWrittenContentsForGeneration(1);
+        setup();
+        List<String> parallelWrites = getWrittenContentsForGeneration(4);
+        assertThat(parallelWrites, is(sequentialWrites));
+    }
+
+    @Test
+    public void testRunCopiesAreRenderedOnceAndDuplicatedTest() throws Exception {
+        String generatedFeatureDir = testFolder.getRoot().getPath().concat("/features");
+        String generatedRunnerDir = testFolder.getRoot().getPath().concat("/runners");
+
+        final String FEATURE_FILE_NAME = "FEATURE_FILE.feature";
+
+        propertyManager.setNumberOfTestRuns(3);
+        propertyManager.setGeneratedFeatureDirectory(generatedFeatureDir);
+        propertyManager.setGeneratedRunnerDirectory(generatedRunnerDir);
+        propertyManager.setParallelizationMode("scenarios");
+
+        when(fileSystemManager.readContentFromFile(FEATURE_FILE_NAME)).thenReturn("TEST_CONTENT");
+
+        CucableFeature cucableFeature = new CucableFeature("", "", FEATURE_FILE_NAME, null);
+        when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
+                .thenReturn(Collections.singletonList(Paths.get(cucableFeature.getName())));
+
+        SingleScenario singleScenario = getSingleScenario();
+        when(gherkinDocumentParser.getSingleScenariosFromFeature("TEST_CONTENT", FEATURE_FILE_NAME, null))
+                .thenReturn(Collections.singletonList(singleScenario));
+        when(featureFileContentRenderer.renderFeatureFileContent(singleScenario)).thenReturn("test");
+        when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
+                .thenReturn("RUNNER_CONTENT");
+
+        featureFileConverter.generateParallelizableFeatures(Collections.singletonList(cucableFeature));
+
+        String firstFeatureFilePath = generatedFeatureDir + "/FEATURE_FILE_1_scenario001_run001_IT.feature";
+        verify(featureFileContentRenderer, times(1)).renderFeatureFileContent(singleScenario);
+        verify(fileSystemManager).writeContentToFile("test", firstFeatureFilePath);
+        verify(fileSystemManager).duplicateFile(
+                firstFeatureFilePath, generatedFeatureDir + "/FEATURE_FILE_1_scenario001_run002_IT.feature", "test");
+        verify(fileSystemManager).duplicateFile(
+                firstFeatureFilePath, generatedFeatureDir + "/FEATURE_FILE_1_scenario001_run003_IT.feature", "test");
+    }
+
+    private List<String> getWrittenContentsForGeneration(final int numberOfGenerationThreads) throws Exception {
+        String generatedFeatureDir = testFolder.getRoot().getPath().concat("/features");
+        String generatedRunnerDir = testFolder.getRoot().getPath().concat("/runners");
+
+        propertyManager.setNumberOfTestRuns(2);
+        propertyManager.setGeneratedFeatureDirectory(generatedFeatureDir);
+        propertyManager.setGeneratedRunnerDirectory(generatedRunnerDir);
+        propertyManager.setNumberOfGenerationThreads(numberOfGenerationThreads);
+
+        List<CucableFeature> cucableFeatures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String featureFileName = "FEATURE_FILE_" + (i % 7) + ".feature";
+            String featureContent = "TEST_CONTENT_" + i;
+            CucableFeature cucableFeature = new CucableFeature("", "", featureFileName, Collections.singletonList(i));
+            cucableFeatures.add(cucableFeature);
+            when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
+                    .thenReturn(Collections.singletonList(Paths.get(featureFileName)));
+            when(fileSystemManager.readContentFromFile(featureFileName)).thenReturn(featureContent);
+
+            List<SingleScenario> scenarioList = new ArrayList<>();
+            for (int j = 0; j <= i % 3; j++) {
+                SingleScenario singleScenario = new SingleScenario(
+                        "feature", featureFileName, "", "", "name" + j, j + 1,
+                        "", new ArrayList<>(), new ArrayList<>()
+                );
+                scenarioList.add(singleScenario);
+                when(featureFileContentRenderer.renderFeatureFileContent(singleScenario))
+                        .thenReturn(featureContent + "_" + j);
+            }
+            when(gherkinDocumentParser.getSingleScenariosFromFeature(
+                    featureContent, featureFileName, Collections.singletonList(i))).thenReturn(scenarioList);
+        }
+        when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
+                .thenAnswer(invocation -> String.join(",",
+                        ((FeatureRunner) invocation.getArgument(0)).getFeatureFileNames()));
+
+        featureFileConverter.generateParallelizableFeatures(cucableFeatures);
+
+        ArgumentCaptor<String> contentCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> pathCaptor = ArgumentCaptor.forClass(String.class);
+        verify(fileSystemManager, atLeastOnce()).writeContentToFile(contentCaptor.capture(), pathCaptor.capture());
+        verify(fileSystemManager, times(2)).writeContentToFileAtomically(contentCaptor.capture(), pathCaptor.capture());
+        List<String> writes = new ArrayList<>();
+        for (int i = 0; i < contentCaptor.getAllValues().size(); i++) {
+            // The report contains measured times, so it differs between runs.
+            if (pathCaptor.getAllValues().get(i).endsWith(GenerationReport.FILE_NAME)) {
+                continue;
+            }
+            writes.add(pathCaptor.getAllValues().get(i) + " <- " + contentCaptor.getAllValues().get(i));
+        }
+        // Feature files may be written in any order, the properties and runners must keep their order.
+        List<String> featureWrites = new ArrayList<>();
+        List<String> otherWrites = new ArrayList<>();
+        for (String write : writes) {
+            (write.contains(".feature <- ") ? featureWrites : otherWrites).add(write);
+        }
+        Collections.sort(featureWrites);
+        featureWrites.addAll(otherWrites);
+        return featureWrites;
     }
 
     @Test(expected = CucablePluginException.class)
@@ -389,8 +504,7 @@ public class FeatureFileConverterTest {
         String generatedRunnerDir = testFolder.getRoot().getPath().concat("/runners/");
 
         final String FEATURE_FILE_NAME = "FEATURE_FILE.feature";
-        final String GENERATED_FEATURE_FILE_NAME = "FEATURE_FILE_scenario001_run001_IT.feature";
-        final String scenarioNoMatchText = "Feature: feature1\n Scenario: noMatch";
+        final String scenarioNoMatchText = "Scenario: noMatch";
 
         propertyManager.setNumberOfTestRuns(1);
         propertyManager.setGeneratedFeatureDirectory(generatedFeatureDir);
@@ -398,35 +512,420 @@ public class FeatureFileConverterTest {
         propertyManager.setScenarioNames("scenarioName1");
 
         when(fileSystemManager.readContentFromFile(FEATURE_FILE_NAME)).thenReturn("TEST_CONTENT");
-        when(fileSystemManager.readContentFromFile(generatedFeatureDir + "/" + GENERATED_FEATURE_FILE_NAME))
-                .thenReturn(scenarioNoMatchText);
 
         List<CucableFeature> cucableFeatures = new ArrayList<>();
         CucableFeature cucableFeature = new CucableFeature("", "", FEATURE_FILE_NAME, null);
         cucableFeatures.add(cucableFeature);
 
-        when(fileSystemManager.getPathsFromCucableFeature(cucableFeature))
+        when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
                 .thenReturn(Collections.singletonList(Paths.get(cucableFeature.getName())));
 
         List<SingleScenario> scenarioList = new ArrayList<>();
-        SingleScenario singleScenario = getSingleScenario();
+        SingleScenario singleScenario = getSingleScenario(scenarioNoMatchText);
         scenarioList.add(singleScenario);
         when(gherkinDocumentParser.getSingleScenariosFromFeature("TEST_CONTENT", FEATURE_FILE_NAME, null))
                 .thenReturn(scenarioList);
-        when(gherkinDocumentParser.matchScenarioWithScenarioNames("en", scenarioNoMatchText)).thenReturn(-1);
+        when(gherkinDocumentParser.matchScenarioWithScenarioNames("", scenarioNoMatchText)).thenReturn(-1);
 
         String featureFileContent = "test";
-        when(featureFileContentRenderer.getRenderedFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
+        when(featureFileContentRenderer.renderFeatureFileContent(singleScenario)).thenReturn(featureFileContent);
         when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
                 .thenReturn("RUNNER_CONTENT");
 
         featureFileConverter.generateParallelizableFeatures(cucableFeatures);
     }
 
+    @Test
+    public void incrementalGenerationOnlyRegeneratesChangedFeaturesTest() throws Exception {
+        String generatedFeatureDir = testFolder.getRoot().getPath().concat("/features");
+        String generatedRunnerDir = testFolder.getRoot().getPath().concat("/runners");
+        String sourceFeatureFile = testFolder.getRoot().getPath().concat("/source.feature");
+
+        FileSystemManager realFileSystemManager = new FileSystemManager();
+        realFileSystemManager.writeContentToFile("SOURCE_CONTENT", sourceFeatureFile);
+        realFileSystemManager.createGeneratedFeatureAndRunnerDirectories(generatedRunnerDir, generatedFeatureDir);
+
+        PropertyManager incrementalPropertyManager = new PropertyManager(logger, realFileSystemManager);
+        incrementalPropertyManager.setIncremental(true);
+        incrementalPropertyManager.setNumberOfTestRuns(1);
+        incrementalPropertyManager.setParallelizationMode(PropertyManager.ParallelizationMode.SCENARIOS.toString());
+        incrementalPropertyManager.setGeneratedFeatureDirectory(generatedFeatureDir);
+        incrementalPropertyManager.setGeneratedRunnerDirectory(generatedRunnerDir);
+        incrementalPropertyManager.setSourceFeatures(sourceFeatureFile);
+
+        SingleScenario singleScenario = new SingleScenario(
+                "feature", sourceFeatureFile, "", "featureDescription", "name",
+                1, "scenarioDescription", new ArrayList<>(), new ArrayList<>()
+        );
+        when(gherkinDocumentParser.getSingleScenariosFromFeature(anyString(), eq(sourceFeatureFile), any()))
+                .thenReturn(Collections.singletonList(singleScenario));
+        when(featureFileContentRenderer.renderFeatureFileContent(singleScenario)).thenReturn("FEATURE_CONTENT");
+        when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
+                .thenReturn("RUNNER_CONTENT");
+
+        String generatedFeatureFile = generatedFeatureDir.concat("/source_1_scenario001_run001_IT.feature");
+        String generatedRunnerFile = generatedRunnerDir.concat("/Runner_source_1_scenario001_run001_IT.java");
+        String staleRunnerFile = generatedRunnerDir.concat("/Runner_stale_IT.java");
+
+        // The same converter is used for all executions, like the singleton in a Maven reactor.
+        FeatureFileConverter incrementalFeatureFileConverter =
+                createIncrementalConverter(incrementalPropertyManager, realFileSystemManager);
+        incrementalFeatureFileConverter.generateParallelizableFeatures(incrementalPropertyManager.getSourceFeatures());
+        assertThat(realFileSystemManager.readContentFromFile(generatedFeatureFile), is("FEATURE_CONTENT"));
+        assertThat(realFileSystemManager.readContentFromFile(generatedRunnerFile), is("RUNNER_CONTENT"));
+        assertThat(realFileSystemManager.fileExists(
+                generatedFeatureDir.concat("/").concat(GenerationManifest.FILE_NAME)), is(true));
+
+        // The source feature is unchanged, so nothing is parsed or rendered again.
+        realFileSystemManager.writeContentToFile("STALE", staleRunnerFile);
+        incrementalFeatureFileConverter.generateParallelizableFeatures(incrementalPropertyManager.getSourceFeatures());
+        verify(gherkinDocumentParser, times(1))
+                .getSingleScenariosFromFeature(anyString(), eq(sourceFeatureFile), any());
+        verify(featureFileContentRenderer, times(1)).renderFeatureFileContent(singleScenario);
+        assertThat(realFileSystemManager.readContentFromFile(generatedFeatureFile), is("FEATURE_CONTENT"));
+        assertThat(realFileSystemManager.fileExists(staleRunnerFile), is(false));
+        assertThat(realFileSystemManager.readContentFromFile(
+                        generatedFeatureDir.concat("/generated-features.properties")),
+                is("source_1_scenario001_run001_IT=" + sourceFeatureFile + ":1\n"));
+
+        // A changed source feature is parsed and rendered again.
+        realFileSystemManager.removeFileIfExists(sourceFeatureFile);
+        realFileSystemManager.writeContentToFile("CHANGED_SOURCE_CONTENT", sourceFeatureFile);
+        incrementalFeatureFileConverter.generateParallelizableFeatures(incrementalPropertyManager.getSourceFeatures());
+        verify(gherkinDocumentParser, times(1))
+                .getSingleScenariosFromFeature(eq("CHANGED_SOURCE_CONTENT"), eq(sourceFeatureFile), any());
+        verify(featureFileContentRenderer, times(2)).renderFeatureFileContent(singleScenario);
+        assertThat(realFileSystemManager.readContentFromFile(generatedFeatureFile), is("FEATURE_CONTENT"));
+    }
+
+    @Test
+    public void runnersAreBalancedByRecordedDurationsTest() throws Exception {
+        String generatedFeatureDir = testFolder.getRoot().getPath().concat("/features/");
+        String generatedRunnerDir = testFolder.getRoot().getPath().concat("/runners/");
+        final String FEATURE_FILE_NAME = "FEATURE_FILE.feature";
+
+        propertyManager.setNumberOfTestRuns(1);
+        propertyManager.setGeneratedFeatureDirectory(generatedFeatureDir);
+        propertyManager.setGeneratedRunnerDirectory(generatedRunnerDir);
+        propertyManager.setDesiredNumberOfRunners(2);
+        propertyManager.setDurationHistory("reports");
+        propertyManager.setParallelizationMode(PropertyManager.ParallelizationMode.SCENARIOS.toString());
+
+        when(fileSystemManager.readContentFromFile(FEATURE_FILE_NAME)).thenReturn("TEST_CONTENT");
+        CucableFeature cucableFeature = new CucableFeature("", "", FEATURE_FILE_NAME, null);
+        when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
+                .thenReturn(Collections.singletonList(Paths.get(cucableFeature.getName())));
+
+        List<SingleScenario> scenarioList = new ArrayList<>();
+        for (int lineNumber = 1; lineNumber <= 4; lineNumber++) {
+            scenarioList.add(new SingleScenario(
+                    "feature", FEATURE_FILE_NAME, "", "featureDescription", "name",
+                    lineNumber, "scenarioDescription", new ArrayList<>(), new ArrayList<>()));
+        }
+        when(gherkinDocumentParser.getSingleScenariosFromFeature("TEST_CONTENT", FEATURE_FILE_NAME, null))
+                .thenReturn(scenarioList);
+        when(featureFileContentRenderer.renderFeatureFileContent(any(SingleScenario.class))).thenReturn("test");
+        when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
+                .thenReturn("RUNNER_CONTENT");
+
+        DurationHistory durationHistory = new DurationHistory();
+        durationHistory.addDuration(FEATURE_FILE_NAME, 1, 100);
+        durationHistory.addDuration(FEATURE_FILE_NAME, 2, 10);
+        durationHistory.addDuration(FEATURE_FILE_NAME, 3, 10);
+        when(durationHistoryReader.readDurationHistory(eq("reports"), anyString(), anyMap())).thenReturn(durationHistory);
+
+        featureFileConverter.generateParallelizableFeatures(Collections.singletonList(cucableFeature));
+
+        // The long scenario gets its own runner, the unknown scenario is estimated like the recorded ones (40).
+        ArgumentCaptor<FeatureRunner> runnerCaptor = ArgumentCaptor.forClass(FeatureRunner.class);
+        verify(runnerFileContentRenderer, times(2)).getRenderedRunnerFileContent(runnerCaptor.capture());
+        List<FeatureRunner> featureRunners = runnerCaptor.getAllValues();
+        assertThat(featureRunners.get(0).getFeatureFileNames(),
+                is(Collections.singletonList("FEATURE_FILE_1_scenario001_run001_IT")));
+        assertThat(featureRunners.get(1).getFeatureFileNames().size(), is(3));
+    }
+
+    @Test
+    public void runnersAreBalancedByScenarioWeightTest() throws Exception {
+        String generatedFeatureDir = testFolder.getRoot().getPath().concat("/features/");
+        String generatedRunnerDir = testFolder.getRoot().getPath().concat("/runners/");
+        final String FEATURE_FILE_NAME = "FEATURE_FILE.feature";
+
+        propertyManager.setNumberOfTestRuns(1);
+        propertyManager.setGeneratedFeatureDirectory(generatedFeatureDir);
+        propertyManager.setGeneratedRunnerDirectory(generatedRunnerDir);
+        propertyManager.setDesiredNumberOfRunners(2);
+        propertyManager.setBalanceByScenarioWeight(true);
+        propertyManager.setTagWeights("@slow=10");
+        propertyManager.setParallelizationMode(PropertyManager.ParallelizationMode.SCENARIOS.toString());
+
+        when(fileSystemManager.readContentFromFile(FEATURE_FILE_NAME)).thenReturn("TEST_CONTENT");
+        CucableFeature cucableFeature = new CucableFeature("", "", FEATURE_FILE_NAME, null);
+        when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
+                .thenReturn(Collections.singletonList(Paths.get(cucableFeature.getName())));
+
+        List<SingleScenario> scenarioList = new ArrayList<>();
+        for (int lineNumber = 1; lineNumber <= 4; lineNumber++) {
+            scenarioList.add(new SingleScenario(
+                    "feature", FEATURE_FILE_NAME, "", "featureDescription", "name",
+                    lineNumber, "scenarioDescription", new ArrayList<>(), new ArrayList<>()));
+        }
+        scenarioList.get(3).setScenarioTags(Collections.singletonList("@slow"));
+        when(gherkinDocumentParser.getSingleScenariosFromFeature("TEST_CONTENT", FEATURE_FILE_NAME, null))
+                .thenReturn(scenarioList);
+        when(featureFileContentRenderer.renderFeatureFileContent(any(SingleScenario.class))).thenReturn("test");
+        when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
+                .thenReturn("RUNNER_CONTENT");
+
+        featureFileConverter.generateParallelizableFeatures(Collections.singletonList(cucableFeature));
+
+        ArgumentCaptor<FeatureRunner> runnerCaptor = ArgumentCaptor.forClass(FeatureRunner.class);
+        verify(runnerFileContentRenderer, times(2)).getRenderedRunnerFileContent(runnerCaptor.capture());
+        List<FeatureRunner> featureRunners = runnerCaptor.getAllValues();
+        assertThat(featureRunners.get(0).getFeatureFileNames(),
+                is(Collections.singletonList("FEATURE_FILE_1_scenario004_run001_IT")));
+        assertThat(featureRunners.get(1).getFeatureFileNames().size(), is(3));
+        verify(durationHistoryReader, never()).readDurationHistory(anyString(), anyString(), anyMap());
+    }
+
+    @Test
+    public void completeFeaturesAreBalancedBySummedScenarioWeightTest() throws Exception {
+        propertyManager.setNumberOfTestRuns(1);
+        propertyManager.setGeneratedFeatureDirectory(testFolder.getRoot().getPath().concat("/features/"));
+        propertyManager.setGeneratedRunnerDirectory(testFolder.getRoot().getPath().concat("/runners/"));
+        propertyManager.setDesiredNumberOfRunners(2);
+        propertyManager.setBalanceByScenarioWeight(true);
+        propertyManager.setParallelizationMode(PropertyManager.ParallelizationMode.FEATURES.toString());
+
+        List<CucableFeature> cucableFeatures = new ArrayList<>();
+        int[] scenarioCounts = {1, 4, 1};
+        String[] featureFileNames = {"A.feature", "B.feature", "C.feature"};
+        for (int i = 0; i < featureFileNames.length; i++) {
+            CucableFeature cucableFeature = new CucableFeature("", "", featureFileNames[i], null);
+            cucableFeatures.add(cucableFeature);
+            when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
+                    .thenReturn(Collections.singletonList(Paths.get(featureFileNames[i])));
+            when(fileSystemManager.readContentFromFile(featureFileNames[i])).thenReturn(featureFileNames[i]);
+            List<SingleScenario> scenarioList = new ArrayList<>();
+            for (int lineNumber = 1; lineNumber <= scenarioCounts[i]; lineNumber++) {
+                scenarioList.add(getSingleScenario());
+            }
+            when(gherkinDocumentParser.getSingleScenariosFromFeature(featureFileNames[i], featureFileNames[i], null))
+                    .thenReturn(scenarioList);
+        }
+        when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
+                .thenReturn("RUNNER_CONTENT");
+
+        featureFileConverter.generateParallelizableFeatures(cucableFeatures);
+
+        // The feature with four scenarios outweighs both other features together.
+        ArgumentCaptor<FeatureRunner> runnerCaptor = ArgumentCaptor.forClass(FeatureRunner.class);
+        verify(runnerFileContentRenderer, times(2)).getRenderedRunnerFileContent(runnerCaptor.capture());
+        List<FeatureRunner> featureRunners = runnerCaptor.getAllValues();
+        assertThat(featureRunners.get(0).getFeatureFileNames(),
+                is(Collections.singletonList("B_2_feature001_run001_IT")));
+        assertThat(featureRunners.get(1).getFeatureFileNames().size(), is(2));
+    }
+
+    @Test
+    public void hashNamesDoNotDependOnOtherSourceFeaturesTest() throws Exception {
+        propertyManager.setNamingMode("hash");
+        List<String> namesWithoutPrecedingFeature = generateFeatureNames(Collections.singletonList("B.feature"));
+        setup();
+        propertyManager.setNamingMode("hash");
+        List<String> namesWithPrecedingFeature = generateFeatureNames(Arrays.asList("A.feature", "B.feature"));
+
+        assertThat(namesWithoutPrecedingFeature.size(), is(2));
+        assertThat(namesWithPrecedingFeature.size(), is(4));
+        assertThat(namesWithPrecedingFeature.subList(2, 4), is(namesWithoutPrecedingFeature));
+        assertThat(namesWithoutPrecedingFeature.get(0).matches("B_[0-9a-f]{12}_run001_IT"), is(true));
+        assertThat(namesWithoutPrecedingFeature.get(0).equals(namesWithoutPrecedingFeature.get(1)), is(false));
+    }
+
+    @Test
+    public void namesAreStableAcrossRepeatedExecutionsTest() throws Exception {
+        propertyManager.setNamingMode("hash");
+        List<String> firstExecutionNames = generateFeatureNames(Collections.singletonList("B.feature"));
+        // The runner renderer captures the runners of all executions.
+        List<String> allExecutionNames = generateFeatureNames(Collections.singletonList("B.feature"));
+
+        assertThat(firstExecutionNames.size(), is(2));
+        assertThat(allExecutionNames.subList(2, 4), is(firstExecutionNames));
+
+        propertyManager.setNamingMode("counter");
+        generateFeatureNames(Collections.singletonList("B.feature"));
+        allExecutionNames = generateFeatureNames(Collections.singletonList("B.feature"));
+
+        assertThat(allExecutionNames.subList(4, 6),
+                is(Arrays.asList("B_1_scenario001_run001_IT", "B_1_scenario002_run001_IT")));
+        assertThat(allExecutionNames.subList(6, 8), is(allExecutionNames.subList(4, 6)));
+    }
+
+    @Test
+    public void multiRunnerNamesAreDerivedFromFeaturesTest() throws Exception {
+        propertyManager.setDesiredNumberOfRunners(1);
+        List<String> firstRunnerNames = generateRunnerClassNames(Arrays.asList("A.feature", "B.feature"));
+        setup();
+        propertyManager.setDesiredNumberOfRunners(1);
+        List<String> secondRunnerNames = generateRunnerClassNames(Arrays.asList("A.feature", "B.feature"));
+
+        assertThat(firstRunnerNames.size(), is(1));
+        assertThat(firstRunnerNames.get(0).matches("CucableMultiRunner_[0-9a-f]{32}_IT"), is(true));
+        assertThat(secondRunnerNames, is(firstRunnerNames));
+    }
+
+    @Test
+    public void lineReferencesDoNotWriteFeatureFilesTest() throws Exception {
+        propertyManager.setLineReferences(true);
+        propertyManager.setDesiredNumberOfRunners(1);
+        List<FeatureRunner> featureRunners = generateRunners(Collections.singletonList("A.feature"));
+
+        assertThat(featureRunners.size(), is(1));
+        assertThat(featureRunners.get(0).getFeatureReferences(), is(Arrays.asList("A.feature:1", "A.feature:1")));
+        verify(featureFileContentRenderer, never()).renderFeatureFileContent(any(SingleScenario.class));
+        verify(featureFileContentRenderer, never()).getRenderedFeatureFileContent(any(SingleScenario.class));
+        verify(fileSystemManager, never()).writeContentToFile(anyString(), endsWith(".feature"));
+    }
+
+    @Test
+    public void balancedShardsMapDurationsViaAllGeneratedFeaturesTest() throws Exception {
+        propertyManager.setDurationHistory("reports");
+        when(durationHistoryReader.readDurationHistory(eq("reports"), isNull(), anyMap()))
+                .thenReturn(new DurationHistory());
+
+        generateShardFeatureNames(Arrays.asList("A.feature", "B.feature", "C.feature"), 0);
+
+        // The properties file of a node only lists its own shard, so it must not influence the assignment.
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, GeneratedFeature>> featuresCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(durationHistoryReader).readDurationHistory(eq("reports"), isNull(), featuresCaptor.capture());
+        assertThat(featuresCaptor.getValue().size(), is(6));
+    }
+
+    @Test
+    public void scenariosAreReleasedBeforeRunnerGenerationTest() throws Exception {
+        propertyManager.setDurationHistory("reports");
+        when(durationHistoryReader.readDurationHistory(eq("reports"), isNull(), anyMap()))
+                .thenReturn(new DurationHistory());
+
+        // Only the first shard is written, the scenarios of the other shard have to be released as well.
+        generateShardFeatureNames(Arrays.asList("A.feature", "B.feature", "C.feature"), 0);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, GeneratedFeature>> featuresCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(durationHistoryReader).readDurationHistory(eq("reports"), isNull(), featuresCaptor.capture());
+        assertThat(featuresCaptor.getValue().size(), is(6));
+        for (GeneratedFeature generatedFeature : featuresCaptor.getValue().values()) {
+            assertThat(generatedFeature.getSingleScenario() == null, is(true));
+        }
+    }
+
+    @Test
+    public void balancedShardsSplitAllFeaturesTest() throws Exception {
+        List<String> featureFileNames = Arrays.asList("A.feature", "B.feature", "C.feature");
+        List<String> firstShardNames = generateShardFeatureNames(featureFileNames, 0);
+        setup();
+        List<String> secondShardNames = generateShardFeatureNames(featureFileNames, 1);
+        setup();
+        List<String> allNames = generateFeatureNames(featureFileNames);
+
+        assertThat(firstShardNames.size(), is(3));
+        assertThat(secondShardNames.size(), is(3));
+        List<String> shardNames = new ArrayList<>(firstShardNames);
+        shardNames.addAll(secondShardNames);
+        Collections.sort(shardNames);
+        Collections.sort(allNames);
+        assertThat(shardNames, is(allNames));
+        verify(fileSystemManager, never()).writeContentToFileAtomically(anyString(), endsWith(ShardManifest.FILE_NAME));
+    }
+
+    @Test
+    public void shardManifestIsWrittenTest() throws Exception {
+        generateShardFeatureNames(Arrays.asList("A.feature", "B.feature"), 0);
+
+        verify(fileSystemManager).writeContentToFileAtomically(
+                contains("\"shardIndex\": 1, \"features\": 2"), endsWith(ShardManifest.FILE_NAME));
+    }
+
+    private List<String> generateShardFeatureNames(
+            final List<String> featureFileNames, final int shardIndex) throws Exception {
+        propertyManager.setShardCount(2);
+        propertyManager.setShardIndex(shardIndex);
+        propertyManager.setShardAssignment("balanced");
+        return generateFeatureNames(featureFileNames);
+    }
+
+    private List<String> generateFeatureNames(final List<String> featureFileNames) throws Exception {
+        List<String> generatedFeatureNames = new ArrayList<>();
+        for (FeatureRunner featureRunner : generateRunners(featureFileNames)) {
+            generatedFeatureNames.addAll(featureRunner.getFeatureFileNames());
+        }
+        return generatedFeatureNames;
+    }
+
+    private List<String> generateRunnerClassNames(final List<String> featureFileNames) throws Exception {
+        List<String> runnerClassNames = new ArrayList<>();
+        for (FeatureRunner featureRunner : generateRunners(featureFileNames)) {
+            runnerClassNames.add(featureRunner.getRunnerClassName());
+        }
+        return runnerClassNames;
+    }
+
+    private List<FeatureRunner> generateRunners(final List<String> featureFileNames) throws Exception {
+        propertyManager.setNumberOfTestRuns(1);
+        propertyManager.setGeneratedFeatureDirectory(testFolder.getRoot().getPath().concat("/features/"));
+        propertyManager.setGeneratedRunnerDirectory(testFolder.getRoot().getPath().concat("/runners/"));
+        propertyManager.setParallelizationMode(PropertyManager.ParallelizationMode.SCENARIOS.toString());
+
+        List<CucableFeature> cucableFeatures = new ArrayList<>();
+        for (String featureFileName : featureFileNames) {
+            CucableFeature cucableFeature = new CucableFeature("", "", featureFileName, null);
+            cucableFeatures.add(cucableFeature);
+            when(fileSystemManager.getPathsFromCucableFeature(eq(cucableFeature), anyList(), anyList()))
+                    .thenReturn(Collections.singletonList(Paths.get(featureFileName)));
+            when(fileSystemManager.readContentFromFile(featureFileName)).thenReturn(featureFileName);
+            List<SingleScenario> scenarioList = new ArrayList<>();
+            for (String scenarioName : Arrays.asList("first", "second")) {
+                scenarioList.add(new SingleScenario(
+                        "feature", featureFileName, "", "", scenarioName, 1, "", new ArrayList<>(), new ArrayList<>()));
+            }
+            when(gherkinDocumentParser.getSingleScenariosFromFeature(featureFileName, featureFileName, null))
+                    .thenReturn(scenarioList);
+        }
+        when(featureFileContentRenderer.renderFeatureFileContent(any(SingleScenario.class))).thenReturn("test");
+        when(runnerFileContentRenderer.getRenderedRunnerFileContent(any(FeatureRunner.class)))
+                .thenReturn("RUNNER_CONTENT");
+
+        featureFileConverter.generateParallelizableFeatures(cucableFeatures);
+
+        ArgumentCaptor<FeatureRunner> runnerCaptor = ArgumentCaptor.forClass(FeatureRunner.class);
+        verify(runnerFileContentRenderer, atLeastOnce()).getRenderedRunnerFileContent(runnerCaptor.capture());
+        return runnerCaptor.getAllValues();
+    }
+
+    private FeatureFileConverter createIncrementalConverter(
+            final PropertyManager incrementalPropertyManager,
+            final FileSystemManager realFileSystemManager) {
+        return new FeatureFileConverter(
+                incrementalPropertyManager,
+                gherkinDocumentParser,
+                featureFileContentRenderer,
+                runnerFileContentRenderer,
+                realFileSystemManager,
+                durationHistoryReader,
+                new ScenarioWeightEstimator(incrementalPropertyManager),
+                logger
+        );
+    }
+
     private SingleScenario getSingleScenario() {
+        return getSingleScenario("name");
+    }
+
+    private SingleScenario getSingleScenario(final String scenarioName) {
         return new SingleScenario(
                 "feature", "", "",
-                "featureDescription", "name",
+                "featureDescription", scenarioName,
                 1, "scenarioDescription", new ArrayList<>(), new ArrayList<>()
         );
     }
@@ -0,0 +1,83 @@
+package com.trivago.features;
+
+import com.trivago.vo.GeneratedFeature;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class GenerationManifestTest {
+
+    @Test
+    public void roundTripTest() {
+        GenerationManifest manifest = new GenerationManifest("CONFIG");
+        manifest.addEntry("1|a.feature|[]", "HASH", Arrays.asList(
+                new GeneratedFeature("a_1_scenario001_run001_IT", "a.feature", 3, null),
+                new GeneratedFeature("a_1_scenario002_run001_IT", "a.feature", 7, null)
+        ));
+
+        GenerationManifest readManifest = GenerationManifest.fromString(manifest.toString());
+
+        assertThat(readManifest.getConfigurationHash(), is("CONFIG"));
+        List<GeneratedFeature> generatedFeatures =
+                readManifest.getUnchangedGeneratedFeatures("1|a.feature|[]", "a.feature", "HASH");
+        assertThat(generatedFeatures.size(), is(2));
+        assertThat(generatedFeatures.get(1).getName(), is("a_1_scenario002_run001_IT"));
+        assertThat(generatedFeatures.get(1).getSourceLineNumber(), is(7));
+        assertThat(generatedFeatures.get(1).getSourceFeatureFilePath(), is("a.feature"));
+    }
+
+    @Test
+    public void roundTripScenarioMetadataTest() {
+        GenerationManifest manifest = new GenerationManifest("CONFIG");
+        manifest.addEntry("1|a.feature|[]", "HASH", Arrays.asList(
+                new GeneratedFeature("a_1_scenario001_run001_IT", "a.feature", 3, "de",
+                        "Szenario: Tab\tand \\ name", Arrays.asList("@feature", "@smoke"), 12, null),
+                new GeneratedFeature("a_1_scenario002_run001_IT", "a.feature", 7, "",
+                        "Scenario: second", Collections.emptyList(), 1, null)
+        ));
+
+        List<GeneratedFeature> generatedFeatures = GenerationManifest.fromString(manifest.toString())
+                .getUnchangedGeneratedFeatures("1|a.feature|[]", "a.feature", "HASH");
+
+        assertThat(generatedFeatures.get(0).getLanguage(), is("de"));
+        assertThat(generatedFeatures.get(0).getScenarioName(), is("Szenario: Tab\tand \\ name"));
+        assertThat(generatedFeatures.get(0).getTags(), is(Arrays.asList("@feature", "@smoke")));
+        assertThat(generatedFeatures.get(0).getWeight(), is(12L));
+        assertThat(generatedFeatures.get(1).getScenarioName(), is("Scenario: second"));
+        assertThat(generatedFeatures.get(1).getTags(), is(Collections.emptyList()));
+        assertThat(generatedFeatures.get(1).getWeight(), is(1L));
+    }
+
+    @Test
+    public void changedOrUnknownSourceTest() {
+        GenerationManifest manifest = new GenerationManifest("CONFIG");
+        manifest.addEntry("1|a.feature|[]", "HASH", Arrays.asList(
+                new GeneratedFeature("a_1_feature001_run001_IT", "a.feature", 1, null)
+        ));
+
+        assertThat(manifest.getUnchangedGeneratedFeatures("1|a.feature|[]", "a.feature", "OTHER"), is(nullValue()));
+        assertThat(manifest.getUnchangedGeneratedFeatures("2|a.feature|[]", "a.feature", "HASH"), is(nullValue()));
+    }
+
+    @Test
+    public void invalidManifestTest() {
+        assertThat(GenerationManifest.fromString("invalid"), is(nullValue()));
+        assertThat(GenerationManifest.fromString("configuration\tCONFIG\nsource\tkey\tHASH\tname:x"), is(nullValue()));
+        assertThat(GenerationManifest.fromString(""), is(nullValue()));
+        assertThat(GenerationManifest.fromString("configuration\tCONFIG\nsource\tkey\tHASH\tname:1"), is(nullValue()));
+        assertThat(GenerationManifest.fromString("version\t1\nconfiguration\tCONFIG\nsource\tkey\tHASH\tname:1\n"
+                + "metadata\ten\t\t1\tScenario: name"), is(nullValue()));
+    }
+
+    @Test
+    public void hashTest() {
+        assertThat(GenerationManifest.hash("test"),
+                is("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08"));
+    }
+}
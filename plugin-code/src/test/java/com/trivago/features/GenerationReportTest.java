@@ -0,0 +1,69 @@
+package com.trivago.features;
+
+import com.trivago.files.FileSystemManager;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class GenerationReportTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    private FileSystemManager fileSystemManager;
+    private GenerationReport generationReport;
+
+    @Before
+    public void setup() {
+        fileSystemManager = new FileSystemManager();
+        generationReport = new GenerationReport(fileSystemManager);
+    }
+
+    @Test
+    public void phasesCountFileAccessTest() throws Exception {
+        String path = testFolder.getRoot().getPath().concat("/test.feature");
+        fileSystemManager.writeContentToFile("before", path);
+
+        generationReport.startPhase("writing");
+        fileSystemManager.writeContentToFile("12345", path);
+        generationReport.endPhase(1);
+        generationReport.startPhase("reading");
+        fileSystemManager.readContentFromFile(path);
+        generationReport.endPhase(2);
+
+        String json = generationReport.toString();
+        assertThat(json, containsString("{\"phase\": \"writing\""));
+        assertThat(json, containsString("\"filesRead\": 0, \"filesWritten\": 1, \"bytesRead\": 0, \"bytesWritten\": 5, \"items\": 1"));
+        assertThat(json, containsString("\"filesRead\": 1, \"filesWritten\": 0, \"bytesRead\": 11, \"bytesWritten\": 0, \"items\": 2"));
+        assertThat(json, containsString("\"total\": {\"phase\": \"total\""));
+        assertThat(json, containsString("\"bytesRead\": 11, \"bytesWritten\": 5, \"items\": 2"));
+    }
+
+    @Test
+    public void startingPhaseEndsRunningPhaseTest() {
+        generationReport.startPhase("first");
+        generationReport.startPhase("second");
+        generationReport.endPhase(3);
+
+        List<String> summaryLines = generationReport.getSummaryLines();
+        assertThat(summaryLines.size(), is(4));
+        assertThat(summaryLines.get(0), startsWith("- phase"));
+        assertThat(summaryLines.get(1), startsWith("- first"));
+        assertThat(summaryLines.get(2), startsWith("- second"));
+        assertThat(summaryLines.get(3), startsWith("- total"));
+    }
+
+    @Test
+    public void emptyReportTest() {
+        assertThat(generationReport.toString(), containsString("\"phases\": [\n  ]"));
+        assertThat(generationReport.getSummaryLines().size(), is(2));
+    }
+}
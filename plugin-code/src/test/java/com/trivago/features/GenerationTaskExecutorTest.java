@@ -0,0 +1,87 @@
+package com.trivago.features;
+
+import com.trivago.exceptions.CucablePluginException;
+import com.trivago.exceptions.filesystem.FeatureFileParseException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+public class GenerationTaskExecutorTest {
+
+    @Test
+    public void sequentialResultOrderTest() throws CucablePluginException {
+        GenerationTaskExecutor taskExecutor = new GenerationTaskExecutor(1);
+        List<Integer> results = taskExecutor.processAll(Arrays.asList(1, 2, 3), input -> input * 2);
+        assertThat(results, is(Arrays.asList(2, 4, 6)));
+    }
+
+    @Test
+    public void parallelResultOrderTest() throws CucablePluginException {
+        GenerationTaskExecutor taskExecutor = new GenerationTaskExecutor(4);
+        List<Integer> inputs = IntStream.range(0, 500).boxed().collect(Collectors.toList());
+        List<String> results = taskExecutor.processAll(inputs, String::valueOf);
+        assertThat(results, is(inputs.stream().map(String::valueOf).collect(Collectors.toList())));
+    }
+
+    @Test
+    public void singleErrorIsRethrownTest() {
+        GenerationTaskExecutor taskExecutor = new GenerationTaskExecutor(4);
+        try {
+            taskExecutor.processAll(Arrays.asList("a.feature", "b.feature"), input -> {
+                if (input.equals("b.feature")) {
+                    throw new FeatureFileParseException(input, "error");
+                }
+                return input;
+            });
+            fail("Expected exception was not thrown.");
+        } catch (CucablePluginException e) {
+            assertThat(e, instanceOf(FeatureFileParseException.class));
+        }
+    }
+
+    @Test
+    public void runtimeExceptionKeepsTypeAndCauseTest() {
+        GenerationTaskExecutor taskExecutor = new GenerationTaskExecutor(4);
+        NullPointerException cause = new NullPointerException();
+        try {
+            taskExecutor.processAll(Arrays.asList("a.feature", "b.feature"), input -> {
+                if (input.equals("b.feature")) {
+                    throw cause;
+                }
+                return input;
+            });
+            fail("Expected exception was not thrown.");
+        } catch (CucablePluginException e) {
+            assertThat(e.getMessage(), is("java.lang.NullPointerException"));
+            assertThat(e.getCause(), is(cause));
+        }
+    }
+
+    @Test
+    public void multipleErrorsAreCollectedTest() {
+        GenerationTaskExecutor taskExecutor = new GenerationTaskExecutor(4);
+        try {
+            taskExecutor.processAll(Arrays.asList("a.feature", "b.feature", "c.feature"), input -> {
+                if (!input.equals("b.feature")) {
+                    throw new FeatureFileParseException(input, "error");
+                }
+                return input;
+            });
+            fail("Expected exception was not thrown.");
+        } catch (CucablePluginException e) {
+            assertThat(e.getMessage(), containsString("2 errors occurred during feature generation:"));
+            assertThat(e.getMessage(), containsString("Could not parse feature file 'a.feature': error"));
+            assertThat(e.getMessage(), containsString("Could not parse feature file 'c.feature': error"));
+            assertThat(e.getSuppressed().length, is(2));
+        }
+    }
+}
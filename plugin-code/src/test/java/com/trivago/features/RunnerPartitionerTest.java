@@ -0,0 +1,56 @@
+package com.trivago.features;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RunnerPartitionerTest {
+
+    @Test
+    public void mostExpensiveFeaturesAreDistributedFirstTest() {
+        List<String> names = Arrays.asList("a", "b", "c", "d", "e");
+        Map<String, Long> costs = new HashMap<>();
+        costs.put("a", 1L);
+        costs.put("b", 9L);
+        costs.put("c", 5L);
+        costs.put("d", 4L);
+        costs.put("e", 3L);
+
+        List<List<String>> runners = RunnerPartitioner.partitionByCost(names, costs, 2, Integer.MAX_VALUE);
+
+        assertThat(runners.get(0), is(Arrays.asList("b", "e")));
+        assertThat(runners.get(1), is(Arrays.asList("a", "c", "d")));
+    }
+
+    @Test
+    public void maxFeaturesPerRunnerIsRespectedTest() {
+        List<String> names = Arrays.asList("a", "b", "c", "d");
+        Map<String, Long> costs = new HashMap<>();
+        costs.put("a", 100L);
+        costs.put("b", 1L);
+        costs.put("c", 1L);
+        costs.put("d", 1L);
+
+        List<List<String>> runners = RunnerPartitioner.partitionByCost(names, costs, 2, 2);
+
+        assertThat(runners.get(0), is(Arrays.asList("a", "d")));
+        assertThat(runners.get(1), is(Arrays.asList("b", "c")));
+    }
+
+    @Test
+    public void moreRunnersThanFeaturesTest() {
+        List<List<String>> runners = RunnerPartitioner.partitionByCost(
+                Collections.singletonList("a"), Collections.singletonMap("a", 1L), 3, Integer.MAX_VALUE);
+
+        assertThat(runners.size(), is(3));
+        assertThat(runners.get(0), is(Collections.singletonList("a")));
+        assertThat(runners.get(2).isEmpty(), is(true));
+    }
+}
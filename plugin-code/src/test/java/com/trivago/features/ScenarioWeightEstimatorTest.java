@@ -0,0 +1,74 @@
+package com.trivago.features;
+
+import com.trivago.files.FileSystemManager;
+import com.trivago.logging.CucableLogger;
+import com.trivago.properties.PropertyManager;
+import com.trivago.vo.DataTable;
+import com.trivago.vo.SingleScenario;
+import com.trivago.vo.Step;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class ScenarioWeightEstimatorTest {
+
+    private PropertyManager propertyManager;
+    private ScenarioWeightEstimator scenarioWeightEstimator;
+
+    @Before
+    public void setup() {
+        propertyManager = new PropertyManager(mock(CucableLogger.class), mock(FileSystemManager.class));
+        scenarioWeightEstimator = new ScenarioWeightEstimator(propertyManager);
+    }
+
+    @Test
+    public void emptyScenarioTest() {
+        assertThat(scenarioWeightEstimator.estimateWeight(getScenario(new ArrayList<>(), new ArrayList<>())),
+                is(10L));
+    }
+
+    @Test
+    public void stepsDataTablesAndDocStringsTest() {
+        DataTable dataTable = new DataTable();
+        dataTable.addRow(Arrays.asList("a", "b"));
+        dataTable.addRow(Arrays.asList("1", "2"));
+        dataTable.addRow(Arrays.asList("3", "4"));
+        char[] docString = new char[101];
+        Arrays.fill(docString, 'x');
+
+        List<Step> backgroundSteps = Collections.singletonList(new Step("Given background", null, null));
+        List<Step> steps = Arrays.asList(
+                new Step("Given a table", dataTable, null),
+                new Step("When a doc string", null, new String(docString))
+        );
+
+        // 10 (scenario) + 3 * 10 (steps) + 3 * 2 (table rows) + 2 (doc string of 101 characters)
+        assertThat(scenarioWeightEstimator.estimateWeight(getScenario(backgroundSteps, steps)), is(48L));
+    }
+
+    @Test
+    public void tagWeightsTest() throws Exception {
+        propertyManager.setTagWeights("@slow=10, @db=3, @unused=7");
+        SingleScenario singleScenario = getScenario(new ArrayList<>(), new ArrayList<>());
+        singleScenario.setScenarioTags(Arrays.asList("@slow", "@other"));
+        singleScenario.setExampleTags(Collections.singletonList("@db"));
+
+        assertThat(scenarioWeightEstimator.estimateWeight(singleScenario), is(300L));
+    }
+
+    private SingleScenario getScenario(final List<Step> backgroundSteps, final List<Step> steps) {
+        SingleScenario singleScenario = new SingleScenario(
+                "feature", "test.feature", "en", "", "scenario", 3, "",
+                Collections.singletonList("@feature"), backgroundSteps);
+        singleScenario.setSteps(steps);
+        return singleScenario;
+    }
+}
@@ -0,0 +1,66 @@
+package com.trivago.features;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ShardAssignerTest {
+
+    @Test
+    public void hashAssignmentIsStableTest() {
+        List<String> shardKeys = getShardKeys(100);
+        int[] shards = ShardAssigner.assignByHash(shardKeys, 4);
+        int[] shardCounts = new int[4];
+        for (int shard : shards) {
+            shardCounts[shard]++;
+        }
+        assertThat(ShardAssigner.assignByHash(shardKeys, 4), is(shards));
+        for (int shardCount : shardCounts) {
+            assertThat(shardCount > 10, is(true));
+        }
+    }
+
+    @Test
+    public void hashAssignmentOnlyMovesFeaturesToNewShardsTest() {
+        List<String> shardKeys = getShardKeys(200);
+        int[] fourShards = ShardAssigner.assignByHash(shardKeys, 4);
+        int[] fiveShards = ShardAssigner.assignByHash(shardKeys, 5);
+        for (int i = 0; i < shardKeys.size(); i++) {
+            assertThat(fiveShards[i] == fourShards[i] || fiveShards[i] == 4, is(true));
+        }
+    }
+
+    @Test
+    public void singleShardTest() {
+        assertThat(ShardAssigner.getJumpConsistentHash(123456789L, 1), is(0));
+    }
+
+    @Test
+    public void costAssignmentBalancesShardsTest() {
+        List<String> featureNames = Arrays.asList("a", "b", "c", "d");
+        Map<String, Long> featureCosts = new HashMap<>();
+        featureCosts.put("a", 10L);
+        featureCosts.put("b", 2L);
+        featureCosts.put("c", 7L);
+        featureCosts.put("d", 5L);
+
+        int[] shards = ShardAssigner.assignByCost(featureNames, featureCosts, 2);
+
+        assertThat(shards, is(new int[]{0, 0, 1, 1}));
+    }
+
+    private List<String> getShardKeys(final int numberOfKeys) {
+        List<String> shardKeys = new ArrayList<>();
+        for (int i = 0; i < numberOfKeys; i++) {
+            shardKeys.add("features/Feature" + (i % 10) + ".feature:" + i + "#1");
+        }
+        return shardKeys;
+    }
+}
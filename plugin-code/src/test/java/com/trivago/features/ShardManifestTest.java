@@ -0,0 +1,42 @@
+package com.trivago.features;
+
+import com.trivago.properties.PropertyManager;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ShardManifestTest {
+
+    @Test
+    public void toStringTest() {
+        ShardManifest shardManifest = new ShardManifest(2, PropertyManager.ShardAssignment.BALANCED, true);
+        shardManifest.addFeature(0, 10);
+        shardManifest.addFeature(1, 4);
+        shardManifest.addFeature(1, 5);
+
+        assertThat(shardManifest.getFeatureCount(1), is(2));
+        assertThat(shardManifest.toString(), is("{\n" +
+                "  \"shardCount\": 2,\n" +
+                "  \"shardAssignment\": \"balanced\",\n" +
+                "  \"shards\": [\n" +
+                "    {\"shardIndex\": 0, \"features\": 1, \"estimatedCost\": 10},\n" +
+                "    {\"shardIndex\": 1, \"features\": 2, \"estimatedCost\": 9}\n" +
+                "  ]\n" +
+                "}\n"));
+    }
+
+    @Test
+    public void toStringWithoutCostsTest() {
+        ShardManifest shardManifest = new ShardManifest(1, PropertyManager.ShardAssignment.HASH, false);
+        shardManifest.addFeature(0, 0);
+
+        assertThat(shardManifest.toString(), is("{\n" +
+                "  \"shardCount\": 1,\n" +
+                "  \"shardAssignment\": \"hash\",\n" +
+                "  \"shards\": [\n" +
+                "    {\"shardIndex\": 0, \"features\": 1}\n" +
+                "  ]\n" +
+                "}\n"));
+    }
+}
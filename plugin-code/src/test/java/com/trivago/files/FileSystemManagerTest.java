@@ -6,12 +6,19 @@ import com.trivago.exceptions.filesystem.MissingFileException;
 import com.trivago.exceptions.filesystem.PathCreationException;
 import com.trivago.vo.CucableFeature;
 import org.hamcrest.core.Is;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -83,6 +90,67 @@ public class FileSystemManagerTest {
         assertThat(pathsFromCucableFeature.size(), is(1));
     }
 
+    @Test
+    public void getPathsFromCucableFeatureWithGlobsTest() throws Exception {
+        Path root = testFolder.getRoot().toPath();
+        createFeatures(root, "b.feature", "a.feature", "checkout/c.feature", "checkout/c.smoke.feature",
+                "node_modules/pkg/n.feature", "fixtures/deep/f.feature", "notes.txt");
+        CucableFeature cucableFeature = new CucableFeature("", "", root.toString(), null);
+
+        List<Path> paths = fileSystemManager.getPathsFromCucableFeature(
+                cucableFeature, Collections.emptyList(), Arrays.asList("node_modules", "fixtures/**"));
+        assertThat(relativize(root, paths), is(Arrays.asList(
+                "a.feature", "b.feature", "checkout/c.feature", "checkout/c.smoke.feature")));
+
+        paths = fileSystemManager.getPathsFromCucableFeature(
+                cucableFeature, Arrays.asList("checkout/**", "a.feature"), Collections.singletonList("*.smoke.feature"));
+        assertThat(relativize(root, paths), is(Arrays.asList("a.feature", "checkout/c.feature")));
+    }
+
+    @Test
+    public void getPathsFromCucableFeatureWithIgnoreFileTest() throws Exception {
+        Path root = testFolder.getRoot().toPath();
+        createFeatures(root, "a.feature", "generated/g.feature", "wip/w.feature");
+        Files.write(root.resolve(".cucableignore"), "# skipped directories\n\ngenerated\nwip/**\n".getBytes());
+        CucableFeature cucableFeature = new CucableFeature("", "", root.toString(), null);
+
+        List<Path> paths = fileSystemManager.getPathsFromCucableFeature(cucableFeature);
+
+        assertThat(relativize(root, paths), is(Collections.singletonList("a.feature")));
+    }
+
+    @Test
+    public void getFilesWithExtensionSkipsSymbolicLinkLoopsTest() throws Exception {
+        Path root = testFolder.getRoot().toPath();
+        createFeatures(root, "a/a.feature", "b/b.feature");
+        try {
+            Files.createSymbolicLink(root.resolve("a/loop"), root);
+            Files.createSymbolicLink(root.resolve("a/linked"), root.resolve("b"));
+        } catch (UnsupportedOperationException | IOException e) {
+            Assume.assumeNoException(e);
+        }
+
+        List<Path> paths = fileSystemManager.getFilesWithExtension(root.toString(), "feature");
+
+        assertThat(relativize(root, paths), is(Arrays.asList("a/a.feature", "a/linked/b.feature", "b/b.feature")));
+    }
+
+    private static void createFeatures(final Path root, final String... relativePaths) throws IOException {
+        for (String relativePath : relativePaths) {
+            Path path = root.resolve(relativePath);
+            Files.createDirectories(path.getParent());
+            Files.write(path, "Feature: test".getBytes());
+        }
+    }
+
+    private static List<String> relativize(final Path root, final List<Path> paths) {
+        List<String> relativePaths = new ArrayList<>();
+        for (Path path : paths) {
+            relativePaths.add(root.relativize(path).toString().replace('\\', '/'));
+        }
+        return relativePaths;
+    }
+
     @Test(expected = FileCreationException.class)
     public void writeToInvalidFileTest() throws Exception {
         fileSystemManager.writeContentToFile(null, "");
@@ -96,9 +164,93 @@ public class FileSystemManagerTest {
         assertThat(fileSystemManager.readContentFromFile(path), Is.is(testString));
     }
 
+    @Test
+    public void writeLargeMultiByteContentTest() throws Exception {
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 200_000) {
+            content.append("Größe äöü € 😀 line ").append(content.length()).append('\n');
+        }
+        String path = testFolder.getRoot().getPath().concat("/large.feature");
+        long bytesWritten = fileSystemManager.getBytesWritten();
+
+        fileSystemManager.writeContentToFile(content, path);
+
+        assertThat(fileSystemManager.readContentFromFile(path), is(content.toString()));
+        assertThat(fileSystemManager.getBytesWritten() - bytesWritten,
+                is((long) content.toString().getBytes(StandardCharsets.UTF_8).length));
+    }
+
     @Test(expected = MissingFileException.class)
     public void readFromMissingFileTest() throws Exception {
         String wrongPath = testFolder.getRoot().getPath().concat("/missing.tmp");
         fileSystemManager.readContentFromFile(wrongPath);
     }
+
+    @Test
+    public void removeFilesFromPathKeepsSpecifiedFilesTest() throws Exception {
+        String path = testFolder.getRoot().getPath();
+        fileSystemManager.writeContentToFile("keep", path.concat("/keep.feature"));
+        fileSystemManager.writeContentToFile("remove", path.concat("/remove.feature"));
+        fileSystemManager.writeContentToFile("other", path.concat("/other.txt"));
+
+        int removedFiles = fileSystemManager.removeFilesFromPath(path, "feature", Collections.singleton("keep"));
+
+        assertThat(removedFiles, is(1));
+        assertThat(fileSystemManager.fileExists(path.concat("/keep.feature")), is(true));
+        assertThat(fileSystemManager.fileExists(path.concat("/remove.feature")), is(false));
+        assertThat(fileSystemManager.fileExists(path.concat("/other.txt")), is(true));
+    }
+
+    @Test
+    public void removeFileIfExistsTest() throws Exception {
+        String path = testFolder.getRoot().getPath().concat("/test.tmp");
+        fileSystemManager.removeFileIfExists(path);
+        fileSystemManager.writeContentToFile("test", path);
+        assertThat(fileSystemManager.fileExists(path), is(true));
+        fileSystemManager.removeFileIfExists(path);
+        assertThat(fileSystemManager.fileExists(path), is(false));
+    }
+
+    @Test
+    public void duplicateFileTest() throws Exception {
+        String sourcePath = testFolder.getRoot().getPath().concat("/source.feature");
+        String path = testFolder.getRoot().getPath().concat("/copy.feature");
+        fileSystemManager.writeContentToFile("content", sourcePath);
+        fileSystemManager.writeContentToFile("stale", path);
+        fileSystemManager.duplicateFile(sourcePath, path, "content");
+        assertThat(fileSystemManager.readContentFromFile(path), is("content"));
+        assertThat(fileSystemManager.readContentFromFile(sourcePath), is("content"));
+    }
+
+    @Test
+    public void duplicateFileWithMissingSourceWritesContentTest() throws Exception {
+        String path = testFolder.getRoot().getPath().concat("/copy.feature");
+        fileSystemManager.duplicateFile(testFolder.getRoot().getPath().concat("/missing.feature"), path, "content");
+        assertThat(fileSystemManager.readContentFromFile(path), is("content"));
+    }
+
+    @Test
+    public void writeContentToFileAtomicallyReplacesContentTest() throws Exception {
+        String path = testFolder.getRoot().getPath().concat("/test.properties");
+        fileSystemManager.writeContentToFile("old=content\n", path);
+        fileSystemManager.writeContentToFileAtomically("new=content\n", path);
+        assertThat(fileSystemManager.readContentFromFile(path), is("new=content\n"));
+        assertThat(testFolder.getRoot().list().length, is(1));
+    }
+
+    @Test
+    public void writeContentToFileAtomicallyKeepsDefaultPermissionsTest() throws Exception {
+        Path path = testFolder.getRoot().toPath().resolve("test.properties");
+        Path defaultPath = testFolder.getRoot().toPath().resolve("default.properties");
+        Assume.assumeTrue(path.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        fileSystemManager.writeContentToFile("content\n", defaultPath.toString());
+        fileSystemManager.writeContentToFileAtomically("content\n", path.toString());
+        assertThat(Files.getPosixFilePermissions(path), is(Files.getPosixFilePermissions(defaultPath)));
+    }
+
+    @Test(expected = FileCreationException.class)
+    public void writeContentToFileAtomicallyInMissingDirectoryTest() throws Exception {
+        fileSystemManager.writeContentToFileAtomically(
+                "test", testFolder.getRoot().getPath().concat("/missing/test.properties"));
+    }
 }
@@ -0,0 +1,101 @@
+package com.trivago.gherkin;
+
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionException;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class CompiledTagExpressionTest {
+
+    private static final List<String> TAGS = Arrays.asList("@a", "@b", "@c", "@d", "@e");
+
+    @Test
+    public void matchesTest() {
+        CompiledTagExpression tagExpression = CompiledTagExpression.compile("@smoke and not @wip");
+
+        assertThat(tagExpression.matches(
+                Collections.singletonList("@smoke"), Collections.emptyList(), Collections.emptyList()), is(true));
+        assertThat(tagExpression.matches(
+                Collections.emptyList(), Collections.singletonList("@smoke"), Collections.singletonList("@wip")),
+                is(false));
+        assertThat(tagExpression.matches(
+                Collections.singletonList("@other"), Collections.emptyList(), Collections.emptyList()), is(false));
+        assertThat(tagExpression.getTags().toString(), is("[@smoke, @wip]"));
+        assertThat(tagExpression.getTagId("@wip"), is(1));
+        assertThat(tagExpression.getTagId("@other"), is(-1));
+    }
+
+    @Test
+    public void escapedTagsTest() {
+        CompiledTagExpression tagExpression = CompiledTagExpression.compile("@tag\\(1\\) or @with\\ space");
+
+        assertThat(tagExpression.getTags().toString(), is("[@tag(1), @with space]"));
+        assertThat(tagExpression.matches(
+                Collections.singletonList("@with space"), Collections.emptyList(), Collections.emptyList()), is(true));
+    }
+
+    @Test
+    public void moreThan64TagsTest() {
+        StringBuilder expression = new StringBuilder("@tag0");
+        for (int i = 1; i < 100; i++) {
+            expression.append(" or @tag").append(i);
+        }
+        CompiledTagExpression tagExpression = CompiledTagExpression.compile(expression.toString());
+
+        assertThat(tagExpression.matches(
+                Collections.singletonList("@tag99"), Collections.emptyList(), Collections.emptyList()), is(true));
+        assertThat(tagExpression.matches(
+                Collections.singletonList("@tag100"), Collections.emptyList(), Collections.emptyList()), is(false));
+    }
+
+    @Test(expected = TagExpressionException.class)
+    public void invalidExpressionTest() {
+        CompiledTagExpression.compile("@tag1 wrongOperator @tag2");
+    }
+
+    @Test
+    public void sameResultsAsCucumberTagExpressionsTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            String expression = randomExpression(random, 4);
+            Expression expected = TagExpressionParser.parse(expression);
+            CompiledTagExpression compiled = CompiledTagExpression.compile(expression);
+            for (int combination = 0; combination < 1 << TAGS.size(); combination++) {
+                List<String> tags = new ArrayList<>();
+                for (int tag = 0; tag < TAGS.size(); tag++) {
+                    if ((combination & 1 << tag) != 0) {
+                        tags.add(TAGS.get(tag));
+                    }
+                }
+                assertThat(expression + " " + tags,
+                        compiled.matches(tags, Collections.emptyList(), Collections.emptyList()),
+                        is(expected.evaluate(tags)));
+            }
+        }
+    }
+
+    private static String randomExpression(final Random random, final int depth) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            return TAGS.get(random.nextInt(TAGS.size()));
+        }
+        switch (random.nextInt(4)) {
+            case 0:
+                return "not " + randomExpression(random, depth - 1);
+            case 1:
+                return "(" + randomExpression(random, depth - 1) + ")";
+            case 2:
+                return randomExpression(random, depth - 1) + " and " + randomExpression(random, depth - 1);
+            default:
+                return randomExpression(random, depth - 1) + " or " + randomExpression(random, depth - 1);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.trivago.gherkin;
+
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Feature;
+import io.cucumber.messages.types.Scenario;
+import io.cucumber.messages.types.TableRow;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class GherkinDocumentIndexTest {
+
+    private Feature feature;
+    private GherkinDocumentIndex gherkinDocumentIndex;
+
+    @Before
+    public void setup() {
+        String featureContent = "Feature: test feature\n" +
+                                "\n" +
+                                "  Background:\n" +
+                                "    Given a feature background step\n" +
+                                "\n" +
+                                "  Scenario Outline: outline <key>\n" +
+                                "    Given step <key>\n" +
+                                "    Examples:\n" +
+                                "      | key |\n" +
+                                "      | 1   |\n" +
+                                "\n" +
+                                "  Rule: a rule\n" +
+                                "    Background:\n" +
+                                "      Given a rule background step\n" +
+                                "\n" +
+                                "    Scenario: rule scenario\n" +
+                                "      Given a rule scenario step\n";
+        feature = new GherkinParserProvider().getGherkinParser()
+                .parse("test.feature", featureContent.getBytes(StandardCharsets.UTF_8))
+                .map(Envelope::getGherkinDocument)
+                .filter(gherkinDocument -> gherkinDocument.isPresent())
+                .map(gherkinDocument -> gherkinDocument.get().getFeature().get())
+                .findFirst()
+                .get();
+        gherkinDocumentIndex = new GherkinDocumentIndex(feature);
+    }
+
+    @Test
+    public void scenarioOutlineTest() {
+        Scenario outline = feature.getChildren().get(1).getScenario().get();
+        TableRow exampleRow = outline.getExamples().get(0).getTableBody().get(0);
+
+        assertThat(gherkinDocumentIndex.getScenario(outline.getId()), is(outline));
+        assertThat(gherkinDocumentIndex.getExampleRow(exampleRow.getId()), is(exampleRow));
+        assertThat(gherkinDocumentIndex.getExamplesOfExampleRow(exampleRow.getId()), is(outline.getExamples().get(0)));
+        assertThat(gherkinDocumentIndex.getParentId(outline.getSteps().get(0).getId()), is(outline.getId()));
+        assertThat(gherkinDocumentIndex.getParentId(outline.getId()), is(nullValue()));
+        assertThat(gherkinDocumentIndex.getExamplesOfExampleRow(outline.getId()), is(nullValue()));
+    }
+
+    @Test
+    public void backgroundStepsTest() {
+        String featureBackgroundStepId =
+                feature.getChildren().get(0).getBackground().get().getSteps().get(0).getId();
+        String ruleBackgroundStepId =
+                feature.getChildren().get(2).getRule().get().getChildren().get(0).getBackground().get()
+                        .getSteps().get(0).getId();
+
+        assertThat(gherkinDocumentIndex.isFeatureBackgroundStep(featureBackgroundStepId), is(true));
+        assertThat(gherkinDocumentIndex.isFeatureBackgroundStep(ruleBackgroundStepId), is(false));
+        assertThat(gherkinDocumentIndex.getStep(ruleBackgroundStepId).getText(), is("a rule background step"));
+    }
+
+    @Test
+    public void ruleTest() {
+        String ruleId = feature.getChildren().get(2).getRule().get().getId();
+        Scenario ruleScenario =
+                feature.getChildren().get(2).getRule().get().getChildren().get(1).getScenario().get();
+
+        assertThat(gherkinDocumentIndex.getRule(ruleId).getName(), is("a rule"));
+        assertThat(gherkinDocumentIndex.getScenario(ruleScenario.getId()), is(ruleScenario));
+        assertThat(gherkinDocumentIndex.getParentId(ruleScenario.getId()), is(ruleId));
+    }
+}
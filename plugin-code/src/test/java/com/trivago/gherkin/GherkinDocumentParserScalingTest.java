@@ -0,0 +1,119 @@
+package com.trivago.gherkin;
+
+import com.trivago.corpus.GherkinCorpusGenerator;
+import com.trivago.logging.CucableLogger;
+import com.trivago.properties.PropertyManager;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks that the CPU time and the memory spent while parsing grow linearly with the size of the corpus.
+ * Each measurement compares a corpus with a larger version of it. The CPU time of the current thread is compared
+ * with a wide margin so that the check is stable on loaded build agents, while still failing for an implementation
+ * that compares every example row with every other one.
+ */
+public class GherkinDocumentParserScalingTest {
+
+    private static final int SCALE_FACTOR = 8;
+    private static final int EXAMPLE_ROWS_SCALE_FACTOR = 16;
+    private static final double MAX_CPU_TIME_MARGIN = 3;
+    private static final double MAX_MEMORY_MARGIN = 1.5;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private GherkinDocumentParser gherkinDocumentParser;
+
+    @Before
+    public void setup() {
+        gherkinDocumentParser = new GherkinDocumentParser(
+                new GherkinToCucableConverter(), new GherkinParserProvider(),
+                mock(PropertyManager.class), mock(CucableLogger.class));
+    }
+
+    @Test
+    public void exampleRowsScaleLinearlyTest() throws Exception {
+        GherkinCorpusGenerator generator = new GherkinCorpusGenerator()
+                .features(1).scenariosPerFeature(0).outlinesPerFeature(1);
+        assertLinearScaling(
+                generator.exampleRowsPerOutline(500).generate(),
+                generator.exampleRowsPerOutline(500 * EXAMPLE_ROWS_SCALE_FACTOR).generate(),
+                EXAMPLE_ROWS_SCALE_FACTOR);
+    }
+
+    @Test
+    public void featuresScaleLinearlyTest() throws Exception {
+        GherkinCorpusGenerator generator = new GherkinCorpusGenerator()
+                .scenariosPerFeature(5).outlinesPerFeature(1).exampleRowsPerOutline(5).rulesPerFeature(1)
+                .languages("en", "de");
+        assertLinearScaling(
+                generator.features(25).generate(),
+                generator.features(25 * SCALE_FACTOR).generate(),
+                SCALE_FACTOR);
+    }
+
+    private void assertLinearScaling(
+            final List<String> corpus, final List<String> largeCorpus, final int scaleFactor) throws Exception {
+        Assume.assumeTrue("CPU time cannot be measured on this JVM",
+                threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled());
+        Assume.assumeTrue("Allocated bytes cannot be measured on this JVM", getAllocatedBytes() > 0);
+        // Warm up the parser so that the first parse (e.g. class loading and JIT compilation) is not measured
+        for (int i = 0; i < 3; i++) {
+            parse(largeCorpus);
+        }
+        Measurement measurement = new Measurement();
+        Measurement largeMeasurement = new Measurement();
+        for (int i = 0; i < 5; i++) {
+            measurement.add(parse(corpus));
+            largeMeasurement.add(parse(largeCorpus));
+        }
+        double cpuTimeRatio = (double) largeMeasurement.cpuTime / Math.max(1, measurement.cpuTime);
+        assertTrue("CPU time grew by factor " + cpuTimeRatio, cpuTimeRatio < scaleFactor * MAX_CPU_TIME_MARGIN);
+        double memoryRatio = (double) largeMeasurement.allocatedBytes / Math.max(1, measurement.allocatedBytes);
+        assertTrue("Allocated memory grew by factor " + memoryRatio, memoryRatio < scaleFactor * MAX_MEMORY_MARGIN);
+    }
+
+    /**
+     * Parses all features of a corpus.
+     *
+     * @param corpus The feature contents.
+     * @return The CPU time and the allocated bytes of the parse.
+     */
+    private Measurement parse(final List<String> corpus) throws Exception {
+        long cpuTime = threadMXBean.getCurrentThreadCpuTime();
+        long allocatedBytes = getAllocatedBytes();
+        for (String featureContent : corpus) {
+            gherkinDocumentParser.getSingleScenariosFromFeature(featureContent, "test.feature", null);
+        }
+        Measurement measurement = new Measurement();
+        measurement.cpuTime = Math.max(0, threadMXBean.getCurrentThreadCpuTime() - cpuTime);
+        measurement.allocatedBytes = Math.max(0, getAllocatedBytes() - allocatedBytes);
+        return measurement;
+    }
+
+    private long getAllocatedBytes() {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * The smallest CPU time and allocated bytes of repeated parses, which are the least disturbed by other threads.
+     */
+    private static final class Measurement {
+        private long cpuTime = Long.MAX_VALUE;
+        private long allocatedBytes = Long.MAX_VALUE;
+
+        private void add(final Measurement measurement) {
+            cpuTime = Math.min(cpuTime, measurement.cpuTime);
+            allocatedBytes = Math.min(allocatedBytes, measurement.allocatedBytes);
+        }
+    }
+}
@@ -12,11 +12,15 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,7 +37,8 @@ public class GherkinDocumentParserTest {
         propertyManager = mock(PropertyManager.class);
         mockedLogger = mock(CucableLogger.class);
         gherkinDocumentParser =
-                new GherkinDocumentParser(gherkinToCucableConverter, propertyManager, mockedLogger);
+                new GherkinDocumentParser(
+                        gherkinToCucableConverter, new GherkinParserProvider(), propertyManager, mockedLogger);
     }
 
     @Test
@@ -42,6 +47,25 @@ public class GherkinDocumentParserTest {
         verify(mockedLogger, times(1)).warn("No parsable gherkin.");
     }
 
+    @Test
+    public void featureWithoutIncludedTagsIsNotParsedTest() throws Exception {
+        GherkinParserProvider gherkinParserProvider = mock(GherkinParserProvider.class);
+        gherkinDocumentParser = new GherkinDocumentParser(
+                new GherkinToCucableConverter(), gherkinParserProvider, propertyManager, mockedLogger);
+        when(propertyManager.getIncludeScenarioTags()).thenReturn("@smoke and not @wip");
+        String featureContent = "Feature: test feature\n" +
+                                "\n" +
+                                "@wip @regression\n" +
+                                "Scenario: This is a scenario\n" +
+                                "Given this is step 1\n";
+
+        List<SingleScenario> singleScenariosFromFeature =
+                gherkinDocumentParser.getSingleScenariosFromFeature(featureContent, "", null);
+
+        assertThat(singleScenariosFromFeature.size(), is(0));
+        verify(gherkinParserProvider, never()).getGherkinParser();
+    }
+
     @Test
     public void validFeatureTest() throws Exception {
         String featureContent = "@featureTag\n" +
@@ -756,6 +780,120 @@ public class GherkinDocumentParserTest {
                "      | 3   | three   |\n";
     }
 
+    @Test
+    public void scenarioLineNumbersTest() throws Exception {
+        List<SingleScenario> singleScenariosFromFeature =
+                gherkinDocumentParser.getSingleScenariosFromFeature(
+                        getScenarioAndScenarioOutline(), "", Collections.singletonList(3));
+        assertThat(singleScenariosFromFeature.size(), is(1));
+        assertThat(singleScenariosFromFeature.get(0).getScenarioName(), is("Scenario: scenario 1"));
+    }
+
+    @Test
+    public void scenarioOutlineLineNumberSelectsAllExamplesTest() throws Exception {
+        List<SingleScenario> singleScenariosFromFeature =
+                gherkinDocumentParser.getSingleScenariosFromFeature(
+                        getScenarioAndScenarioOutline(), "", Collections.singletonList(6));
+        assertThat(singleScenariosFromFeature.size(), is(3));
+    }
+
+    @Test
+    public void examplesLineNumberSelectsExamplesBlockTest() throws Exception {
+        List<SingleScenario> singleScenariosFromFeature =
+                gherkinDocumentParser.getSingleScenariosFromFeature(
+                        getScenarioAndScenarioOutline(), "", Collections.singletonList(12));
+        assertThat(singleScenariosFromFeature.size(), is(1));
+        assertThat(singleScenariosFromFeature.get(0).getExampleRow(), is(Arrays.asList("3", "three")));
+    }
+
+    @Test
+    public void exampleRowLineNumbersTest() throws Exception {
+        List<SingleScenario> singleScenariosFromFeature =
+                gherkinDocumentParser.getSingleScenariosFromFeature(
+                        getScenarioAndScenarioOutline(), "", Arrays.asList(3, 11));
+        assertThat(singleScenariosFromFeature.size(), is(2));
+        assertThat(singleScenariosFromFeature.get(0).getScenarioName(), is("Scenario: scenario 1"));
+        assertThat(singleScenariosFromFeature.get(1).getExampleRow(), is(Arrays.asList("2", "two")));
+        assertThat(singleScenariosFromFeature.get(0).getExampleRowLineNumber(), is(0));
+        assertThat(singleScenariosFromFeature.get(1).getExampleRowLineNumber(), is(11));
+        verify(mockedLogger, times(0)).warn(anyString());
+    }
+
+    @Test
+    public void unmatchedLineNumbersTest() throws Exception {
+        List<SingleScenario> singleScenariosFromFeature =
+                gherkinDocumentParser.getSingleScenariosFromFeature(
+                        getScenarioAndScenarioOutline(), "test.feature", Arrays.asList(3, 4));
+        assertThat(singleScenariosFromFeature.size(), is(1));
+        verify(mockedLogger, times(1))
+                .warn("Line 4 of test.feature does not match any scenario, examples or example row.");
+    }
+
+    @Test
+    public void scenarioInsideRuleTest() throws Exception {
+        String featureContent = "Feature: test feature\n" +
+                                "\n" +
+                                "  Rule: a rule\n" +
+                                "\n" +
+                                "    Example: rule example\n" +
+                                "      Given this is step 1\n";
+
+        List<SingleScenario> singleScenariosFromFeature =
+                gherkinDocumentParser.getSingleScenariosFromFeature(featureContent, "", Collections.singletonList(5));
+        assertThat(singleScenariosFromFeature.size(), is(1));
+        SingleScenario scenario = singleScenariosFromFeature.get(0);
+        assertThat(scenario.getScenarioName(), is("Example: rule example"));
+        assertThat(scenario.getLineNumber(), is(5));
+        assertThat(scenario.getSteps().get(0).getName(), is("Given this is step 1"));
+    }
+
+    private String getScenarioAndScenarioOutline() {
+        return "Feature: test feature\n" +
+               "\n" +
+               "Scenario: scenario 1\n" +
+               "Given this is step 1\n" +
+               "\n" +
+               "Scenario Outline: scenario outline <key>\n" +
+               "Given this is step <value>\n" +
+               "Examples:\n" +
+               "      | key | value   |\n" +
+               "      | 1   | one     |\n" +
+               "      | 2   | two     |\n" +
+               "Examples:\n" +
+               "      | key | value   |\n" +
+               "      | 3   | three   |\n";
+    }
+
+    @Test
+    public void scenariosShareFeatureContextAndRepeatedValuesTest() throws Exception {
+        String featureContent = "@featureTag\n" +
+                                "Feature: test feature\n" +
+                                "\n" +
+                                "Background:\n" +
+                                "Given the background step\n" +
+                                "\n" +
+                                "@tag1\n" +
+                                "Scenario: scenario 1\n" +
+                                "Given the same step\n" +
+                                "\n" +
+                                "@tag1\n" +
+                                "Scenario: scenario 2\n" +
+                                "Given the same step\n";
+
+        List<SingleScenario> firstScenarios =
+                gherkinDocumentParser.getSingleScenariosFromFeature(featureContent, "first.feature", null);
+        List<SingleScenario> secondScenarios =
+                gherkinDocumentParser.getSingleScenariosFromFeature(featureContent, "second.feature", null);
+
+        SingleScenario scenario = firstScenarios.get(0);
+        assertThat(firstScenarios.get(1).getFeatureContext(), is(sameInstance(scenario.getFeatureContext())));
+        assertThat(secondScenarios.get(0).getFeatureContext(), is(not(sameInstance(scenario.getFeatureContext()))));
+        assertThat(secondScenarios.get(0).getScenarioTags(), is(sameInstance(scenario.getScenarioTags())));
+        assertThat(secondScenarios.get(0).getFeatureTags().get(0), is(sameInstance(scenario.getFeatureTags().get(0))));
+        assertThat(firstScenarios.get(1).getSteps().get(0).getName(),
+                is(sameInstance(scenario.getSteps().get(0).getName())));
+    }
+
     private String getTwoScenariosWithTags() {
         return "@featureTag\n" +
                "Feature: test feature\n" +
@@ -0,0 +1,55 @@
+package com.trivago.gherkin;
+
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.Envelope;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class GherkinParserProviderTest {
+
+    private GherkinParserProvider gherkinParserProvider;
+
+    @Before
+    public void setup() {
+        gherkinParserProvider = new GherkinParserProvider();
+    }
+
+    @Test
+    public void parserIsReusedWithinThreadTest() {
+        GherkinParser gherkinParser = gherkinParserProvider.getGherkinParser();
+        assertThat(gherkinParserProvider.getGherkinParser(), is(sameInstance(gherkinParser)));
+    }
+
+    @Test
+    public void parserIsNotSharedBetweenThreadsTest() throws Exception {
+        GherkinParser gherkinParser = gherkinParserProvider.getGherkinParser();
+        GherkinParser otherThreadGherkinParser =
+                CompletableFuture.supplyAsync(gherkinParserProvider::getGherkinParser).get();
+        assertThat(otherThreadGherkinParser, is(not(sameInstance(gherkinParser))));
+    }
+
+    @Test
+    public void reusedParserParsesMultipleDocumentsTest() {
+        String featureContent = "Feature: test feature\n" +
+                                "Scenario: scenario 1\n" +
+                                "Given step 1\n";
+
+        for (int i = 0; i < 2; i++) {
+            List<Envelope> envelopes = gherkinParserProvider.getGherkinParser()
+                    .parse("test.feature", featureContent.getBytes(StandardCharsets.UTF_8))
+                    .collect(Collectors.toList());
+            assertThat(envelopes.stream().anyMatch(envelope -> envelope.getSource().isPresent()), is(false));
+            assertThat(envelopes.stream().filter(envelope -> envelope.getPickle().isPresent()).count(), is(1L));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.trivago.gherkin;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class ScenarioNameMatcherTest {
+
+    private static final char[] ALPHABET = {'a', 'b', 'A', 'B', ':', ' ', '\n', 'é', 'É'};
+
+    @Test
+    public void matchTest() {
+        ScenarioNameMatcher matcher = new ScenarioNameMatcher(Arrays.asList("login", "checkout", "LOG", "login"));
+
+        assertThat(matcher.match("Scenario: Checkout as guest"), is(1));
+        assertThat(matcher.match("Scenario: a login and checkout"), is(0));
+        assertThat(matcher.match("Scenario: Logout"), is(2));
+        assertThat(matcher.match("Scenario:login"), is(-1));
+        assertThat(matcher.match("login: something"), is(-1));
+        assertThat(matcher.match("Scenario\n: x\nlogin"), is(-1));
+    }
+
+    @Test
+    public void asciiOnlyCaseInsensitivityTest() {
+        ScenarioNameMatcher matcher = new ScenarioNameMatcher(Collections.singletonList("été"));
+
+        assertThat(matcher.match("Scenario: éTé"), is(0));
+        assertThat(matcher.match("Scenario: Été"), is(-1));
+    }
+
+    @Test
+    public void sameResultsAsRegularExpressionTest() {
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            List<String> scenarioNames = new ArrayList<>();
+            int numberOfNames = 1 + random.nextInt(4);
+            for (int name = 0; name < numberOfNames; name++) {
+                scenarioNames.add(randomString(random, random.nextInt(4)));
+            }
+            ScenarioNameMatcher matcher = new ScenarioNameMatcher(scenarioNames);
+            for (int text = 0; text < 20; text++) {
+                String scenarioTitle = randomString(random, random.nextInt(12));
+                assertThat(scenarioNames + " in '" + scenarioTitle + "'",
+                        matcher.match(scenarioTitle), is(matchWithRegularExpression(scenarioNames, scenarioTitle)));
+            }
+        }
+    }
+
+    private static int matchWithRegularExpression(final List<String> scenarioNames, final String scenarioTitle) {
+        for (String scenarioName : scenarioNames) {
+            Pattern pattern = Pattern.compile(
+                    ".*:.+" + Pattern.quote(scenarioName), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+            if (pattern.matcher(scenarioTitle).find()) {
+                return scenarioNames.indexOf(scenarioName);
+            }
+        }
+        return -1;
+    }
+
+    private static String randomString(final Random random, final int length) {
+        StringBuilder string = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            string.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return string.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.trivago.gherkin;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class StringPoolTest {
+
+    @Test
+    public void internReturnsSharedInstanceTest() {
+        StringPool stringPool = new StringPool(10);
+        String first = stringPool.intern(new String("Given a step"));
+        String second = stringPool.intern(new String("Given a step"));
+        assertThat(second, is(sameInstance(first)));
+        assertThat(stringPool.size(), is(1));
+        assertThat(stringPool.intern(null), is(nullValue()));
+    }
+
+    @Test
+    public void fullPoolReturnsNewStringsUnchangedTest() {
+        StringPool stringPool = new StringPool(1);
+        stringPool.intern("first");
+        String second = new String("second");
+        assertThat(stringPool.intern(second), is(sameInstance(second)));
+        assertThat(stringPool.size(), is(1));
+    }
+
+    @Test
+    public void internListReturnsSharedUnmodifiableListTest() {
+        StringPool stringPool = new StringPool(10);
+        List<String> first = stringPool.internList(new ArrayList<>(Arrays.asList("@tag1", "@tag2")));
+        List<String> second = stringPool.internList(new ArrayList<>(Arrays.asList("@tag1", "@tag2")));
+        assertThat(second, is(sameInstance(first)));
+        assertThat(stringPool.internList(Arrays.asList("@tag2", "@tag1")), is(not(sameInstance(first))));
+        assertThat(stringPool.internList(Collections.emptyList()), is(Collections.emptyList()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void internedListIsUnmodifiableTest() {
+        new StringPool(10).internList(Arrays.asList("@tag1")).add("@tag2");
+    }
+
+    @Test
+    public void clearTest() {
+        StringPool stringPool = new StringPool(10);
+        String first = stringPool.intern(new String("Given a step"));
+        List<String> firstList = stringPool.internList(Arrays.asList("@tag1"));
+        stringPool.clear();
+
+        assertThat(stringPool.size(), is(0));
+        assertThat(stringPool.intern(new String("Given a step")), is(not(sameInstance(first))));
+        assertThat(stringPool.internList(Arrays.asList("@tag1")), is(not(sameInstance(firstList))));
+    }
+}
@@ -0,0 +1,86 @@
+package com.trivago.gherkin;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class TagPreScanTest {
+
+    private static final String FEATURE = "@featureTag\n" +
+            "Feature: test feature\n" +
+            "\n" +
+            "  @regression @wip #@smoke is commented out\n" +
+            "  Scenario: scenario 1\n" +
+            "    Given a step with a doc string\n" +
+            "      \"\"\"\n" +
+            "      mail@example.com\n" +
+            "      \"\"\"\n" +
+            "\n" +
+            "  @outline#comment\n" +
+            "  Scenario Outline: scenario 2\n" +
+            "    Given <value>\n" +
+            "\n" +
+            "    @exampleTag\n" +
+            "    Examples:\n" +
+            "      | value |\n" +
+            "      | 1     |\n";
+
+    @Test
+    public void collectTagTokensTest() {
+        Set<String> wanted = new HashSet<>(Arrays.asList(
+                "@featureTag", "@regression", "@wip", "@smoke", "@outline", "@exampleTag", "mail@example.com"));
+
+        Set<String> tokens = TagPreScan.collectTagTokens(FEATURE, wanted);
+
+        assertThat(tokens, is(new HashSet<>(Arrays.asList(
+                "@featureTag", "@regression", "@wip", "@outline", "@exampleTag"))));
+    }
+
+    @Test
+    public void cannotMatchTest() {
+        assertThat(cannotMatch("@smoke"), is(true));
+        assertThat(cannotMatch("@smoke and not @wip"), is(true));
+        assertThat(cannotMatch("@wip and not @regression and not @featureTag"), is(false));
+        assertThat(cannotMatch("@exampleTag"), is(false));
+        assertThat(cannotMatch("@outline"), is(false));
+        assertThat(cannotMatch("not @smoke"), is(false));
+        assertThat(cannotMatch("(@smoke or @other) and @featureTag"), is(true));
+        assertThat(cannotMatch(""), is(false));
+    }
+
+    @Test
+    public void adjacentTagsTest() {
+        String feature = "@a@b\n" +
+                "Feature: x\n" +
+                "  @c@d #@e\n" +
+                "  Scenario: y\n" +
+                "    Given z\n";
+        Set<String> wanted = new HashSet<>(Arrays.asList("@a", "@b", "@c", "@d", "@e", "@a@b"));
+
+        assertThat(TagPreScan.collectTagTokens(feature, wanted),
+                is(new HashSet<>(Arrays.asList("@a", "@b", "@c", "@d"))));
+        assertThat(TagPreScan.cannotMatch(CompiledTagExpression.compile("@b"), feature), is(false));
+        assertThat(TagPreScan.cannotMatch(CompiledTagExpression.compile("@b and @d"), feature), is(false));
+        assertThat(TagPreScan.cannotMatch(CompiledTagExpression.compile("@e"), feature), is(true));
+    }
+
+    @Test
+    public void byteOrderMarkTest() {
+        String feature = "\uFEFF@smoke\n" +
+                "Feature: x\n" +
+                "  Scenario: y\n" +
+                "    Given z\n";
+
+        assertThat(TagPreScan.cannotMatch(CompiledTagExpression.compile("@smoke"), feature), is(false));
+        assertThat(TagPreScan.cannotMatch(CompiledTagExpression.compile("@other"), feature), is(true));
+    }
+
+    private static boolean cannotMatch(final String tagExpression) {
+        return TagPreScan.cannotMatch(CompiledTagExpression.compile(tagExpression), FEATURE);
+    }
+}
@@ -12,6 +12,7 @@ import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,7 +34,8 @@ public class PropertyManagerTest {
     @Before
     public void setup() {
         logger = mock(CucableLogger.class);
-        fileSystemManager = mock(FileSystemManager.class);
+        // Created by its constructor so that real methods can be called on it
+        fileSystemManager = mock(FileSystemManager.class, withSettings().useConstructor());
         propertyManager = new PropertyManager(logger, fileSystemManager);
     }
 
@@ -49,6 +51,18 @@ public class PropertyManagerTest {
         assertThat(propertyManager.getGeneratedFeatureDirectory(), is("test"));
     }
 
+    @Test
+    public void effectiveConfigurationContainsCostEstimationTest() {
+        String configuration = propertyManager.getEffectiveConfiguration();
+
+        propertyManager.setBalanceByScenarioWeight(true);
+        assertThat(propertyManager.getEffectiveConfiguration().equals(configuration), is(false));
+        configuration = propertyManager.getEffectiveConfiguration();
+
+        propertyManager.setDurationHistory("reports");
+        assertThat(propertyManager.getEffectiveConfiguration().equals(configuration), is(false));
+    }
+
     @Test
     public void setNumberOfTestRunsTest() {
         propertyManager.setNumberOfTestRuns(11);
@@ -88,6 +102,15 @@ public class PropertyManagerTest {
         assertThat(propertyManager.getScenarioNames(), is(expectedList));
     }
 
+    @Test
+    public void featureFileGlobsTest() {
+        propertyManager.setIncludeFeatureFiles(" checkout/**,  *.smoke.feature ");
+        propertyManager.setExcludeFeatureFiles(null);
+
+        assertThat(propertyManager.getIncludeFeatureFiles(), is(Arrays.asList("checkout/**", "*.smoke.feature")));
+        assertThat(propertyManager.getExcludeFeatureFiles().isEmpty(), is(true));
+    }
+
     @Test
     public void sourceRunnerTemplateFileTest() {
         propertyManager.setSourceRunnerTemplateFile("myTemplate");
@@ -107,6 +130,60 @@ public class PropertyManagerTest {
         propertyManager.setParallelizationMode("unknown");
     }
 
+    @Test
+    public void tagWeightsTest() throws CucablePluginException {
+        propertyManager.setTagWeights(" @slow=10 , @db = 3");
+        assertThat(propertyManager.getTagWeights().size(), is(2));
+        assertThat(propertyManager.getTagWeights().get("@slow"), is(10L));
+        assertThat(propertyManager.getTagWeights().get("@db"), is(3L));
+        propertyManager.setTagWeights(null);
+        assertThat(propertyManager.getTagWeights().isEmpty(), is(true));
+    }
+
+    @Test(expected = CucablePluginException.class)
+    public void wrongTagWeightsTest() throws CucablePluginException {
+        propertyManager.setTagWeights("slow=10");
+    }
+
+    @Test(expected = CucablePluginException.class)
+    public void zeroTagWeightTest() throws CucablePluginException {
+        propertyManager.setTagWeights("@slow=0");
+    }
+
+    @Test
+    public void namingModeTest() throws CucablePluginException {
+        assertThat(propertyManager.getNamingMode(), is(PropertyManager.NamingMode.COUNTER));
+        propertyManager.setNamingMode("hash");
+        assertThat(propertyManager.getNamingMode(), is(PropertyManager.NamingMode.HASH));
+    }
+
+    @Test(expected = CucablePluginException.class)
+    public void wrongNamingModeTest() throws CucablePluginException {
+        propertyManager.setNamingMode("random");
+    }
+
+    @Test
+    public void shardTest() throws CucablePluginException {
+        assertThat(propertyManager.isSharding(), is(false));
+        assertThat(propertyManager.getShardAssignment(), is(PropertyManager.ShardAssignment.HASH));
+        propertyManager.setShardCount(3);
+        propertyManager.setShardIndex(2);
+        propertyManager.setShardAssignment("balanced");
+        assertThat(propertyManager.isSharding(), is(true));
+        assertThat(propertyManager.getShardIndex(), is(2));
+        assertThat(propertyManager.getShardAssignment(), is(PropertyManager.ShardAssignment.BALANCED));
+    }
+
+    @Test(expected = CucablePluginException.class)
+    public void wrongShardCountTest() throws CucablePluginException {
+        propertyManager.setShardCount(0);
+    }
+
+    @Test(expected = CucablePluginException.class)
+    public void wrongShardAssignmentTest() throws CucablePluginException {
+        propertyManager.setShardAssignment("random");
+    }
+
     @Test
     public void featureWithTextFileAndRegularFeature() throws CucablePluginException {
         when(fileSystemManager.readContentFromFile("src/test/resources/features.txt")).thenCallRealMethod();
@@ -202,6 +279,22 @@ public class PropertyManagerTest {
         propertyManager.checkForDisallowedPropertyCombinations();
     }
 
+    @Test(expected = CucablePluginException.class)
+    public void checkForDisallowedLineReferencesWithTestRunsTest() throws CucablePluginException {
+        propertyManager.setParallelizationMode(PropertyManager.ParallelizationMode.SCENARIOS.toString());
+        propertyManager.setLineReferences(true);
+        propertyManager.setNumberOfTestRuns(2);
+        propertyManager.checkForDisallowedPropertyCombinations();
+    }
+
+    @Test(expected = CucablePluginException.class)
+    public void checkForDisallowedShardIndexTest() throws CucablePluginException {
+        propertyManager.setParallelizationMode(PropertyManager.ParallelizationMode.SCENARIOS.toString());
+        propertyManager.setShardCount(2);
+        propertyManager.setShardIndex(2);
+        propertyManager.checkForDisallowedPropertyCombinations();
+    }
+
     @Test(expected = CucablePluginException.class)
     public void checkForDisallowedParallelizationModePropertiesSourceFeaturesIsNotDirectoryTest()
             throws CucablePluginException {
@@ -242,6 +335,50 @@ public class PropertyManagerTest {
         propertyManager.checkForDisallowedPropertyCombinations();
     }
 
+    @Test
+    public void automaticNumberOfRunnersTest() throws CucablePluginException {
+        int availableProcessors = Runtime.getRuntime().availableProcessors();
+        propertyManager.setDesiredNumberOfRunners("auto");
+        assertThat(propertyManager.isAutomaticNumberOfRunners(), is(true));
+        assertThat(propertyManager.getDesiredNumberOfRunners(), is(availableProcessors));
+
+        propertyManager.setForkCount("4");
+        assertThat(propertyManager.getDesiredNumberOfRunners(), is(4));
+        propertyManager.setForkCount("1.5C");
+        assertThat(propertyManager.getDesiredNumberOfRunners(), is((int) Math.ceil(1.5 * availableProcessors)));
+
+        propertyManager.setDesiredNumberOfRunners("7");
+        assertThat(propertyManager.isAutomaticNumberOfRunners(), is(false));
+        assertThat(propertyManager.getDesiredNumberOfRunners(), is(7));
+    }
+
+    @Test(expected = CucablePluginException.class)
+    public void wrongDesiredNumberOfRunnersTest() throws CucablePluginException {
+        propertyManager.setDesiredNumberOfRunners("many");
+    }
+
+    @Test(expected = CucablePluginException.class)
+    public void wrongForkCountTest() throws CucablePluginException {
+        propertyManager.setForkCount("0C");
+    }
+
+    @Test
+    public void logAutomaticNumberOfRunnersTest() throws CucablePluginException {
+        ArgumentCaptor<String> logCaptor = ArgumentCaptor.forClass(String.class);
+        int availableProcessors = Runtime.getRuntime().availableProcessors();
+        propertyManager.setParallelizationMode("scenarios");
+        propertyManager.setForkCount("2C");
+        propertyManager.setDesiredNumberOfRunners("auto");
+        propertyManager.logProperties();
+        verify(logger, atLeastOnce()).info(logCaptor.capture(), any(CucableLogger.CucableLogLevel.class),
+                                           any(CucableLogger.CucableLogLevel.class)
+        );
+        assertThat(logCaptor.getAllValues().contains(String.format(
+                "- desiredNumberOfRunners       : %d (auto, forkCount 2C on %d available %s)",
+                2 * availableProcessors, availableProcessors, availableProcessors == 1 ? "processor" : "processors"
+        )), is(true));
+    }
+
     @Test
     public void logMandatoryPropertiesTest() throws CucablePluginException {
         ArgumentCaptor<String> logCaptor = ArgumentCaptor.forClass(String.class);
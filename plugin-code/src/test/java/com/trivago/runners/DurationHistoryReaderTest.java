@@ -0,0 +1,131 @@
+package com.trivago.runners;
+
+import com.trivago.files.FileSystemManager;
+import com.trivago.logging.CucableLogger;
+import com.trivago.vo.GeneratedFeature;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DurationHistoryReaderTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    private FileSystemManager fileSystemManager;
+    private CucableLogger logger;
+    private DurationHistoryReader durationHistoryReader;
+
+    @Before
+    public void setup() {
+        fileSystemManager = new FileSystemManager();
+        logger = mock(CucableLogger.class);
+        durationHistoryReader = new DurationHistoryReader(fileSystemManager, logger);
+    }
+
+    @Test
+    public void readSourceFeatureReportTest() throws Exception {
+        String reportDirectory = testFolder.newFolder("reports").getPath();
+        fileSystemManager.writeContentToFile(
+                "[{\"uri\": \"classpath:features/login.feature\", \"elements\": [" +
+                        "{\"type\": \"background\", \"line\": 3, \"steps\": [{\"result\": {\"duration\": 5}}]}," +
+                        "{\"type\": \"scenario\", \"line\": 6, " +
+                        "\"before\": [{\"result\": {\"duration\": 1}}], " +
+                        "\"steps\": [{\"result\": {\"duration\": 10}}, {\"result\": {\"status\": \"skipped\"}}]}" +
+                        "]}]",
+                reportDirectory + "/report.json"
+        );
+
+        DurationHistory durationHistory = durationHistoryReader.readDurationHistory(
+                reportDirectory, testFolder.getRoot().getPath() + "/generated-features.properties");
+
+        assertThat(durationHistory.getDuration("src/test/resources/features/login.feature", 6), is(16L));
+        assertThat(durationHistory.getDuration("features/login.feature", 1), is(16L));
+        assertThat(durationHistory.getDuration("features/login.feature", 9), is(nullValue()));
+    }
+
+    @Test
+    public void readGeneratedFeatureReportTest() throws Exception {
+        String propertiesPath = testFolder.getRoot().getPath() + "/generated-features.properties";
+        fileSystemManager.writeContentToFile(
+                "login_1_scenario001_run001_IT=features/login.feature:6\n", propertiesPath);
+        String reportPath = testFolder.getRoot().getPath() + "/cucumber.json";
+        fileSystemManager.writeContentToFile(
+                "[{\"uri\": \"file:target/parallel/features/login_1_scenario001_run001_IT.feature\", " +
+                        "\"elements\": [{\"type\": \"scenario\", \"line\": 3, " +
+                        "\"steps\": [{\"result\": {\"duration\": 42}}]}]}]",
+                reportPath
+        );
+
+        DurationHistory durationHistory = durationHistoryReader.readDurationHistory(reportPath, propertiesPath);
+
+        assertThat(durationHistory.size(), is(1));
+        assertThat(durationHistory.getDuration("features/login.feature", 6), is(42L));
+    }
+
+    @Test
+    public void readGeneratedFeatureReportWithCurrentFeaturesTest() throws Exception {
+        String propertiesPath = testFolder.getRoot().getPath() + "/generated-features.properties";
+        fileSystemManager.writeContentToFile(
+                "login_1_scenario001_run001_IT=features/login.feature:6\n", propertiesPath);
+        String reportPath = testFolder.getRoot().getPath() + "/cucumber.json";
+        fileSystemManager.writeContentToFile(
+                "[{\"uri\": \"file:target/parallel/features/login_1_scenario001_run001_IT.feature\", " +
+                        "\"elements\": [{\"type\": \"scenario\", \"line\": 3, " +
+                        "\"steps\": [{\"result\": {\"duration\": 42}}]}]}," +
+                        "{\"uri\": \"file:target/parallel/features/login_1_scenario002_run001_IT.feature\", " +
+                        "\"elements\": [{\"type\": \"scenario\", \"line\": 3, " +
+                        "\"steps\": [{\"result\": {\"duration\": 7}}]}]}]",
+                reportPath
+        );
+        Map<String, GeneratedFeature> currentGeneratedFeatures = new HashMap<>();
+        for (GeneratedFeature generatedFeature : new GeneratedFeature[]{
+                new GeneratedFeature("login_1_scenario001_run001_IT", "features/login.feature", 8, null),
+                new GeneratedFeature("login_1_scenario002_run001_IT", "features/login.feature", 12, null)}) {
+            currentGeneratedFeatures.put(generatedFeature.getName(), generatedFeature);
+        }
+
+        DurationHistory durationHistory =
+                durationHistoryReader.readDurationHistory(reportPath, propertiesPath, currentGeneratedFeatures);
+        assertThat(durationHistory.getDuration("features/login.feature", 6), is(42L));
+        assertThat(durationHistory.getDuration("features/login.feature", 12), is(7L));
+
+        durationHistory = durationHistoryReader.readDurationHistory(reportPath, null, currentGeneratedFeatures);
+        assertThat(durationHistory.getDuration("features/login.feature", 6), is(nullValue()));
+        assertThat(durationHistory.getDuration("features/login.feature", 8), is(42L));
+    }
+
+    @Test
+    public void invalidReportIsSkippedTest() throws Exception {
+        String reportPath = testFolder.getRoot().getPath() + "/cucumber.json";
+        fileSystemManager.writeContentToFile("[{\"uri\": ", reportPath);
+
+        DurationHistory durationHistory = durationHistoryReader.readDurationHistory(
+                reportPath, testFolder.getRoot().getPath() + "/generated-features.properties");
+
+        assertThat(durationHistory.size(), is(0));
+        verify(logger, times(1)).warn(anyString());
+    }
+
+    @Test
+    public void missingReportsTest() throws Exception {
+        DurationHistory durationHistory = durationHistoryReader.readDurationHistory(
+                testFolder.getRoot().getPath() + File.separator + "missing", "generated-features.properties");
+
+        assertThat(durationHistory.size(), is(0));
+        verify(logger, times(1)).warn(anyString());
+    }
+}
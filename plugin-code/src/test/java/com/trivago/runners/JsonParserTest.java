@@ -0,0 +1,38 @@
+package com.trivago.runners;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class JsonParserTest {
+
+    @Test
+    public void parseValuesTest() {
+        Map<?, ?> object = (Map<?, ?>) JsonParser.parse(
+                " {\"text\": \"a\\\"b\\u0041\\n\", \"long\": -12, \"double\": 1.5e2, " +
+                        "\"list\": [true, false, null], \"empty\": {}} ");
+
+        assertThat(object.get("text"), is("a\"bA\n"));
+        assertThat(object.get("long"), is(-12L));
+        assertThat(object.get("double"), is(150.0));
+        assertThat((List<?>) object.get("list"), is(Arrays.asList(true, false, null)));
+        assertThat(((Map<?, ?>) object.get("empty")).isEmpty(), is(true));
+        assertThat(JsonParser.parse("null"), is(nullValue()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unterminatedArrayTest() {
+        JsonParser.parse("[1, 2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void trailingContentTest() {
+        JsonParser.parse("{} {}");
+    }
+}
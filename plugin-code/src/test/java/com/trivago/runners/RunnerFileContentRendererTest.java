@@ -9,6 +9,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,18 +18,21 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class RunnerFileContentRendererTest {
     private FileSystemManager fileSystemManager;
     private RunnerFileContentRenderer runnerFileContentRenderer;
     private PropertyManager propertyManager;
+    private CucableLogger logger;
 
     @Before
     public void setup() {
         fileSystemManager = mock(FileSystemManager.class);
         propertyManager = mock(PropertyManager.class);
-        CucableLogger logger = mock(CucableLogger.class);
+        logger = mock(CucableLogger.class);
         runnerFileContentRenderer = new RunnerFileContentRenderer(fileSystemManager, propertyManager, logger);
     }
 
@@ -296,4 +301,100 @@ public class RunnerFileContentRendererTest {
 
         runnerFileContentRenderer.getRenderedRunnerFileContent(featureRunner);
     }
+
+    @Test
+    public void templateIsCompiledOnceTest() throws Exception {
+        String template = "@CucumberOptions(features = {\"[CUCABLE:FEATURE].feature\"},\n" +
+                          "plugin = {\"json:MyClass/[CUCABLE:RUNNER]/[CUCABLE:CUSTOM:dir].json\"})\n" +
+                          "public class MyClass {\n" +
+                          "}\n";
+        when(fileSystemManager.readContentFromFile("MyClass.java")).thenReturn(template);
+
+        Map<String, String> customParameters = new HashMap<>();
+        customParameters.put("dir", "reports");
+        customParameters.put("missing", "value");
+        when(propertyManager.getCustomPlaceholders()).thenReturn(customParameters);
+
+        String firstRunner = runnerFileContentRenderer.getRenderedRunnerFileContent(
+                new FeatureRunner("MyClass.java", "Runner1", Arrays.asList("feature1", "feature2")));
+        String secondRunner = runnerFileContentRenderer.getRenderedRunnerFileContent(
+                new FeatureRunner("MyClass.java", "Runner2", Collections.singletonList("feature3")));
+
+        assertThat(firstRunner.replaceAll("\\r\\n", "\n"), is(
+                "@CucumberOptions(features = {\"feature1.feature\",\n" +
+                "\"feature2.feature\"},\n" +
+                "plugin = {\"json:Runner1/Runner1/reports.json\"})\n" +
+                "public class Runner1 {\n" +
+                "}\n" +
+                "\n" +
+                "\n" +
+                "// Generated by Cucable unknown from MyClass.java\n"));
+        assertThat(secondRunner.replaceAll("\\r\\n", "\n"), is(
+                "@CucumberOptions(features = {\"feature3.feature\"},\n" +
+                "plugin = {\"json:Runner2/Runner2/reports.json\"})\n" +
+                "public class Runner2 {\n" +
+                "}\n" +
+                "\n" +
+                "\n" +
+                "// Generated by Cucable unknown from MyClass.java\n"));
+        verify(fileSystemManager, times(1)).readContentFromFile("MyClass.java");
+        verify(logger, times(1))
+                .warn("Custom placeholder '[CUCABLE:CUSTOM:missing]' could not be found in your Cucable template.");
+    }
+
+    @Test
+    public void templateIsCompiledAgainAfterClearTest() throws Exception {
+        when(fileSystemManager.readContentFromFile("MyClass.java"))
+                .thenReturn("\"[CUCABLE:FEATURE]\"");
+        Map<String, String> customParameters = new HashMap<>();
+        customParameters.put("missing", "value");
+        when(propertyManager.getCustomPlaceholders()).thenReturn(customParameters);
+        FeatureRunner featureRunner = new FeatureRunner("MyClass.java", "Runner1", Collections.singletonList("f"));
+
+        runnerFileContentRenderer.getRenderedRunnerFileContent(featureRunner);
+        runnerFileContentRenderer.clearCompiledRunnerTemplates();
+        runnerFileContentRenderer.getRenderedRunnerFileContent(featureRunner);
+
+        verify(fileSystemManager, times(2)).readContentFromFile("MyClass.java");
+        verify(logger, times(2))
+                .warn("Custom placeholder '[CUCABLE:CUSTOM:missing]' could not be found in your Cucable template.");
+    }
+
+    @Test
+    public void featureReferencesTest() throws Exception {
+        String template = "@CucumberOptions(glue = \"steps\", features = {\"target/features/[CUCABLE:FEATURE].feature\"},\n" +
+                          "plugin = {\"json:target/[CUCABLE:RUNNER].json\"})\n" +
+                          "public class [CUCABLE:RUNNER] {\n" +
+                          "}\n";
+        when(fileSystemManager.readContentFromFile("template.txt")).thenReturn(template);
+
+        String renderedRunner = runnerFileContentRenderer.getRenderedRunnerFileContent(new FeatureRunner(
+                "template.txt", "Runner1", Arrays.asList("feature1", "feature2"),
+                Arrays.asList("src/features/a.feature:12", "src/features/b.feature")));
+
+        assertThat(renderedRunner.replaceAll("\\r\\n", "\n"), is(
+                "@CucumberOptions(glue = \"steps\", features = {\"src/features/a.feature:12\",\n" +
+                "\"src/features/b.feature\"},\n" +
+                "plugin = {\"json:target/Runner1.json\"})\n" +
+                "public class Runner1 {\n" +
+                "}\n" +
+                "\n" +
+                "\n" +
+                "// Generated by Cucable unknown from template.txt\n"));
+    }
+
+    @Test
+    public void repeatedFeatureEntryTest() throws Exception {
+        String template = "a = \"[CUCABLE:FEATURE]\"\nb = \"[CUCABLE:FEATURE]\"\n";
+        when(fileSystemManager.readContentFromFile(anyString())).thenReturn(template);
+
+        String renderedRunnerFileContent = runnerFileContentRenderer.getRenderedRunnerFileContent(
+                new FeatureRunner("pathToTemplate", "RunnerClass", Arrays.asList("f1", "f2")));
+
+        assertThat(renderedRunnerFileContent.replaceAll("\\r\\n", "\n"), is(
+                "a = \"f1\",\n\"f2\"\nb = \"f1\",\n\"f2\"\n" +
+                "\n" +
+                "\n" +
+                "// Generated by Cucable unknown from pathToTemplate\n"));
+    }
 }